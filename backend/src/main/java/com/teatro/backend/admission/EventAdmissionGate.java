@@ -0,0 +1,247 @@
+package com.teatro.backend.admission;
+
+import com.teatro.backend.exceptions.AdmissionQueueFullException;
+import com.teatro.backend.exceptions.InsufficientCapacityException;
+import com.teatro.backend.exceptions.ResourceNotFoundException;
+import com.teatro.backend.inventory.InventoryLedger;
+import com.teatro.backend.models.dtos.AdmissionTicketDTO;
+import com.teatro.backend.repositories.EventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Sala de espera por evento: deja pasar a lo sumo N reservas en curso por evento y encola al resto en orden de llegada.
+// El que queda en la cola recibe un token; cuando se libera un lugar se le asigna al primero de la cola
+// y el cliente lo usa reenviando la reserva con el header Admission-Token.
+// Si el ledger ya muestra el evento agotado se rechaza sin pasar por la cola ni por la base.
+// Las colas se crean solo para eventos que existen y el barrido saca las que quedan sin uso.
+@Slf4j
+@Component
+public class EventAdmissionGate {
+
+    private final InventoryLedger inventoryLedger;
+    private final EventRepository eventRepository;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long ticketTtlMillis;
+
+    private final Map<Long, EventQueue> queues = new ConcurrentHashMap<>();
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    public EventAdmissionGate(InventoryLedger inventoryLedger,
+                              EventRepository eventRepository,
+                              @Value("${teatro.admission.max-concurrent-per-event:20}") int maxConcurrent,
+                              @Value("${teatro.admission.max-queued-per-event:10000}") int maxQueued,
+                              @Value("${teatro.admission.ticket-ttl-seconds:30}") long ticketTtlSeconds) {
+        this.inventoryLedger = inventoryLedger;
+        this.eventRepository = eventRepository;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.ticketTtlMillis = ticketTtlSeconds * 1000;
+    }
+
+    // Si devuelve admitted=true el llamador tiene un lugar y debe devolverlo con leave() al terminar
+    public AdmissionTicketDTO enter(Long eventId, String token) {
+        if (eventId == null) {
+            return AdmissionTicketDTO.granted(null);
+        }
+        if (inventoryLedger.isSoldOut(eventId)) {
+            if (token != null) {
+                discard(token);
+            }
+            throw new InsufficientCapacityException("Event " + eventId + " is sold out");
+        }
+        while (true) {
+            EventQueue queue = queue(eventId);
+            if (token != null) {
+                return enterWithToken(queue, eventId, token);
+            }
+            synchronized (queue) {
+                // el barrido la sacó entre el get y el lock: se toma la nueva
+                if (queue.retired) {
+                    continue;
+                }
+                if (queue.waiting.isEmpty() && queue.active < maxConcurrent) {
+                    queue.active++;
+                    return AdmissionTicketDTO.granted(eventId);
+                }
+                if (queue.waiting.size() >= maxQueued) {
+                    throw new AdmissionQueueFullException("Too many customers waiting for event " + eventId + ", please try again later");
+                }
+                Ticket ticket = new Ticket(UUID.randomUUID().toString(), eventId, ++queue.enqueued, System.currentTimeMillis());
+                queue.waiting.add(ticket);
+                tickets.put(ticket.token, ticket);
+                return waiting(queue, ticket);
+            }
+        }
+    }
+
+    public AdmissionTicketDTO status(String token) {
+        Ticket ticket = tickets.get(token);
+        if (ticket == null) {
+            throw new ResourceNotFoundException("Admission token not found or expired");
+        }
+        EventQueue queue = queues.get(ticket.eventId);
+        synchronized (queue) {
+            ticket.lastSeen = System.currentTimeMillis();
+            if (ticket.admitted) {
+                return new AdmissionTicketDTO(ticket.token, ticket.eventId, true, 0);
+            }
+            return waiting(queue, ticket);
+        }
+    }
+
+    public void leave(Long eventId) {
+        if (eventId == null) {
+            return;
+        }
+        EventQueue queue = queues.get(eventId);
+        if (queue == null) {
+            return;
+        }
+        synchronized (queue) {
+            handOver(queue);
+        }
+    }
+
+    public int active(Long eventId) {
+        EventQueue queue = queues.get(eventId);
+        if (queue == null) {
+            return 0;
+        }
+        synchronized (queue) {
+            return queue.active;
+        }
+    }
+
+    // Libera los lugares asignados que nadie usó, saca de la cola a los que dejaron de consultar
+    // y descarta las colas que quedaron vacías
+    @Scheduled(fixedDelayString = "${teatro.admission.sweep-ms:1000}")
+    public void sweep() {
+        long deadline = System.currentTimeMillis() - ticketTtlMillis;
+        queues.forEach((eventId, queue) -> {
+            synchronized (queue) {
+                queue.waiting.removeIf(ticket -> {
+                    if (ticket.lastSeen >= deadline) {
+                        return false;
+                    }
+                    tickets.remove(ticket.token);
+                    queue.dequeued++;
+                    return true;
+                });
+            }
+        });
+        for (Ticket ticket : tickets.values()) {
+            // remove(token, ticket) decide quién se queda con el lugar si el cliente llega justo ahora
+            if (ticket.admitted && ticket.lastSeen < deadline && tickets.remove(ticket.token, ticket)) {
+                log.debug("Admission token for event {} was not used in time", ticket.eventId);
+                leave(ticket.eventId);
+            }
+        }
+        queues.forEach((eventId, queue) -> {
+            synchronized (queue) {
+                if (queue.active == 0 && queue.waiting.isEmpty()) {
+                    queue.retired = true;
+                    queues.remove(eventId, queue);
+                }
+            }
+        });
+    }
+
+    public int queueCount() {
+        return queues.size();
+    }
+
+    // La primera vez que se ve un evento se confirma que exista; después alcanza con el mapa
+    private EventQueue queue(Long eventId) {
+        EventQueue queue = queues.get(eventId);
+        if (queue != null) {
+            return queue;
+        }
+        if (!eventRepository.existsById(eventId)) {
+            throw new ResourceNotFoundException("Event not found with id: " + eventId);
+        }
+        return queues.computeIfAbsent(eventId, id -> new EventQueue());
+    }
+
+    private AdmissionTicketDTO enterWithToken(EventQueue queue, Long eventId, String token) {
+        Ticket ticket = tickets.get(token);
+        if (ticket == null || !ticket.eventId.equals(eventId)) {
+            throw new ResourceNotFoundException("Admission token not found or expired");
+        }
+        synchronized (queue) {
+            // con un ticket vivo la cola no queda vacía, así que el barrido no la pudo sacar
+            ticket.lastSeen = System.currentTimeMillis();
+            if (!ticket.admitted) {
+                return waiting(queue, ticket);
+            }
+            // el lugar ya estaba contado en active desde que se le asignó
+            if (!tickets.remove(token, ticket)) {
+                throw new ResourceNotFoundException("Admission token not found or expired");
+            }
+            return AdmissionTicketDTO.granted(eventId);
+        }
+    }
+
+    // Un lugar libre pasa directo al primero de la cola; si no hay nadie esperando se descuenta
+    private void handOver(EventQueue queue) {
+        Ticket next = queue.waiting.poll();
+        if (next == null) {
+            queue.active = Math.max(0, queue.active - 1);
+            return;
+        }
+        queue.dequeued++;
+        next.admitted = true;
+        next.lastSeen = System.currentTimeMillis();
+    }
+
+    private void discard(String token) {
+        Ticket ticket = tickets.remove(token);
+        if (ticket == null) {
+            return;
+        }
+        EventQueue queue = queues.get(ticket.eventId);
+        synchronized (queue) {
+            if (ticket.admitted) {
+                handOver(queue);
+            } else if (queue.waiting.remove(ticket)) {
+                queue.dequeued++;
+            }
+        }
+    }
+
+    // La posición es aproximada: los que abandonan en el medio de la cola la corren hacia adelante de a poco
+    private AdmissionTicketDTO waiting(EventQueue queue, Ticket ticket) {
+        long position = Math.max(1, ticket.sequence - queue.dequeued);
+        return new AdmissionTicketDTO(ticket.token, ticket.eventId, false, position);
+    }
+
+    private static final class EventQueue {
+        private final ArrayDeque<Ticket> waiting = new ArrayDeque<>();
+        private int active;
+        private boolean retired;
+        private long enqueued;
+        private long dequeued;
+    }
+
+    private static final class Ticket {
+        private final String token;
+        private final Long eventId;
+        private final long sequence;
+        private volatile boolean admitted;
+        private volatile long lastSeen;
+
+        private Ticket(String token, Long eventId, long sequence, long lastSeen) {
+            this.token = token;
+            this.eventId = eventId;
+            this.sequence = sequence;
+            this.lastSeen = lastSeen;
+        }
+    }
+}
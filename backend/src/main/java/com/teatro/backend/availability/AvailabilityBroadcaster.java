@@ -0,0 +1,230 @@
+package com.teatro.backend.availability;
+
+import com.teatro.backend.inventory.InventoryLedger;
+import com.teatro.backend.models.dtos.AvailabilityDeltaDTO;
+import com.teatro.backend.models.dtos.TicketAvailabilityDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Disponibilidad en vivo por SSE. Nadie avisa las ventas: cada intervalo se compara el ledger contra lo último
+// enviado, solo para los eventos con suscriptores, y los cambios de ese lapso salen juntos en un mensaje.
+// Los envíos corren en virtual threads que existen mientras dura el envío, no uno por cliente conectado.
+// Cada suscriptor guarda a lo sumo un valor pendiente por ticket option: si no alcanza a leer, los valores nuevos
+// pisan a los viejos (recibe menos mensajes, nunca acumula). Si un envío queda trabado más de max-stall-ms, se corta.
+@Slf4j
+@Component
+public class AvailabilityBroadcaster {
+
+    private final InventoryLedger inventoryLedger;
+    private final long timeoutMs;
+    private final long maxStallMs;
+    private final long heartbeatMs;
+
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private long lastVersion = -1;
+
+    public AvailabilityBroadcaster(InventoryLedger inventoryLedger,
+                                   @Value("${teatro.availability.stream.timeout-ms:1800000}") long timeoutMs,
+                                   @Value("${teatro.availability.stream.max-stall-ms:5000}") long maxStallMs,
+                                   @Value("${teatro.availability.stream.heartbeat-ms:15000}") long heartbeatMs) {
+        this.inventoryLedger = inventoryLedger;
+        this.timeoutMs = timeoutMs;
+        this.maxStallMs = maxStallMs;
+        this.heartbeatMs = heartbeatMs;
+    }
+
+    public SseEmitter subscribe(Long eventId) {
+        return subscribe(eventId, new SseEmitter(timeoutMs));
+    }
+
+    // El primer mensaje trae todas las opciones del evento; después, solo las que cambian
+    SseEmitter subscribe(Long eventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(eventId, emitter);
+        channels.compute(eventId, (id, channel) -> {
+            Channel current = channel != null ? channel : new Channel(eventId);
+            current.subscribers.add(subscriber);
+            return current;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        subscriber.offer(snapshot(eventId), System.currentTimeMillis());
+        return emitter;
+    }
+
+    public int subscribers(Long eventId) {
+        Channel channel = channels.get(eventId);
+        return channel == null ? 0 : channel.subscribers.size();
+    }
+
+    @Scheduled(fixedDelayString = "${teatro.availability.stream.interval-ms:250}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        long version = inventoryLedger.version();
+        boolean changed = version != lastVersion;
+        lastVersion = version;
+
+        for (Channel channel : channels.values()) {
+            List<TicketAvailabilityDTO> delta = changed ? channel.delta() : List.of();
+            for (Subscriber subscriber : channel.subscribers) {
+                if (subscriber.stalledFor(now) > maxStallMs) {
+                    drop(subscriber);
+                } else if (!delta.isEmpty()) {
+                    subscriber.offer(delta, now);
+                } else if (now - subscriber.lastSentAt > heartbeatMs) {
+                    subscriber.heartbeat(now);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(Subscriber::close));
+        channels.clear();
+        senders.shutdownNow();
+    }
+
+    private List<TicketAvailabilityDTO> snapshot(Long eventId) {
+        List<TicketAvailabilityDTO> options = new ArrayList<>();
+        for (Long optionId : inventoryLedger.ticketOptionIds(eventId).stream().sorted().toList()) {
+            options.add(new TicketAvailabilityDTO(optionId, inventoryLedger.sold(optionId), inventoryLedger.remaining(optionId)));
+        }
+        return options;
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.closed = true;
+        channels.computeIfPresent(subscriber.eventId, (id, channel) -> {
+            channel.subscribers.remove(subscriber);
+            return channel.subscribers.isEmpty() ? null : channel;
+        });
+    }
+
+    // complete() espera al envío trabado, así que se hace fuera del hilo del intervalo
+    private void drop(Subscriber subscriber) {
+        log.debug("Dropping slow availability subscriber for event {}", subscriber.eventId);
+        unsubscribe(subscriber);
+        senders.execute(subscriber::close);
+    }
+
+    private final class Channel {
+        private final Long eventId;
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        // lo último enviado por opción; solo lo toca el hilo del intervalo
+        private final Map<Long, TicketAvailabilityDTO> sent = new HashMap<>();
+
+        private Channel(Long eventId) {
+            this.eventId = eventId;
+            snapshot(eventId).forEach(option -> sent.put(option.getTicketOptionId(), option));
+        }
+
+        // sold o available: la capacidad también cambia cuando se carga un plano de butacas
+        private List<TicketAvailabilityDTO> delta() {
+            List<TicketAvailabilityDTO> changed = new ArrayList<>();
+            for (TicketAvailabilityDTO option : snapshot(eventId)) {
+                if (!option.equals(sent.put(option.getTicketOptionId(), option))) {
+                    changed.add(option);
+                }
+            }
+            return changed;
+        }
+    }
+
+    private final class Subscriber {
+        private final Long eventId;
+        private final SseEmitter emitter;
+        private final Map<Long, TicketAvailabilityDTO> pending = new LinkedHashMap<>();
+        private boolean ping;
+        private boolean sending;
+        private long sendingSince;
+        private volatile long lastSentAt;
+        private volatile boolean closed;
+
+        private Subscriber(Long eventId, SseEmitter emitter) {
+            this.eventId = eventId;
+            this.emitter = emitter;
+        }
+
+        private synchronized void offer(Collection<TicketAvailabilityDTO> updates, long now) {
+            updates.forEach(update -> pending.put(update.getTicketOptionId(), update));
+            startSending(now);
+        }
+
+        private synchronized void heartbeat(long now) {
+            ping = true;
+            startSending(now);
+        }
+
+        private synchronized long stalledFor(long now) {
+            return sending ? now - sendingSince : 0;
+        }
+
+        private void startSending(long now) {
+            if (!sending && !closed) {
+                sending = true;
+                sendingSince = now;
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                List<TicketAvailabilityDTO> batch;
+                boolean heartbeat;
+                synchronized (this) {
+                    if (closed || pending.isEmpty() && !ping) {
+                        sending = false;
+                        return;
+                    }
+                    batch = new ArrayList<>(pending.values());
+                    heartbeat = ping;
+                    pending.clear();
+                    ping = false;
+                    sendingSince = System.currentTimeMillis();
+                }
+                try {
+                    if (!batch.isEmpty()) {
+                        emitter.send(SseEmitter.event()
+                                .name("availability")
+                                .data(new AvailabilityDeltaDTO(eventId, batch), MediaType.APPLICATION_JSON));
+                    } else if (heartbeat) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    }
+                    lastSentAt = System.currentTimeMillis();
+                } catch (IOException | IllegalStateException e) {
+                    // el cliente se fue; el contenedor cierra el request por su cuenta
+                    unsubscribe(this);
+                    return;
+                }
+            }
+        }
+
+        private void close() {
+            closed = true;
+            try {
+                emitter.complete();
+            } catch (RuntimeException e) {
+                // ya estaba cerrado
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.teatro.backend.booking;
+
+import com.teatro.backend.exceptions.AdmissionQueueFullException;
+import com.teatro.backend.exceptions.InsufficientCapacityException;
+import com.teatro.backend.exceptions.ResourceNotFoundException;
+import com.teatro.backend.inventory.SeatInventory;
+import com.teatro.backend.models.dtos.BulkReservationResultDTO;
+import com.teatro.backend.models.dtos.CreateReservationRequest;
+import com.teatro.backend.models.dtos.ReservationDTO;
+import com.teatro.backend.models.dtos.ReservationItemRequest;
+import com.teatro.backend.services.ReservationService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Modo opcional para eventos con mucha demanda: las reservas de un mismo evento las aplica siempre el mismo hilo,
+// que junta lo que haya en su cola y lo confirma en una sola transacción con createReservations.
+// Las altas del evento ya no compiten entre sí y cada transacción reparte su costo entre todas las reservas
+// del lote. Cancelaciones, ediciones y vencimientos siguen escribiendo las mismas opciones por fuera:
+// si el lote choca con una de ellas se reintenta, y si no alcanza se aplica pedido por pedido.
+// Las reservas con butacas (plano o butacas elegidas) no entran al lote: van directo a createReservation.
+// Apagado (teatro.booking.sequencer.enabled=false) cada pedido va directo a createReservation.
+@Slf4j
+@Component
+public class EventBookingSequencer {
+
+    private final ReservationService reservationService;
+    private final SeatInventory seatInventory;
+    private final boolean enabled;
+    private final int maxBatch;
+    private final Partition[] partitions;
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong commands = new AtomicLong();
+
+    public EventBookingSequencer(ReservationService reservationService,
+                                 SeatInventory seatInventory,
+                                 @Value("${teatro.booking.sequencer.enabled:false}") boolean enabled,
+                                 @Value("${teatro.booking.sequencer.partitions:4}") int partitions,
+                                 @Value("${teatro.booking.sequencer.queue-capacity:4096}") int queueCapacity,
+                                 @Value("${teatro.booking.sequencer.max-batch:256}") int maxBatch) {
+        this.reservationService = reservationService;
+        this.seatInventory = seatInventory;
+        this.enabled = enabled;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.partitions = new Partition[enabled ? partitions : 0];
+        for (int i = 0; i < this.partitions.length; i++) {
+            this.partitions[i] = new Partition(i, queueCapacity);
+            this.partitions[i].thread.start();
+        }
+        if (enabled) {
+            log.info("Booking sequencer enabled with {} partitions and batches of up to {}", partitions, this.maxBatch);
+        }
+    }
+
+    public ReservationDTO createReservation(CreateReservationRequest request) {
+        if (!enabled || request.getEventId() == null || isSeated(request)) {
+            return reservationService.createReservation(request);
+        }
+        Command command = new Command(request, new CompletableFuture<>());
+        Partition partition = partitions[Math.floorMod(request.getEventId().hashCode(), partitions.length)];
+        if (!partition.queue.offer(command)) {
+            throw new AdmissionQueueFullException("Too many pending bookings for event " + request.getEventId() + ", please try again later");
+        }
+        try {
+            return command.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // createReservations no asigna butacas
+    private boolean isSeated(CreateReservationRequest request) {
+        if (request.getItems() == null) {
+            return false;
+        }
+        for (ReservationItemRequest item : request.getItems()) {
+            if ((item.getSeats() != null && !item.getSeats().isEmpty())
+                    || (item.getTicketOptionId() != null && seatInventory.hasSeatMap(item.getTicketOptionId()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public double averageBatchSize() {
+        long committed = batches.get();
+        return committed == 0 ? 0 : (double) commands.get() / committed;
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (Partition partition : partitions) {
+            partition.thread.interrupt();
+        }
+    }
+
+    private void commit(List<Command> batch) {
+        batches.incrementAndGet();
+        commands.addAndGet(batch.size());
+        List<BulkReservationResultDTO> results;
+        try {
+            results = reservationService.createReservations(batch.stream().map(Command::request).toList());
+        } catch (RuntimeException e) {
+            // el lote entero falló (por ejemplo, se agotaron los reintentos): cada pedido se prueba por separado
+            log.warn("Booking batch of {} failed, applying one by one", batch.size(), e);
+            for (Command command : batch) {
+                try {
+                    command.result.complete(reservationService.createReservation(command.request));
+                } catch (RuntimeException failure) {
+                    command.result.completeExceptionally(failure);
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            BulkReservationResultDTO result = results.get(i);
+            if (result.isSuccess()) {
+                batch.get(i).result.complete(result.getReservation());
+            } else {
+                batch.get(i).result.completeExceptionally(failure(result));
+            }
+        }
+    }
+
+    // La misma excepción que habría tirado createReservation, para que el pedido responda con el mismo código
+    private RuntimeException failure(BulkReservationResultDTO result) {
+        int status = result.getStatus() == null ? HttpStatus.BAD_REQUEST.value() : result.getStatus();
+        if (status == HttpStatus.NOT_FOUND.value()) {
+            return new ResourceNotFoundException(result.getError());
+        }
+        if (status == HttpStatus.CONFLICT.value()) {
+            return new InsufficientCapacityException(result.getError());
+        }
+        return new IllegalStateException(result.getError());
+    }
+
+    private record Command(CreateReservationRequest request, CompletableFuture<ReservationDTO> result) {}
+
+    private final class Partition implements Runnable {
+        private final BlockingQueue<Command> queue;
+        private final Thread thread;
+
+        private Partition(int index, int queueCapacity) {
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = new Thread(this, "booking-sequencer-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<Command> batch = new ArrayList<>(maxBatch);
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    break;
+                }
+                queue.drainTo(batch, maxBatch - 1);
+                try {
+                    commit(batch);
+                } catch (RuntimeException e) {
+                    batch.forEach(command -> command.result.completeExceptionally(e));
+                }
+                batch.clear();
+            }
+            Command pending;
+            while ((pending = queue.poll()) != null) {
+                pending.result.completeExceptionally(new IllegalStateException("Booking sequencer is shutting down"));
+            }
+        }
+    }
+}
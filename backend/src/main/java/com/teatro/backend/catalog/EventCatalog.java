@@ -0,0 +1,230 @@
+package com.teatro.backend.catalog;
+
+import com.teatro.backend.mappers.EventMapper;
+import com.teatro.backend.models.dtos.EventDTO;
+import com.teatro.backend.models.entities.Event;
+import com.teatro.backend.models.enums.EventStatus;
+import com.teatro.backend.repositories.EventRepository;
+import com.teatro.backend.repositories.EventRepository.EventKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+// Catálogo de eventos en memoria: título, fechas, estado y opciones cambian poco, así que se guardan ya mapeados.
+// sold y available no salen de acá (los pone el servicio con el ledger), por eso las ventas no invalidan nada.
+// Los eventos van en un LRU acotado; las listas (todos / próximos) son solo ids y los que faltan se piden
+// juntos en un SELECT. Si hay más eventos de los que entran en el LRU, all() no se arma desde los ids (cada
+// llamada pediría de nuevo los que sacó la anterior): va a la base con una sola consulta y no guarda nada.
+// Quien modifica un evento llama a invalidate, que vuelve a desalojar al confirmar.
+// Cada carga anota la generación al empezar y no guarda nada si hubo una invalidación en el medio.
+@Component
+public class EventCatalog {
+
+    private static final int LOAD_WINDOW = 500;
+    private static final Comparator<EventKey> START_ORDER =
+            Comparator.comparing(EventKey::getStartDateTime).thenComparing(EventKey::getId);
+
+    private final EventRepository eventRepository;
+    private final EventMapper eventMapper;
+    private final Map<Long, EventDTO> events;
+    private final int maxEvents;
+
+    private long generation;
+    private List<Long> allIds;
+    private List<EventKey> upcoming;
+
+    public EventCatalog(EventRepository eventRepository,
+                        EventMapper eventMapper,
+                        @Value("${teatro.catalog.max-events:2000}") int maxEvents) {
+        this.eventRepository = eventRepository;
+        this.eventMapper = eventMapper;
+        this.maxEvents = maxEvents;
+        this.events = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, EventDTO> eldest) {
+                return size() > maxEvents;
+            }
+        };
+    }
+
+    // Todas las listas devuelven copias: el que llama puede completarlas o modificarlas
+    public List<EventDTO> all() {
+        List<Long> ids = ids();
+        if (ids != null) {
+            return resolve(ids);
+        }
+        long stamp = stamp();
+        List<EventDTO> loaded = map(eventRepository.findWithTicketOptionsBy());
+        if (loaded.size() > maxEvents) {
+            return loaded;
+        }
+        store(stamp, loaded, list -> allIds = list);
+        return copies(loaded);
+    }
+
+    // Programados que empiezan después de (from, afterId), en orden de inicio. from no puede ser anterior a ahora:
+    // la lista guardada arranca en el momento en que se cargó y se va achicando sola a medida que pasa el tiempo.
+    public List<EventDTO> upcoming(LocalDateTime from, Long afterId, int limit) {
+        List<EventKey> keys = upcomingKeys();
+        int start = Collections.binarySearch(keys, new Key(afterId, from), START_ORDER);
+        start = start >= 0 ? start + 1 : -start - 1;
+        List<Long> ids = new ArrayList<>(Math.min(limit, Math.max(0, keys.size() - start)));
+        for (int i = start; i < keys.size() && ids.size() < limit; i++) {
+            ids.add(keys.get(i).getId());
+        }
+        return resolve(ids);
+    }
+
+    public Optional<EventDTO> find(Long id) {
+        List<EventDTO> found = resolve(List.of(id));
+        return found.isEmpty() ? Optional.empty() : Optional.of(found.get(0));
+    }
+
+    public void invalidate(Long eventId) {
+        evict(eventId);
+        // una lectura que corrió durante la transacción pudo guardar la versión anterior
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(eventId);
+                }
+            });
+        }
+    }
+
+    private List<EventDTO> resolve(List<Long> ids) {
+        List<EventDTO> cached = new ArrayList<>(ids.size());
+        List<Long> missing = new ArrayList<>();
+        long stamp;
+        synchronized (this) {
+            stamp = generation;
+            for (Long id : ids) {
+                EventDTO event = events.get(id);
+                if (event == null) {
+                    missing.add(id);
+                }
+                cached.add(event);
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<EventDTO> loaded = map(eventRepository.findWithTicketOptionsByIdIn(missing));
+            store(stamp, loaded, null);
+            Map<Long, EventDTO> byId = new LinkedHashMap<>();
+            loaded.forEach(event -> byId.put(event.getId(), event));
+            for (int i = 0; i < ids.size(); i++) {
+                if (cached.get(i) == null) {
+                    cached.set(i, byId.get(ids.get(i)));
+                }
+            }
+        }
+        return copies(cached);
+    }
+
+    private List<EventKey> upcomingKeys() {
+        synchronized (this) {
+            if (upcoming != null) {
+                return upcoming;
+            }
+        }
+        long stamp = stamp();
+        List<EventKey> keys = new ArrayList<>();
+        LocalDateTime from = LocalDateTime.now();
+        Long afterId = Long.MAX_VALUE;
+        // de a ventanas por el índice: el costo depende de los eventos por venir, no de todos los cargados
+        while (true) {
+            List<EventKey> window = eventRepository.findStartingAfter(
+                    EventStatus.SCHEDULED, from, afterId, Limit.of(LOAD_WINDOW));
+            for (EventKey key : window) {
+                keys.add(new Key(key.getId(), key.getStartDateTime()));
+            }
+            if (window.size() < LOAD_WINDOW) {
+                break;
+            }
+            EventKey last = window.get(window.size() - 1);
+            from = last.getStartDateTime();
+            afterId = last.getId();
+        }
+        List<EventKey> loaded = List.copyOf(keys);
+        synchronized (this) {
+            if (stamp == generation) {
+                upcoming = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    private synchronized List<Long> ids() {
+        return allIds;
+    }
+
+    private synchronized long stamp() {
+        return generation;
+    }
+
+    private synchronized void store(long stamp, List<EventDTO> loaded, Consumer<List<Long>> listSetter) {
+        if (stamp != generation) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(loaded.size());
+        for (EventDTO event : loaded) {
+            events.put(event.getId(), event);
+            ids.add(event.getId());
+        }
+        if (listSetter != null) {
+            listSetter.accept(List.copyOf(ids));
+        }
+    }
+
+    private synchronized void evict(Long eventId) {
+        generation++;
+        if (eventId != null) {
+            events.remove(eventId);
+        }
+        allIds = null;
+        upcoming = null;
+    }
+
+    private record Key(Long id, LocalDateTime startDateTime) implements EventKey {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public LocalDateTime getStartDateTime() {
+            return startDateTime;
+        }
+    }
+
+    private List<EventDTO> map(List<Event> loaded) {
+        List<EventDTO> dtos = new ArrayList<>(loaded.size());
+        for (Event event : loaded) {
+            dtos.add(eventMapper.toDTO(event));
+        }
+        return dtos;
+    }
+
+    private List<EventDTO> copies(List<EventDTO> events) {
+        List<EventDTO> copies = new ArrayList<>(events.size());
+        for (EventDTO event : events) {
+            if (event != null) {
+                copies.add(eventMapper.copy(event));
+            }
+        }
+        return copies;
+    }
+}
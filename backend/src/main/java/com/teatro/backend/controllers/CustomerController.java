@@ -1,10 +1,15 @@
 package com.teatro.backend.controllers;
 
+import com.teatro.backend.mappers.CustomerMapper;
+import com.teatro.backend.mappers.FieldSet;
 import com.teatro.backend.models.dtos.CustomerDTO;
 import com.teatro.backend.services.CustomerService;
+import com.teatro.backend.versioning.TableVersions;
+import com.teatro.backend.versioning.TableVersions.Table;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -15,14 +20,36 @@ import java.util.List;
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final TableVersions tableVersions;
 
+    // Con If-None-Match igual a la versión actual responde 304 sin ir a la base
+    // ?fields=id,firstName,lastName devuelve solo esas propiedades
     @GetMapping
-    public ResponseEntity<List<CustomerDTO>> getAllCustomers() {
-        return ResponseEntity.ok(customerService.getAllCustomers());
+    public ResponseEntity<List<?>> getAllCustomers(@RequestParam(required = false) String fields, WebRequest request) {
+        FieldSet<CustomerDTO> selected = FieldSet.parse(fields, CustomerMapper.FIELDS);
+        if (request.checkNotModified(tableVersions.etag(Table.CUSTOMER))) {
+            return null;
+        }
+        List<CustomerDTO> customers = customerService.getAllCustomers(selected);
+        return ResponseEntity.ok(selected.isAll() ? customers : selected.project(customers));
+    }
+
+    // Búsqueda para autocompletar por nombre, apellido o email: ?q=mar go
+    @GetMapping("/search")
+    public ResponseEntity<List<CustomerDTO>> searchCustomers(@RequestParam String q,
+                                                             @RequestParam(defaultValue = "20") int limit,
+                                                             WebRequest request) {
+        if (request.checkNotModified(tableVersions.etag(Table.CUSTOMER))) {
+            return null;
+        }
+        return ResponseEntity.ok(customerService.searchCustomers(q, limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<CustomerDTO> getCustomerById(@PathVariable Long id) {
+    public ResponseEntity<CustomerDTO> getCustomerById(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(tableVersions.etag(Table.CUSTOMER))) {
+            return null;
+        }
         return ResponseEntity.ok(customerService.getCustomerById(id));
     }
 
@@ -43,7 +70,10 @@ public class CustomerController {
     }
 
     @GetMapping("/free-pass")
-    public ResponseEntity<List<CustomerDTO>> getCustomersWithFreePass() {
+    public ResponseEntity<List<CustomerDTO>> getCustomersWithFreePass(WebRequest request) {
+        if (request.checkNotModified(tableVersions.etag(Table.CUSTOMER))) {
+            return null;
+        }
         return ResponseEntity.ok(customerService.getCustomersWithFreePass());
     }
 }
@@ -1,30 +1,61 @@
 package com.teatro.backend.controllers;
 
+import com.teatro.backend.availability.AvailabilityBroadcaster;
+import com.teatro.backend.exceptions.ResourceNotFoundException;
+import com.teatro.backend.mappers.EventMapper;
+import com.teatro.backend.mappers.FieldSet;
+import com.teatro.backend.models.dtos.EventAvailabilityDTO;
 import com.teatro.backend.models.dtos.EventDTO;
+import com.teatro.backend.models.dtos.EventPageDTO;
 import com.teatro.backend.models.enums.EventStatus;
 import com.teatro.backend.services.EventService;
+import com.teatro.backend.versioning.TableVersions;
+import com.teatro.backend.versioning.TableVersions.Table;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/events")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "http://localhost:4200")
+@CrossOrigin(origins = "http://localhost:4200", exposedHeaders = EventController.NEXT_CURSOR)
 
 public class EventController {
 
+    static final String NEXT_CURSOR = "X-Next-Cursor";
+
     private final EventService eventService;
+    private final TableVersions tableVersions;
+    private final AvailabilityBroadcaster availabilityBroadcaster;
 
+    // Con If-None-Match igual a la versión actual responde 304 sin armar la lista
+    // ?fields=id,title,startDateTime devuelve solo esas propiedades, para grillas que no usan el resto
     @GetMapping
-    public ResponseEntity<List<EventDTO>> getAllEvents() {
-        return ResponseEntity.ok(eventService.getAllEvents());
+    public ResponseEntity<List<?>> getAllEvents(@RequestParam(required = false) String fields, WebRequest request) {
+        FieldSet<EventDTO> selected = FieldSet.parse(fields, EventMapper.FIELDS);
+        if (request.checkNotModified(tableVersions.etag(Table.EVENT))) {
+            return null;
+        }
+        List<EventDTO> events = eventService.getAllEvents(selected);
+        return ResponseEntity.ok(selected.isAll() ? events : selected.project(events));
+    }
+
+    // Disponibles por opción para varios eventos a la vez: ?ids=1,2,3
+    @GetMapping("/availability")
+    public ResponseEntity<List<EventAvailabilityDTO>> getAvailability(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(eventService.getAvailability(ids));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<EventDTO> getEventById(@PathVariable Long id) {
+    public ResponseEntity<EventDTO> getEventById(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(tableVersions.etag(Table.EVENT))) {
+            return null;
+        }
         return ResponseEntity.ok(eventService.getEventById(id));
     }
 
@@ -38,9 +69,29 @@ public class EventController {
         return ResponseEntity.ok(eventService.updateEvent(id, eventDTO));
     }
 
+    // Por fecha de inicio, de a una página; el cursor de la siguiente viaja en X-Next-Cursor
     @GetMapping("/upcoming")
-    public ResponseEntity<List<EventDTO>> getScheduledEvents() {
-        return ResponseEntity.ok(eventService.getScheduledEvents());
+    public ResponseEntity<List<EventDTO>> getUpcomingEvents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        EventPageDTO page = eventService.getUpcomingEvents(cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    // Primero la disponibilidad de todas las opciones y después solo los cambios, agrupados cada pocos ms.
+    // EventSource pide text/event-stream, donde el error en JSON no se puede escribir: el 404 va sin cuerpo.
+    @GetMapping(value = "/{id}/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamAvailability(@PathVariable Long id) {
+        try {
+            eventService.getEventById(id);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(availabilityBroadcaster.subscribe(id));
     }
 
     @PatchMapping("/{id}/status")
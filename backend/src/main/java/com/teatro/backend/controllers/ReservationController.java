@@ -1,37 +1,123 @@
 package com.teatro.backend.controllers;
 
+import com.teatro.backend.admission.EventAdmissionGate;
+import com.teatro.backend.booking.EventBookingSequencer;
+import com.teatro.backend.export.ReservationExporter;
+import com.teatro.backend.export.ReservationExporter.Format;
+import com.teatro.backend.idempotency.IdempotencyStore;
+import com.teatro.backend.mappers.FieldSet;
+import com.teatro.backend.mappers.ReservationMapper;
+import com.teatro.backend.models.dtos.AdmissionTicketDTO;
+import com.teatro.backend.models.dtos.BulkReservationResultDTO;
 import com.teatro.backend.models.dtos.CreateReservationRequest;
 import com.teatro.backend.models.dtos.ReservationDTO;
+import com.teatro.backend.models.dtos.ReservationFilter;
+import com.teatro.backend.models.dtos.ReservationPageDTO;
 import com.teatro.backend.services.ReservationService;
+import com.teatro.backend.versioning.TableVersions;
+import com.teatro.backend.versioning.TableVersions.Table;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/reservations")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "http://localhost:4200")
+@CrossOrigin(origins = "http://localhost:4200", exposedHeaders = ReservationController.NEXT_CURSOR)
 public class ReservationController {
 
+    static final String NEXT_CURSOR = "X-Next-Cursor";
+
     private final ReservationService reservationService;
+    private final EventAdmissionGate admissionGate;
+    private final IdempotencyStore idempotencyStore;
+    private final EventBookingSequencer bookingSequencer;
+    private final TableVersions tableVersions;
+    private final ReservationExporter reservationExporter;
 
 
+    // Más nuevas primero, de a una página; si hay más, el cursor para pedir la siguiente viaja en X-Next-Cursor.
+    // El DTO lleva el nombre del cliente y el título del evento, así que el ETag también depende de esas tablas.
+    // ?fields=id,customerName,status,total devuelve solo esas propiedades (sin ítems si no se piden)
     @GetMapping
-    public ResponseEntity<List<ReservationDTO>> getAllReservations() {
-        return ResponseEntity.ok(reservationService.getAllReservations());
+    public ResponseEntity<List<?>> getReservations(
+            ReservationFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        FieldSet<ReservationDTO> selected = FieldSet.parse(fields, ReservationMapper.FIELDS);
+        if (request.checkNotModified(reservationsEtag())) {
+            return null;
+        }
+        ReservationPageDTO page = reservationService.getReservations(filter, cursor, limit, selected);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR, page.getNextCursor());
+        }
+        return response.body(selected.isAll() ? page.getItems() : selected.project(page.getItems()));
+    }
+
+    // Todas las reservas que cumplen los filtros, sin páginas: se escriben a medida que salen de la base.
+    // format=csv (por defecto) o ndjson
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportReservations(
+            ReservationFilter filter,
+            @RequestParam(defaultValue = "csv") String format) {
+        Format exportFormat = Format.parse(format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"reservations." + exportFormat.extension() + "\"")
+                .body(out -> reservationExporter.export(filter, exportFormat, out));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ReservationDTO> getReservationById(@PathVariable Long id) {
+    public ResponseEntity<ReservationDTO> getReservationById(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(reservationsEtag())) {
+            return null;
+        }
         return ResponseEntity.ok(reservationService.getReservationById(id));
     }
 
+    // 202 con el token y la posición cuando el evento tiene la sala de espera llena.
+    // Un reintento con la misma Idempotency-Key devuelve la reserva ya creada sin pasar por la sala de espera.
     @PostMapping
-    public ResponseEntity<ReservationDTO> createReservation(@RequestBody CreateReservationRequest request) {
-        return ResponseEntity.ok(reservationService.createReservation(request));
+    public ResponseEntity<?> createReservation(
+            @RequestBody CreateReservationRequest request,
+            @RequestHeader(value = "Admission-Token", required = false) String admissionToken,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        Optional<ReservationDTO> replay = idempotencyStore.find(idempotencyKey, "createReservation", request, ReservationDTO.class);
+        if (replay.isPresent()) {
+            return ResponseEntity.ok(replay.get());
+        }
+        AdmissionTicketDTO admission = admissionGate.enter(request.getEventId(), admissionToken);
+        if (!admission.isAdmitted()) {
+            return ResponseEntity.accepted().body(admission);
+        }
+        try {
+            return ResponseEntity.ok(idempotencyStore.execute(idempotencyKey, "createReservation", request,
+                    ReservationDTO.class, () -> bookingSequencer.createReservation(request)));
+        } finally {
+            admissionGate.leave(request.getEventId());
+        }
+    }
+
+    @GetMapping("/admission/{token}")
+    public ResponseEntity<AdmissionTicketDTO> getAdmissionStatus(@PathVariable String token) {
+        return ResponseEntity.ok(admissionGate.status(token));
+    }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkReservationResultDTO>> createReservations(@RequestBody List<CreateReservationRequest> requests) {
+        return ResponseEntity.ok(reservationService.createReservations(requests));
     }
 
     @PatchMapping("/{id}/deactivate")
@@ -41,15 +127,21 @@ public class ReservationController {
     }
 
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<List<ReservationDTO>> getReservationsByCustomer(@PathVariable Long customerId) {
+    public ResponseEntity<List<ReservationDTO>> getReservationsByCustomer(@PathVariable Long customerId,
+                                                                          WebRequest request) {
+        if (request.checkNotModified(reservationsEtag())) {
+            return null;
+        }
         return ResponseEntity.ok(reservationService.getReservationsByCustomer(customerId));
     }
     @PatchMapping("/{id}")
     public ResponseEntity<ReservationDTO> updateStatus(
             @PathVariable Long id,
-            @RequestBody Map<String, Object> updates) {
+            @RequestBody Map<String, Object> updates,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
 
-        return ResponseEntity.ok(reservationService.updateReservationStatus(id, updates));
+        return ResponseEntity.ok(idempotencyStore.execute(idempotencyKey, "updateReservationStatus:" + id, updates,
+                ReservationDTO.class, () -> reservationService.updateReservationStatus(id, updates)));
     }
 
     @PutMapping("/{id}")
@@ -59,5 +151,7 @@ public class ReservationController {
         return ResponseEntity.ok(reservationService.updateReservation(id, dto));
     }
 
-
+    private String reservationsEtag() {
+        return tableVersions.etag(Table.RESERVATION, Table.CUSTOMER, Table.EVENT);
+    }
 }
@@ -0,0 +1,35 @@
+package com.teatro.backend.controllers;
+
+import com.teatro.backend.models.dtos.BestAvailableSeatsDTO;
+import com.teatro.backend.models.dtos.SeatMapDTO;
+import com.teatro.backend.services.SeatMapService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/ticket-options/{ticketOptionId}/seat-map")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:4200")
+public class SeatMapController {
+
+    private final SeatMapService seatMapService;
+
+    @PostMapping
+    public ResponseEntity<SeatMapDTO> createSeatMap(@PathVariable Long ticketOptionId,
+                                                    @Valid @RequestBody SeatMapDTO seatMapDTO) {
+        return ResponseEntity.ok(seatMapService.createSeatMap(ticketOptionId, seatMapDTO));
+    }
+
+    @GetMapping
+    public ResponseEntity<SeatMapDTO> getSeatMap(@PathVariable Long ticketOptionId) {
+        return ResponseEntity.ok(seatMapService.getSeatMap(ticketOptionId));
+    }
+
+    @GetMapping("/best-available")
+    public ResponseEntity<BestAvailableSeatsDTO> findBestAvailable(@PathVariable Long ticketOptionId,
+                                                                   @RequestParam(defaultValue = "1") int quantity) {
+        return ResponseEntity.ok(seatMapService.findBestAvailable(ticketOptionId, quantity));
+    }
+}
@@ -0,0 +1,7 @@
+package com.teatro.backend.exceptions;
+
+public class AdmissionQueueFullException extends RuntimeException {
+    public AdmissionQueueFullException(String message) {
+        super(message);
+    }
+}
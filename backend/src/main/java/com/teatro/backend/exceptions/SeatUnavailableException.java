@@ -0,0 +1,8 @@
+package com.teatro.backend.exceptions;
+
+// Alguna de las butacas pedidas ya estaba tomada; se responde igual que el resto de los IllegalStateException
+public class SeatUnavailableException extends IllegalStateException {
+    public SeatUnavailableException(String message) {
+        super(message);
+    }
+}
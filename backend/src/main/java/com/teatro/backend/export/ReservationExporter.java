@@ -0,0 +1,186 @@
+package com.teatro.backend.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teatro.backend.models.dtos.ReservationExportRow;
+import com.teatro.backend.models.dtos.ReservationFilter;
+import com.teatro.backend.models.entities.Customer;
+import com.teatro.backend.models.entities.Event;
+import com.teatro.backend.models.entities.Reservation;
+import com.teatro.backend.repositories.ReservationSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+// Exportación de reservas en CSV o NDJSON escrita directo a la respuesta mientras se lee el cursor.
+// El SELECT arma las filas con un constructor (JOIN a cliente y evento), así que Hibernate no registra
+// ninguna entidad en el contexto de persistencia: la memoria no depende de cuántas filas salgan.
+// Los filtros son los mismos del listado; el orden es por id para que dos exportaciones se puedan comparar.
+@Component
+public class ReservationExporter {
+
+    private static final String[] COLUMNS = {"id", "customerId", "customerName", "eventId", "eventTitle", "status",
+            "attendeeName", "attendedBy", "loyaltyFree", "total", "createdAt", "paidAt"};
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public ReservationExporter(ObjectMapper objectMapper,
+                               @Value("${teatro.reservations.export.fetch-size:500}") int fetchSize) {
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    // La transacción queda abierta mientras dura la descarga: el cursor avanza a medida que el cliente lee
+    @Transactional(readOnly = true)
+    public void export(ReservationFilter filter, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        try (Stream<ReservationExportRow> rows = rows(filter)) {
+            if (format == Format.CSV) {
+                writeCsv(rows, writer);
+            } else {
+                writeNdjson(rows, writer);
+            }
+        }
+        writer.flush();
+    }
+
+    private Stream<ReservationExportRow> rows(ReservationFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ReservationExportRow> query = cb.createQuery(ReservationExportRow.class);
+        Root<Reservation> reservation = query.from(Reservation.class);
+        Join<Reservation, Customer> customer = reservation.join("customer");
+        Join<Reservation, Event> event = reservation.join("event");
+        query.select(cb.construct(ReservationExportRow.class,
+                reservation.get("id"),
+                customer.get("id"),
+                cb.concat(cb.concat(customer.<String>get("firstName"), " "), customer.<String>get("lastName")),
+                event.get("id"),
+                event.get("title"),
+                reservation.get("status"),
+                reservation.get("attendeeName"),
+                reservation.get("attendedBy"),
+                reservation.get("loyaltyFree"),
+                reservation.get("total"),
+                reservation.get("createdAt"),
+                reservation.get("paidAt")));
+        Predicate where = ReservationSpecifications.matching(filter).toPredicate(reservation, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        query.orderBy(cb.asc(reservation.get("id")));
+        return entityManager.createQuery(query)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private void writeCsv(Stream<ReservationExportRow> rows, Writer writer) throws IOException {
+        writer.write(String.join(",", COLUMNS));
+        writer.write('\n');
+        for (ReservationExportRow row : (Iterable<ReservationExportRow>) rows::iterator) {
+            writeCsvValue(writer, row.getId());
+            writer.write(',');
+            writeCsvValue(writer, row.getCustomerId());
+            writer.write(',');
+            writeCsvValue(writer, row.getCustomerName());
+            writer.write(',');
+            writeCsvValue(writer, row.getEventId());
+            writer.write(',');
+            writeCsvValue(writer, row.getEventTitle());
+            writer.write(',');
+            writeCsvValue(writer, row.getStatus());
+            writer.write(',');
+            writeCsvValue(writer, row.getAttendeeName());
+            writer.write(',');
+            writeCsvValue(writer, row.getAttendedBy());
+            writer.write(',');
+            writeCsvValue(writer, row.getLoyaltyFree());
+            writer.write(',');
+            writeCsvValue(writer, row.getTotal() == null ? null : row.getTotal().toPlainString());
+            writer.write(',');
+            writeCsvValue(writer, row.getCreatedAt());
+            writer.write(',');
+            writeCsvValue(writer, row.getPaidAt());
+            writer.write('\n');
+        }
+    }
+
+    // RFC 4180: entre comillas solo si hace falta, con las comillas internas duplicadas
+    private void writeCsvValue(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    // Un objeto JSON por línea con el ObjectMapper de la aplicación (fechas ISO, igual que la API)
+    private void writeNdjson(Stream<ReservationExportRow> rows, Writer writer) throws IOException {
+        JsonGenerator generator = objectMapper.createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // sin esto cada fila vaciaría el BufferedWriter hasta el socket
+        generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        generator.setRootValueSeparator(null);
+        for (ReservationExportRow row : (Iterable<ReservationExportRow>) rows::iterator) {
+            objectMapper.writeValue(generator, row);
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+}
@@ -0,0 +1,189 @@
+package com.teatro.backend.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teatro.backend.models.entities.IdempotencyRecord;
+import com.teatro.backend.repositories.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Respuestas por Idempotency-Key: un LRU acotado en memoria para las keys recientes y la tabla idempotency_record
+// como respaldo. Si llegan dos pedidos con la misma key a la vez, el segundo espera el resultado del primero.
+// Solo se guardan las respuestas exitosas: si la operación falla, el reintento vuelve a ejecutarla.
+// La key se inserta (nunca se pisa): si otra instancia la guardó antes, se devuelve la respuesta de esa.
+// La respuesta se guarda en su propia transacción después de que la operación confirmó (con el secuenciador
+// la reserva ni siquiera se crea en este hilo): si el proceso se cae entre las dos, la key se pierde
+// y un reintento con la misma key vuelve a ejecutar la operación.
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    // idempotency_record.idempotency_key es VARCHAR(100)
+    static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+    private final Map<String, IdempotencyRecord> recent;
+    private final Map<String, CompletableFuture<IdempotencyRecord>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            ObjectMapper objectMapper,
+                            @Value("${teatro.idempotency.cache-size:10000}") int cacheSize,
+                            @Value("${teatro.idempotency.retention-hours:24}") long retentionHours) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.retention = Duration.ofHours(retentionHours);
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    // Respuesta guardada para la key, sin ejecutar nada
+    public <T> Optional<T> find(String key, String operation, Object request, Class<T> type) {
+        if (key == null) {
+            return Optional.empty();
+        }
+        checkLength(key);
+        return lookup(key).map(record -> read(record, hash(operation, request), type));
+    }
+
+    public <T> T execute(String key, String operation, Object request, Class<T> type, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        checkLength(key);
+        String requestHash = hash(operation, request);
+        Optional<IdempotencyRecord> stored = lookup(key);
+        if (stored.isPresent()) {
+            return read(stored.get(), requestHash, type);
+        }
+
+        CompletableFuture<IdempotencyRecord> mine = new CompletableFuture<>();
+        CompletableFuture<IdempotencyRecord> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return read(await(running), requestHash, type);
+        }
+        try {
+            // otro pedido pudo terminar entre la búsqueda y el putIfAbsent
+            IdempotencyRecord record = lookup(key).orElse(null);
+            if (record == null) {
+                T result = action.get();
+                record = new IdempotencyRecord(key, requestHash, write(result), LocalDateTime.now());
+                IdempotencyRecord saved = save(record);
+                mine.complete(saved);
+                // si otra instancia guardó la key primero, se devuelve su respuesta como a cualquier reintento
+                return saved == record ? result : read(saved, requestHash, type);
+            }
+            mine.complete(record);
+            return read(record, requestHash, type);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${teatro.idempotency.purge-ms:3600000}")
+    public void purge() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        int deleted = repository.deleteCreatedBefore(before);
+        recent.values().removeIf(record -> record.getCreatedAt().isBefore(before));
+        if (deleted > 0) {
+            log.info("Purged {} idempotency keys older than {}", deleted, before);
+        }
+    }
+
+    // Una key que no entra en la columna no se podría guardar y el reintento volvería a reservar
+    private void checkLength(String key) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalStateException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    private Optional<IdempotencyRecord> lookup(String key) {
+        IdempotencyRecord cached = recent.get(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<IdempotencyRecord> stored = repository.findById(key);
+        stored.ifPresent(record -> recent.put(key, record));
+        return stored;
+    }
+
+    private IdempotencyRecord save(IdempotencyRecord record) {
+        String key = record.getKey();
+        try {
+            repository.saveAndFlush(record);
+        } catch (DataIntegrityViolationException e) {
+            // otra instancia guardó la misma key primero: queda la suya
+            log.warn("Idempotency key {} was stored concurrently", key);
+            record = repository.findById(key).orElseThrow(() -> e);
+        }
+        recent.put(key, record);
+        return record;
+    }
+
+    private IdempotencyRecord await(CompletableFuture<IdempotencyRecord> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private <T> T read(IdempotencyRecord record, String requestHash, Class<T> type) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new IllegalStateException("Idempotency-Key was already used for a different request");
+        }
+        try {
+            return objectMapper.readValue(record.getResponseBody(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response for idempotency key " + record.getKey() + " is unreadable", e);
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response for idempotency key", e);
+        }
+    }
+
+    private String hash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update(write(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
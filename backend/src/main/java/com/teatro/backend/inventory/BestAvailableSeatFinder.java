@@ -0,0 +1,99 @@
+package com.teatro.backend.inventory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// Busca el mejor bloque de butacas contiguas dentro de una fila.
+// Cada fila se recorre como una lista de tramos libres (nextFree/nextTaken saltan de a 64 butacas)
+// y en cada tramo el bloque se corre lo más cerca posible del centro de la fila.
+// El puntaje (menor es mejor) suma la distancia a la fila ideal y la distancia al centro, normalizadas y con su peso.
+// Las filas se visitan desde la ideal hacia afuera: cuando la distancia de fila sola ya supera al mejor bloque, se corta.
+@Component
+public class BestAvailableSeatFinder {
+
+    private final double idealRow;
+    private final double rowWeight;
+    private final double centerWeight;
+
+    // idealRow es una fracción de la sala: 0 es la primera fila, 1 la última
+    public BestAvailableSeatFinder(@Value("${teatro.seating.ideal-row:0.35}") double idealRow,
+                                   @Value("${teatro.seating.row-weight:1.0}") double rowWeight,
+                                   @Value("${teatro.seating.center-weight:1.0}") double centerWeight) {
+        if (idealRow < 0 || idealRow > 1 || rowWeight < 0 || centerWeight < 0) {
+            throw new IllegalStateException("Seating weights must be positive and the ideal row between 0 and 1");
+        }
+        this.idealRow = idealRow;
+        this.rowWeight = rowWeight;
+        this.centerWeight = centerWeight;
+    }
+
+    public Optional<SeatBlock> find(SeatBitmap bitmap, int quantity) {
+        if (quantity < 1 || quantity > bitmap.seatsPerRow()) {
+            return Optional.empty();
+        }
+        int rows = bitmap.rows();
+        int ideal = (int) Math.round(idealRow * (rows - 1));
+        double idealStart = (bitmap.seatsPerRow() - quantity) / 2.0;
+
+        SeatBlock best = null;
+        for (int distance = 0; distance <= Math.max(ideal, rows - 1 - ideal); distance++) {
+            double rowScore = rowWeight * distance / rows;
+            if (best != null && rowScore >= best.score()) {
+                break;
+            }
+            // a igual puntaje gana la fila más cercana al escenario
+            best = bestInRow(bitmap, ideal - distance, quantity, idealStart, rowScore, best);
+            if (distance > 0) {
+                best = bestInRow(bitmap, ideal + distance, quantity, idealStart, rowScore, best);
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    private SeatBlock bestInRow(SeatBitmap bitmap, int row, int quantity, double idealStart,
+                                double rowScore, SeatBlock best) {
+        if (row < 0 || row >= bitmap.rows()) {
+            return best;
+        }
+        int perRow = bitmap.seatsPerRow();
+        int base = row * perRow;
+        int end = base + perRow;
+        int seat = bitmap.nextFree(base, end);
+        while (seat < end) {
+            int runEnd = bitmap.nextTaken(seat, end);
+            if (runEnd - seat >= quantity) {
+                int start = (int) Math.max(seat - base, Math.min(runEnd - base - quantity, Math.round(idealStart)));
+                double score = rowScore + centerWeight * Math.abs(start - idealStart) / perRow;
+                if (best == null || score < best.score()) {
+                    best = new SeatBlock(row, start, quantity, score);
+                }
+            }
+            seat = bitmap.nextFree(runEnd, end);
+        }
+        return best;
+    }
+
+    // Fila y primera butaca desde 0
+    public record SeatBlock(int row, int firstSeat, int count, double score) {
+
+        public int[] seats(SeatBitmap bitmap) {
+            int[] seats = new int[count];
+            for (int i = 0; i < count; i++) {
+                seats[i] = row * bitmap.seatsPerRow() + firstSeat + i;
+            }
+            return seats;
+        }
+
+        public List<String> labels(SeatBitmap bitmap) {
+            List<String> labels = new ArrayList<>(count);
+            for (int seat : seats(bitmap)) {
+                labels.add(bitmap.label(seat));
+            }
+            return labels;
+        }
+    }
+}
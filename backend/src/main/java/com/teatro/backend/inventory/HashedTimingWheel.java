@@ -0,0 +1,90 @@
+package com.teatro.backend.inventory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Rueda de tiempo con buckets por tick: agendar es O(1) sin importar cuántas reservas haya pendientes.
+// schedule() se puede llamar desde cualquier hilo; advance() lo llama un único hilo (el que hace girar la rueda).
+public class HashedTimingWheel {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final int mask;
+    private final Queue<Entry>[] buckets;
+    private final Queue<Entry> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int ticksPerWheel, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        int wheelSize = Integer.highestOneBit(Math.max(2, ticksPerWheel - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.mask = wheelSize - 1;
+        this.buckets = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    public void schedule(long id, long deadlineMillis) {
+        pending.add(new Entry(id, deadlineMillis));
+        size.incrementAndGet();
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    // Procesa todos los ticks vencidos hasta nowMillis y devuelve los ids que expiraron
+    public List<Long> advance(long nowMillis) {
+        List<Long> expired = new ArrayList<>();
+        long target = (nowMillis - startMillis) / tickMillis;
+        while (tick <= target) {
+            transferPending();
+            Iterator<Entry> bucket = buckets[(int) (tick & mask)].iterator();
+            while (bucket.hasNext()) {
+                Entry entry = bucket.next();
+                if (entry.remainingRounds <= 0) {
+                    bucket.remove();
+                    size.decrementAndGet();
+                    expired.add(entry.id);
+                } else {
+                    entry.remainingRounds--;
+                }
+            }
+            tick++;
+        }
+        return expired;
+    }
+
+    private void transferPending() {
+        Entry entry;
+        while ((entry = pending.poll()) != null) {
+            long deadlineTick = Math.max(0, (entry.deadlineMillis - startMillis) / tickMillis);
+            entry.remainingRounds = (deadlineTick - tick) / buckets.length;
+            // lo que ya venció se procesa en el tick actual
+            long placedTick = Math.max(deadlineTick, tick);
+            buckets[(int) (placedTick & mask)].add(entry);
+        }
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final long deadlineMillis;
+        private long remainingRounds;
+
+        private Entry(long id, long deadlineMillis) {
+            this.id = id;
+            this.deadlineMillis = deadlineMillis;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.teatro.backend.inventory;
+
+import com.teatro.backend.models.entities.Reservation;
+import com.teatro.backend.models.enums.ReservationStatus;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Cambio neto de entradas tomadas por ticket option: lo que la reserva tiene después menos lo que tenía antes.
+// Para las opciones con plano también lleva las butacas: +1 se toma, -1 se libera.
+// Las claves quedan ordenadas por id para aplicar los UPDATE siempre en el mismo orden.
+public final class InventoryDelta {
+
+    private final Map<Long, Integer> changes = new TreeMap<>();
+    private final Map<Long, Map<String, Integer>> seatChanges = new TreeMap<>();
+
+    // Una reserva ocupa lugar mientras está activa y no cancelada
+    public static boolean holdsInventory(Reservation reservation) {
+        return Boolean.TRUE.equals(reservation.getActive()) && reservation.getStatus() != ReservationStatus.CANCELLED;
+    }
+
+    public static InventoryDelta heldBy(Reservation reservation) {
+        InventoryDelta delta = new InventoryDelta();
+        if (holdsInventory(reservation)) {
+            reservation.getItems().forEach(item -> {
+                delta.add(item.getTicketOption().getId(), item.getQuantity());
+                if (item.getSeats() != null) {
+                    item.getSeats().forEach(seat -> delta.addSeat(item.getTicketOption().getId(), seat, 1));
+                }
+            });
+        }
+        return delta;
+    }
+
+    public InventoryDelta add(Long ticketOptionId, int quantity) {
+        changes.merge(ticketOptionId, quantity, (current, added) -> current + added == 0 ? null : current + added);
+        return this;
+    }
+
+    public InventoryDelta plus(InventoryDelta other) {
+        other.changes.forEach(this::add);
+        other.seatChanges.forEach((ticketOptionId, seats) -> seats.forEach((seat, change) -> addSeat(ticketOptionId, seat, change)));
+        return this;
+    }
+
+    public InventoryDelta minus(InventoryDelta other) {
+        other.changes.forEach((ticketOptionId, quantity) -> add(ticketOptionId, -quantity));
+        other.seatChanges.forEach((ticketOptionId, seats) -> seats.forEach((seat, change) -> addSeat(ticketOptionId, seat, -change)));
+        return this;
+    }
+
+    public Map<Long, Integer> changes() {
+        return Collections.unmodifiableMap(changes);
+    }
+
+    public List<String> claimedSeats(Long ticketOptionId) {
+        return seats(ticketOptionId, 1);
+    }
+
+    public List<String> releasedSeats(Long ticketOptionId) {
+        return seats(ticketOptionId, -1);
+    }
+
+    public boolean hasSeatChanges(Long ticketOptionId) {
+        return seatChanges.containsKey(ticketOptionId);
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty() && seatChanges.isEmpty();
+    }
+
+    private void addSeat(Long ticketOptionId, String seat, int change) {
+        Map<String, Integer> seats = seatChanges.computeIfAbsent(ticketOptionId, id -> new TreeMap<>());
+        seats.merge(seat, change, (current, added) -> current + added == 0 ? null : current + added);
+        if (seats.isEmpty()) {
+            seatChanges.remove(ticketOptionId);
+        }
+    }
+
+    private List<String> seats(Long ticketOptionId, int sign) {
+        return seatChanges.getOrDefault(ticketOptionId, Map.of()).entrySet().stream()
+                .filter(entry -> Integer.signum(entry.getValue()) == sign)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
@@ -0,0 +1,243 @@
+package com.teatro.backend.inventory;
+
+import com.teatro.backend.exceptions.ResourceNotFoundException;
+import com.teatro.backend.models.entities.TicketOption;
+import com.teatro.backend.repositories.TicketOptionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Inventario en memoria por ticket option: rechaza reservas sin ir a la base cuando no hay lugar.
+// ticket_option.sold lo actualizan las sentencias condicionales del repositorio; el ledger es su espejo.
+// Cada opción tiene su propio contador atómico, así la contención queda acotada a la misma opción.
+// No se reparte el contador de una opción en varias franjas: aprobar una venta es comparar contra la capacidad
+// y sumar en un solo paso, y con franjas habría que dividir la capacidad entre ellas y moverla de una a otra
+// cerca del agotado, donde una franja vacía rechazaría ventas con lugar en otra. Un CAS por venta no es
+// el cuello de botella: cada venta aprobada igual hace su UPDATE condicional en la base.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryLedger {
+
+    private final TicketOptionRepository ticketOptionRepository;
+
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> optionsByEvent = new ConcurrentHashMap<>();
+    // los mismos ids ya ordenados, para armar la disponibilidad sin ordenar en cada lectura
+    private final Map<Long, long[]> sortedOptionsByEvent = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        slots.clear();
+        optionsByEvent.clear();
+        sortedOptionsByEvent.clear();
+        for (TicketOption option : ticketOptionRepository.findAll()) {
+            slots.put(option.getId(), Slot.of(option));
+            index(option);
+        }
+        version.incrementAndGet();
+        log.info("Inventory ledger rebuilt with {} ticket options", slots.size());
+    }
+
+    public boolean tryReserve(Long ticketOptionId, int quantity) {
+        return tryReserve(ticketOptionId, slot(ticketOptionId), quantity);
+    }
+
+    // Variante para cuando la entidad ya está cargada: si la opción es nueva no hace falta ir a buscarla
+    public boolean tryReserve(TicketOption option, int quantity) {
+        return tryReserve(option.getId(), slot(option), quantity);
+    }
+
+    private boolean tryReserve(Long ticketOptionId, Slot slot, int quantity) {
+        while (true) {
+            int sold = slot.sold.get();
+            if (sold + quantity > slot.capacity) {
+                return false;
+            }
+            if (slot.sold.compareAndSet(sold, sold + quantity)) {
+                break;
+            }
+        }
+        version.incrementAndGet();
+        releaseOnRollback(ticketOptionId, quantity);
+        return true;
+    }
+
+    // Dentro de una transacción la devolución se aplica recién cuando confirma, igual que la fila
+    public void release(Long ticketOptionId, int quantity) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    decrement(ticketOptionId, quantity);
+                }
+            });
+            return;
+        }
+        decrement(ticketOptionId, quantity);
+    }
+
+    // Corrección del reconciliador: suma la diferencia en lugar de pisar el valor para no perder ventas en curso
+    public void adjust(Long ticketOptionId, int difference) {
+        slot(ticketOptionId).sold.addAndGet(difference);
+        version.incrementAndGet();
+    }
+
+    public int remaining(Long ticketOptionId) {
+        Slot slot = slot(ticketOptionId);
+        return slot.capacity - slot.sold.get();
+    }
+
+    public int remaining(TicketOption option) {
+        Slot slot = slot(option);
+        return slot.capacity - slot.sold.get();
+    }
+
+    // Sube con cada cambio de vendidos o capacidad: los ETag de eventos la usan porque sold y available salen de acá
+    public long version() {
+        return version.get();
+    }
+
+    public int sold(Long ticketOptionId) {
+        return slot(ticketOptionId).sold.get();
+    }
+
+    // Opciones conocidas del evento (vacío si no tiene o todavía no se cargaron)
+    public Set<Long> ticketOptionIds(Long eventId) {
+        Set<Long> optionIds = optionsByEvent.get(eventId);
+        return optionIds == null ? Set.of() : Set.copyOf(optionIds);
+    }
+
+    // Pares [id de opción, disponibles] ordenados por id, leídos de los contadores sin ir a la base
+    public long[] availability(Long eventId) {
+        long[] optionIds = sortedOptionsByEvent.get(eventId);
+        if (optionIds == null) {
+            return new long[0];
+        }
+        long[] pairs = new long[optionIds.length * 2];
+        for (int i = 0; i < optionIds.length; i++) {
+            Slot slot = slots.get(optionIds[i]);
+            pairs[i * 2] = optionIds[i];
+            pairs[i * 2 + 1] = slot == null ? 0 : slot.capacity - slot.sold.get();
+        }
+        return pairs;
+    }
+
+    // Agotado solo si el ledger conoce opciones del evento y ninguna tiene lugar; si no conoce ninguna decide la base
+    public boolean isSoldOut(Long eventId) {
+        Set<Long> optionIds = optionsByEvent.get(eventId);
+        if (optionIds == null || optionIds.isEmpty()) {
+            return false;
+        }
+        for (Long optionId : optionIds) {
+            Slot slot = slots.get(optionId);
+            if (slot == null || slot.sold.get() < slot.capacity) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Registra una opción nueva o actualiza la capacidad de una existente (alta / edición de eventos).
+    // Dentro de una transacción se aplica recién cuando confirma: si se deshace, la opción no queda registrada
+    public void track(TicketOption option) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(option);
+                }
+            });
+            return;
+        }
+        apply(option);
+    }
+
+    private void apply(TicketOption option) {
+        index(option);
+        slots.compute(option.getId(), (id, current) -> {
+            if (current == null) {
+                return Slot.of(option);
+            }
+            current.capacity = option.getCapacity();
+            return current;
+        });
+        version.incrementAndGet();
+    }
+
+    private Slot slot(Long ticketOptionId) {
+        Slot slot = slots.get(ticketOptionId);
+        if (slot != null) {
+            return slot;
+        }
+        TicketOption option = ticketOptionRepository.findById(ticketOptionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket option not found"));
+        Slot loaded = slots.putIfAbsent(ticketOptionId, Slot.of(option));
+        index(option);
+        return loaded != null ? loaded : slots.get(ticketOptionId);
+    }
+
+    private Slot slot(TicketOption option) {
+        Slot slot = slots.get(option.getId());
+        if (slot != null) {
+            return slot;
+        }
+        slots.putIfAbsent(option.getId(), Slot.of(option));
+        index(option);
+        return slots.get(option.getId());
+    }
+
+    private void index(TicketOption option) {
+        if (option.getEvent() != null && option.getEvent().getId() != null) {
+            Long eventId = option.getEvent().getId();
+            Set<Long> optionIds = optionsByEvent.computeIfAbsent(eventId, id -> ConcurrentHashMap.newKeySet());
+            if (optionIds.add(option.getId())) {
+                sortedOptionsByEvent.compute(eventId, (id, sorted) -> optionIds.stream().mapToLong(Long::longValue).sorted().toArray());
+            }
+        }
+    }
+
+    private void decrement(Long ticketOptionId, int quantity) {
+        slot(ticketOptionId).sold.updateAndGet(sold -> Math.max(0, sold - quantity));
+        version.incrementAndGet();
+    }
+
+    private void releaseOnRollback(Long ticketOptionId, int quantity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    decrement(ticketOptionId, quantity);
+                }
+            }
+        });
+    }
+
+    private static final class Slot {
+        private volatile int capacity;
+        private final AtomicInteger sold;
+
+        private Slot(int capacity, int sold) {
+            this.capacity = capacity;
+            this.sold = new AtomicInteger(sold);
+        }
+
+        private static Slot of(TicketOption option) {
+            return new Slot(option.getCapacity(), option.getSold() == null ? 0 : option.getSold());
+        }
+    }
+}
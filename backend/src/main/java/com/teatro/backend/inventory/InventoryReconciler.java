@@ -0,0 +1,97 @@
+package com.teatro.backend.inventory;
+
+import com.teatro.backend.models.enums.ReservationStatus;
+import com.teatro.backend.repositories.EventRepository;
+import com.teatro.backend.repositories.TicketOptionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Verifica ticket_option.sold contra la suma de reservation_item.quantity de las reservas vigentes, de a un evento.
+// Cada pasada revisa primero los eventos que tuvieron cambios de inventario y después el siguiente evento
+// de un recorrido circular, así todo se revisa de a poco sin escanear la tabla entera.
+// Las diferencias se informan; solo se corrigen si teatro.inventory.reconciler.repair=true.
+@Slf4j
+@Component
+public class InventoryReconciler {
+
+    private final TicketOptionRepository ticketOptionRepository;
+    private final EventRepository eventRepository;
+    private final InventoryLedger inventoryLedger;
+    private final boolean enabled;
+    private final boolean repair;
+    private final int dirtyPerRun;
+
+    private final Set<Long> dirtyEvents = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Long> reportedDrift = new ConcurrentHashMap<>();
+    private long cursor;
+
+    public InventoryReconciler(TicketOptionRepository ticketOptionRepository,
+                               EventRepository eventRepository,
+                               InventoryLedger inventoryLedger,
+                               @Value("${teatro.inventory.reconciler.enabled:true}") boolean enabled,
+                               @Value("${teatro.inventory.reconciler.repair:false}") boolean repair,
+                               @Value("${teatro.inventory.reconciler.dirty-per-run:50}") int dirtyPerRun) {
+        this.ticketOptionRepository = ticketOptionRepository;
+        this.eventRepository = eventRepository;
+        this.inventoryLedger = inventoryLedger;
+        this.enabled = enabled;
+        this.repair = repair;
+        this.dirtyPerRun = dirtyPerRun;
+    }
+
+    public void markDirty(Long eventId) {
+        if (eventId != null) {
+            dirtyEvents.add(eventId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${teatro.inventory.reconciler.interval-ms:10000}",
+            initialDelayString = "${teatro.inventory.reconciler.interval-ms:10000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        Iterator<Long> dirty = dirtyEvents.iterator();
+        for (int checked = 0; checked < dirtyPerRun && dirty.hasNext(); checked++) {
+            Long eventId = dirty.next();
+            dirty.remove();
+            reconcile(eventId);
+        }
+        Long next = eventRepository.findNextId(cursor);
+        cursor = next != null ? next : 0;
+        if (next != null) {
+            reconcile(next);
+        }
+    }
+
+    // Devuelve cuántas opciones del evento tenían diferencias
+    public int reconcile(Long eventId) {
+        int drifted = 0;
+        for (TicketOptionRepository.SoldCheck check : ticketOptionRepository.checkSold(eventId, ReservationStatus.CANCELLED)) {
+            int sold = check.getSold() == null ? 0 : check.getSold();
+            long reserved = check.getReserved();
+            long drift = sold - reserved;
+            if (drift == 0) {
+                reportedDrift.remove(check.getTicketOptionId());
+                continue;
+            }
+            drifted++;
+            if (repair) {
+                if (ticketOptionRepository.repairSold(check.getTicketOptionId(), sold, (int) reserved) == 1) {
+                    inventoryLedger.adjust(check.getTicketOptionId(), (int) -drift);
+                    log.warn("Repaired sold of ticket option {} (event {}): {} -> {}", check.getTicketOptionId(), eventId, sold, reserved);
+                }
+            } else if (!Long.valueOf(drift).equals(reportedDrift.put(check.getTicketOptionId(), drift))) {
+                log.warn("Ticket option {} (event {}) has sold={} but reservations hold {}", check.getTicketOptionId(), eventId, sold, reserved);
+            }
+        }
+        return drifted;
+    }
+}
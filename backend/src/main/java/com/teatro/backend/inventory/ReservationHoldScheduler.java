@@ -0,0 +1,101 @@
+package com.teatro.backend.inventory;
+
+import com.teatro.backend.models.entities.Event;
+import com.teatro.backend.models.enums.ReservationStatus;
+import com.teatro.backend.repositories.ReservationRepository;
+import com.teatro.backend.services.ReservationService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Cancela las reservas PENDING cuyo plazo venció y devuelve sus entradas.
+// Los vencimientos viven en una HashedTimingWheel que se reconstruye desde la tabla reservation al arrancar;
+// si una reserva se paga o se cancela antes, la entrada queda en la rueda y se descarta al vencer.
+@Slf4j
+@Component
+public class ReservationHoldScheduler {
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationService reservationService;
+    private final Duration holdTtl;
+    private final long tickMillis;
+    private final int batchSize;
+    private final HashedTimingWheel wheel;
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reservation-hold-wheel");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReservationHoldScheduler(ReservationRepository reservationRepository,
+                                    @Lazy ReservationService reservationService,
+                                    @Value("${teatro.reservations.hold-ttl-minutes:30}") long holdTtlMinutes,
+                                    @Value("${teatro.reservations.hold-wheel.tick-ms:1000}") long tickMillis,
+                                    @Value("${teatro.reservations.hold-wheel.ticks-per-wheel:512}") int ticksPerWheel,
+                                    @Value("${teatro.reservations.hold-wheel.batch-size:200}") int batchSize) {
+        this.reservationRepository = reservationRepository;
+        this.reservationService = reservationService;
+        this.holdTtl = Duration.ofMinutes(holdTtlMinutes);
+        this.tickMillis = tickMillis;
+        this.batchSize = batchSize;
+        this.wheel = new HashedTimingWheel(tickMillis, ticksPerWheel, System.currentTimeMillis());
+    }
+
+    // El plazo es el TTL configurado, pero nunca pasa del inicio del evento
+    public LocalDateTime holdExpiration(Event event) {
+        LocalDateTime expiration = LocalDateTime.now().plus(holdTtl);
+        if (event.getStartDateTime() != null && event.getStartDateTime().isBefore(expiration)) {
+            return event.getStartDateTime();
+        }
+        return expiration;
+    }
+
+    public void schedule(Long reservationId, LocalDateTime expiresAt) {
+        wheel.schedule(reservationId, expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<ReservationRepository.PendingHold> holds = reservationRepository.findHolds(ReservationStatus.PENDING);
+        for (ReservationRepository.PendingHold hold : holds) {
+            schedule(hold.getId(), hold.getHoldExpiresAt() != null ? hold.getHoldExpiresAt() : hold.getEventStart());
+        }
+        log.info("Reservation hold wheel rebuilt with {} pending holds", holds.size());
+        ticker.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void tick() {
+        List<Long> expired = wheel.advance(System.currentTimeMillis());
+        for (int from = 0; from < expired.size(); from += batchSize) {
+            List<Long> batch = expired.subList(from, Math.min(from + batchSize, expired.size()));
+            try {
+                int cancelled = reservationService.expireHolds(batch);
+                if (cancelled > 0) {
+                    log.info("Cancelled {} expired reservation holds", cancelled);
+                }
+            } catch (RuntimeException e) {
+                // se vuelve a intentar en un minuto
+                log.error("Could not expire {} reservation holds", batch.size(), e);
+                long retryAt = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+                batch.forEach(id -> wheel.schedule(id, retryAt));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+    }
+}
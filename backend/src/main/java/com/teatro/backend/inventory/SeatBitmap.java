@@ -0,0 +1,177 @@
+package com.teatro.backend.inventory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Butacas de una sala rectangular como bits en palabras de 64: la butaca i (fila por fila) es el bit i.
+// Tomar butacas es un CAS por palabra, sin locks; 2000 butacas son 32 longs.
+public class SeatBitmap {
+
+    // seat_map.taken es VARBINARY(65536): un bit por butaca
+    public static final int MAX_SEATS = 65536 * 8;
+
+    private final int rows;
+    private final int seatsPerRow;
+    private final AtomicLongArray words;
+    private final AtomicInteger taken = new AtomicInteger();
+
+    public SeatBitmap(int rows, int seatsPerRow) {
+        if (rows < 1 || seatsPerRow < 1) {
+            throw new IllegalStateException("A seat map needs at least one row and one seat per row");
+        }
+        if ((long) rows * seatsPerRow > MAX_SEATS) {
+            throw new IllegalStateException("A seat map holds at most " + MAX_SEATS + " seats");
+        }
+        this.rows = rows;
+        this.seatsPerRow = seatsPerRow;
+        this.words = new AtomicLongArray((rows * seatsPerRow + 63) / 64);
+    }
+
+    public static SeatBitmap fromBytes(int rows, int seatsPerRow, byte[] packed) {
+        SeatBitmap bitmap = new SeatBitmap(rows, seatsPerRow);
+        for (int seat = 0; seat < bitmap.size(); seat++) {
+            if (isSet(packed, seat)) {
+                bitmap.words.set(seat >>> 6, bitmap.words.get(seat >>> 6) | 1L << seat);
+                bitmap.taken.incrementAndGet();
+            }
+        }
+        return bitmap;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int seatsPerRow() {
+        return seatsPerRow;
+    }
+
+    public int size() {
+        return rows * seatsPerRow;
+    }
+
+    public int available() {
+        return size() - taken.get();
+    }
+
+    // "3-12" es la butaca 12 de la fila 3, ambas desde 1
+    public int index(String label) {
+        int dash = label == null ? -1 : label.indexOf('-');
+        try {
+            int row = Integer.parseInt(label.substring(0, dash).trim());
+            int seat = Integer.parseInt(label.substring(dash + 1).trim());
+            if (row >= 1 && row <= rows && seat >= 1 && seat <= seatsPerRow) {
+                return (row - 1) * seatsPerRow + seat - 1;
+            }
+        } catch (RuntimeException e) {
+            // cae al error de abajo
+        }
+        throw new IllegalStateException("Seat " + label + " does not exist");
+    }
+
+    public String label(int index) {
+        return (index / seatsPerRow + 1) + "-" + (index % seatsPerRow + 1);
+    }
+
+    public boolean isTaken(int seat) {
+        return (words.get(seat >>> 6) & 1L << seat) != 0;
+    }
+
+    // Primera butaca libre en [from, to), o to si no hay; salta de a 64 butacas por palabra
+    public int nextFree(int from, int to) {
+        int seat = from;
+        while (seat < to) {
+            long free = ~words.get(seat >>> 6) & -1L << seat;
+            if (free != 0) {
+                return Math.min((seat & ~63) + Long.numberOfTrailingZeros(free), to);
+            }
+            seat = (seat & ~63) + 64;
+        }
+        return to;
+    }
+
+    // Primera butaca ocupada en [from, to), o to si no hay
+    public int nextTaken(int from, int to) {
+        int seat = from;
+        while (seat < to) {
+            long used = words.get(seat >>> 6) & -1L << seat;
+            if (used != 0) {
+                return Math.min((seat & ~63) + Long.numberOfTrailingZeros(used), to);
+            }
+            seat = (seat & ~63) + 64;
+        }
+        return to;
+    }
+
+    // Todas o ninguna: si alguna ya estaba ocupada se devuelven las que se alcanzaron a tomar
+    public boolean tryClaim(int[] seats) {
+        for (int i = 0; i < seats.length; i++) {
+            if (!claim(seats[i])) {
+                for (int j = 0; j < i; j++) {
+                    clear(seats[j]);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void release(int[] seats) {
+        for (int seat : seats) {
+            clear(seat);
+        }
+    }
+
+    public byte[] toBytes() {
+        byte[] packed = new byte[(size() + 7) / 8];
+        for (int i = 0; i < words.length(); i++) {
+            long word = words.get(i);
+            for (int b = 0; b < 8 && i * 8 + b < packed.length; b++) {
+                packed[i * 8 + b] = (byte) (word >>> (b * 8));
+            }
+        }
+        return packed;
+    }
+
+    public static boolean isSet(byte[] packed, int seat) {
+        return (packed[seat >>> 3] & 1 << (seat & 7)) != 0;
+    }
+
+    public static void set(byte[] packed, int seat, boolean value) {
+        if (value) {
+            packed[seat >>> 3] |= (byte) (1 << (seat & 7));
+        } else {
+            packed[seat >>> 3] &= (byte) ~(1 << (seat & 7));
+        }
+    }
+
+    private boolean claim(int seat) {
+        int word = seat >>> 6;
+        long mask = 1L << seat;
+        while (true) {
+            long current = words.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+            if (words.compareAndSet(word, current, current | mask)) {
+                taken.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    private void clear(int seat) {
+        int word = seat >>> 6;
+        long mask = 1L << seat;
+        while (true) {
+            long current = words.get(word);
+            if ((current & mask) == 0) {
+                return;
+            }
+            if (words.compareAndSet(word, current, current & ~mask)) {
+                taken.decrementAndGet();
+                return;
+            }
+        }
+    }
+}
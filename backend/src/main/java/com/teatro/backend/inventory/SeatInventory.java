@@ -0,0 +1,129 @@
+package com.teatro.backend.inventory;
+
+import com.teatro.backend.exceptions.SeatUnavailableException;
+import com.teatro.backend.models.entities.SeatMap;
+import com.teatro.backend.repositories.SeatMapRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// Planos de butacas en memoria, uno por ticket option con butacas numeradas.
+// La disponibilidad se lee del bitmap sin ir a la base; al tomar o liberar butacas también se actualiza
+// la fila seat_map (bloqueada hasta el commit), que es la que se carga al arrancar.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SeatInventory {
+
+    private final SeatMapRepository seatMapRepository;
+    private final BestAvailableSeatFinder seatFinder;
+
+    private final Map<Long, SeatBitmap> bitmaps = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        bitmaps.clear();
+        seatMapRepository.findAll().forEach(this::register);
+        log.info("Seat inventory loaded with {} seat maps", bitmaps.size());
+    }
+
+    public void register(SeatMap seatMap) {
+        bitmaps.put(seatMap.getTicketOptionId(),
+                SeatBitmap.fromBytes(seatMap.getRows(), seatMap.getSeatsPerRow(), seatMap.getTaken()));
+    }
+
+    public boolean hasSeatMap(Long ticketOptionId) {
+        return bitmaps.containsKey(ticketOptionId);
+    }
+
+    public Optional<SeatBitmap> bitmap(Long ticketOptionId) {
+        return Optional.ofNullable(bitmaps.get(ticketOptionId));
+    }
+
+    // Sugerencia sin tomar nada: el bloque puede ocuparse antes de que se confirme la reserva,
+    // en ese caso apply() falla con SeatUnavailableException
+    public Optional<List<String>> bestAvailable(Long ticketOptionId, int quantity) {
+        SeatBitmap bitmap = bitmaps.get(ticketOptionId);
+        if (bitmap == null) {
+            throw new IllegalStateException("Ticket option " + ticketOptionId + " has no seat map");
+        }
+        return seatFinder.find(bitmap, quantity).map(block -> block.labels(bitmap));
+    }
+
+    // Libera y toma butacas de una opción dentro de la transacción actual.
+    // Las tomadas se marcan ya en memoria y se devuelven si la transacción no confirma;
+    // las liberadas recién quedan libres en memoria después del commit.
+    public void apply(Long ticketOptionId, Collection<String> claims, Collection<String> releases) {
+        SeatBitmap bitmap = bitmaps.get(ticketOptionId);
+        if (bitmap == null) {
+            throw new IllegalStateException("Ticket option " + ticketOptionId + " has no seat map");
+        }
+        int[] claimed = indexes(bitmap, claims);
+        int[] released = indexes(bitmap, releases);
+
+        if (!bitmap.tryClaim(claimed)) {
+            throw new SeatUnavailableException("Some of the seats " + claims + " are already taken");
+        }
+        afterCompletion(committed -> {
+            if (committed) {
+                bitmap.release(released);
+            } else {
+                bitmap.release(claimed);
+            }
+        });
+
+        SeatMap seatMap = seatMapRepository.findForUpdate(ticketOptionId)
+                .orElseThrow(() -> new IllegalStateException("Ticket option " + ticketOptionId + " has no seat map"));
+        byte[] taken = seatMap.getTaken().clone();
+        for (int seat : released) {
+            SeatBitmap.set(taken, seat, false);
+        }
+        for (int seat : claimed) {
+            if (SeatBitmap.isSet(taken, seat)) {
+                throw new SeatUnavailableException("Seat " + bitmap.label(seat) + " is already taken");
+            }
+            SeatBitmap.set(taken, seat, true);
+        }
+        seatMap.setTaken(taken);
+        seatMapRepository.save(seatMap);
+    }
+
+    private int[] indexes(SeatBitmap bitmap, Collection<String> labels) {
+        Set<Integer> seen = new HashSet<>();
+        int[] indexes = new int[labels.size()];
+        int i = 0;
+        for (String label : labels) {
+            indexes[i] = bitmap.index(label);
+            if (!seen.add(indexes[i++])) {
+                throw new IllegalStateException("Seat " + label + " was requested twice");
+            }
+        }
+        return indexes;
+    }
+
+    private void afterCompletion(Consumer<Boolean> callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+}
@@ -0,0 +1,55 @@
+package com.teatro.backend.mappers;
+
+import com.teatro.backend.models.dtos.CustomerDTO;
+import com.teatro.backend.models.entities.Customer;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+@Component
+public class CustomerMapper {
+
+    // Lo que se puede pedir con ?fields=, en el orden del DTO. Los nombres son los de la entidad,
+    // así el listado puede seleccionar solo esas columnas
+    public static final Map<String, Function<CustomerDTO, Object>> FIELDS;
+
+    static {
+        Map<String, Function<CustomerDTO, Object>> fields = new LinkedHashMap<>();
+        fields.put("id", CustomerDTO::getId);
+        fields.put("firstName", CustomerDTO::getFirstName);
+        fields.put("lastName", CustomerDTO::getLastName);
+        fields.put("email", CustomerDTO::getEmail);
+        fields.put("registrationDate", CustomerDTO::getRegistrationDate);
+        fields.put("totalAttendances", CustomerDTO::getTotalAttendances);
+        fields.put("currentStreak", CustomerDTO::getCurrentStreak);
+        fields.put("loyaltyFree", CustomerDTO::getLoyaltyFree);
+        fields.put("active", CustomerDTO::getActive);
+        FIELDS = Collections.unmodifiableMap(fields);
+    }
+
+    public CustomerDTO toDTO(Customer customer) {
+        CustomerDTO dto = new CustomerDTO();
+        dto.setId(customer.getId());
+        dto.setFirstName(customer.getFirstName());
+        dto.setLastName(customer.getLastName());
+        dto.setEmail(customer.getEmail());
+        dto.setRegistrationDate(customer.getRegistrationDate());
+        dto.setTotalAttendances(customer.getTotalAttendances());
+        dto.setCurrentStreak(customer.getCurrentStreak());
+        dto.setLoyaltyFree(customer.getLoyaltyFree());
+        dto.setActive(customer.getActive());
+        return dto;
+    }
+
+    // Cliente nuevo: el id, la fecha de alta y los contadores los pone el sistema, no el pedido
+    public Customer toNewEntity(CustomerDTO dto) {
+        Customer customer = new Customer();
+        customer.setFirstName(dto.getFirstName());
+        customer.setLastName(dto.getLastName());
+        customer.setEmail(dto.getEmail());
+        return customer;
+    }
+}
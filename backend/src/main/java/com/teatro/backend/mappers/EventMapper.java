@@ -0,0 +1,91 @@
+package com.teatro.backend.mappers;
+
+import com.teatro.backend.models.dtos.EventDTO;
+import com.teatro.backend.models.dtos.TicketOptionDTO;
+import com.teatro.backend.models.entities.Event;
+import com.teatro.backend.models.entities.TicketOption;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Copia campo por campo, sin reflexión. Un campo nuevo en el DTO hay que sumarlo acá:
+// DtoMappersTest falla si alguno queda sin copiar.
+@Component
+public class EventMapper {
+
+    // Lo que se puede pedir con ?fields=, en el orden del DTO
+    public static final Map<String, Function<EventDTO, Object>> FIELDS;
+
+    static {
+        Map<String, Function<EventDTO, Object>> fields = new LinkedHashMap<>();
+        fields.put("id", EventDTO::getId);
+        fields.put("title", EventDTO::getTitle);
+        fields.put("type", EventDTO::getType);
+        fields.put("startDateTime", EventDTO::getStartDateTime);
+        fields.put("endDateTime", EventDTO::getEndDateTime);
+        fields.put("status", EventDTO::getStatus);
+        fields.put("description", EventDTO::getDescription);
+        fields.put("ticketOptions", EventDTO::getTicketOptions);
+        FIELDS = Collections.unmodifiableMap(fields);
+    }
+
+    public EventDTO toDTO(Event event) {
+        EventDTO dto = new EventDTO();
+        dto.setId(event.getId());
+        dto.setTitle(event.getTitle());
+        dto.setType(event.getType());
+        dto.setStartDateTime(event.getStartDateTime());
+        dto.setEndDateTime(event.getEndDateTime());
+        dto.setStatus(event.getStatus());
+        dto.setDescription(event.getDescription());
+        if (event.getTicketOptions() != null) {
+            List<TicketOptionDTO> ticketOptions = new ArrayList<>(event.getTicketOptions().size());
+            for (TicketOption ticketOption : event.getTicketOptions()) {
+                ticketOptions.add(toDTO(ticketOption));
+            }
+            dto.setTicketOptions(ticketOptions);
+        }
+        return dto;
+    }
+
+    // available no está en la entidad: lo completa el servicio con el ledger
+    public TicketOptionDTO toDTO(TicketOption ticketOption) {
+        TicketOptionDTO dto = new TicketOptionDTO();
+        dto.setId(ticketOption.getId());
+        dto.setName(ticketOption.getName());
+        dto.setPrice(ticketOption.getPrice());
+        dto.setCapacity(ticketOption.getCapacity());
+        dto.setSold(ticketOption.getSold());
+        return dto;
+    }
+
+    // Copia de un DTO del catálogo, para que quien lo recibe pueda modificarlo sin tocar el cacheado
+    public EventDTO copy(EventDTO source) {
+        EventDTO dto = new EventDTO();
+        dto.setId(source.getId());
+        dto.setTitle(source.getTitle());
+        dto.setType(source.getType());
+        dto.setStartDateTime(source.getStartDateTime());
+        dto.setEndDateTime(source.getEndDateTime());
+        dto.setStatus(source.getStatus());
+        dto.setDescription(source.getDescription());
+        if (source.getTicketOptions() != null) {
+            List<TicketOptionDTO> ticketOptions = new ArrayList<>(source.getTicketOptions().size());
+            for (TicketOptionDTO ticketOption : source.getTicketOptions()) {
+                ticketOptions.add(copy(ticketOption));
+            }
+            dto.setTicketOptions(ticketOptions);
+        }
+        return dto;
+    }
+
+    public TicketOptionDTO copy(TicketOptionDTO source) {
+        return new TicketOptionDTO(source.getId(), source.getName(), source.getPrice(),
+                source.getCapacity(), source.getSold(), source.getAvailable());
+    }
+}
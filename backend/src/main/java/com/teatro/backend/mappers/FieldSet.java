@@ -0,0 +1,78 @@
+package com.teatro.backend.mappers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Propiedades pedidas con ?fields=id,title,status en los listados. Se validan contra las del DTO y salen
+// en el orden del DTO, no en el del pedido. Sin fields viaja todo, como siempre.
+// Los servicios la consultan para no cargar lo que no se pide (ítems, joins, columnas).
+public final class FieldSet<T> {
+
+    private final Map<String, Function<T, Object>> selected;
+    private final boolean all;
+
+    private FieldSet(Map<String, Function<T, Object>> selected, boolean all) {
+        this.selected = selected;
+        this.all = all;
+    }
+
+    public static <T> FieldSet<T> all(Map<String, Function<T, Object>> available) {
+        return new FieldSet<>(available, true);
+    }
+
+    public static <T> FieldSet<T> parse(String fields, Map<String, Function<T, Object>> available) {
+        if (fields == null || fields.isBlank()) {
+            return all(available);
+        }
+        Set<String> requested = new HashSet<>();
+        for (String name : fields.split(",")) {
+            String field = name.strip();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (!available.containsKey(field)) {
+                throw new IllegalStateException("Unknown field: " + field);
+            }
+            requested.add(field);
+        }
+        if (requested.isEmpty()) {
+            return all(available);
+        }
+        Map<String, Function<T, Object>> selected = new LinkedHashMap<>();
+        available.forEach((field, accessor) -> {
+            if (requested.contains(field)) {
+                selected.put(field, accessor);
+            }
+        });
+        return new FieldSet<>(Collections.unmodifiableMap(selected), false);
+    }
+
+    public boolean isAll() {
+        return all;
+    }
+
+    public boolean includes(String field) {
+        return selected.containsKey(field);
+    }
+
+    public Set<String> names() {
+        return selected.keySet();
+    }
+
+    // Un mapa por fila con solo las propiedades pedidas; Jackson lo escribe igual que al DTO
+    public List<Map<String, Object>> project(List<T> rows) {
+        List<Map<String, Object>> projected = new ArrayList<>(rows.size());
+        for (T row : rows) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            selected.forEach((field, accessor) -> values.put(field, accessor.apply(row)));
+            projected.add(values);
+        }
+        return projected;
+    }
+}
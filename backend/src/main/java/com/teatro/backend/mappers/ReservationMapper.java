@@ -0,0 +1,94 @@
+package com.teatro.backend.mappers;
+
+import com.teatro.backend.models.dtos.ReservationDTO;
+import com.teatro.backend.models.dtos.ReservationItemDTO;
+import com.teatro.backend.models.entities.Reservation;
+import com.teatro.backend.models.entities.ReservationItem;
+import com.teatro.backend.repositories.ReservationRepository.ReservationItemRow;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+@Component
+public class ReservationMapper {
+
+    // Lo que se puede pedir con ?fields=, en el orden del DTO
+    public static final Map<String, Function<ReservationDTO, Object>> FIELDS;
+
+    static {
+        Map<String, Function<ReservationDTO, Object>> fields = new LinkedHashMap<>();
+        fields.put("id", ReservationDTO::getId);
+        fields.put("customerId", ReservationDTO::getCustomerId);
+        fields.put("customerName", ReservationDTO::getCustomerName);
+        fields.put("eventId", ReservationDTO::getEventId);
+        fields.put("eventTitle", ReservationDTO::getEventTitle);
+        fields.put("status", ReservationDTO::getStatus);
+        fields.put("loyaltyFree", ReservationDTO::getLoyaltyFree);
+        fields.put("total", ReservationDTO::getTotal);
+        fields.put("createdAt", ReservationDTO::getCreatedAt);
+        fields.put("paidAt", ReservationDTO::getPaidAt);
+        fields.put("attendeeName", ReservationDTO::getAttendeeName);
+        fields.put("attendedBy", ReservationDTO::getAttendedBy);
+        fields.put("items", ReservationDTO::getItems);
+        FIELDS = Collections.unmodifiableMap(fields);
+    }
+
+    // Cliente y evento tienen que venir cargados; los ítems se pasan aparte porque en las lecturas
+    // salen de findItemRows y no de la colección de la entidad
+    public ReservationDTO toDTO(Reservation reservation, List<ReservationItemDTO> items) {
+        return toDTO(reservation, items, FieldSet.all(FIELDS));
+    }
+
+    // Con un fieldset parcial cliente y evento pueden venir sin cargar: de ellos solo se lee el id
+    // (que el proxy tiene sin ir a la base) salvo que se pidan customerName o eventTitle
+    public ReservationDTO toDTO(Reservation reservation, List<ReservationItemDTO> items, FieldSet<ReservationDTO> fields) {
+        ReservationDTO dto = new ReservationDTO();
+        dto.setId(reservation.getId());
+        dto.setCustomerId(reservation.getCustomer().getId());
+        if (fields.includes("customerName")) {
+            dto.setCustomerName(reservation.getCustomer().getFirstName() + " " + reservation.getCustomer().getLastName());
+        }
+        dto.setEventId(reservation.getEvent().getId());
+        if (fields.includes("eventTitle")) {
+            dto.setEventTitle(reservation.getEvent().getTitle());
+        }
+        dto.setStatus(reservation.getStatus());
+        dto.setLoyaltyFree(reservation.getLoyaltyFree());
+        dto.setTotal(reservation.getTotal());
+        dto.setCreatedAt(reservation.getCreatedAt());
+        dto.setPaidAt(reservation.getPaidAt());
+        dto.setAttendeeName(reservation.getAttendeeName());
+        dto.setAttendedBy(reservation.getAttendedBy());
+        dto.setItems(items);
+        return dto;
+    }
+
+    // Para una reserva recién escrita, con los ítems en memoria
+    public ReservationDTO toDTO(Reservation reservation) {
+        List<ReservationItemDTO> items = new ArrayList<>(reservation.getItems().size());
+        for (ReservationItem item : reservation.getItems()) {
+            items.add(toItemDTO(item));
+        }
+        return toDTO(reservation, items);
+    }
+
+    public ReservationItemDTO toItemDTO(ReservationItem item) {
+        return new ReservationItemDTO(item.getId(), item.getTicketOption().getId(), item.getTicketOption().getName(),
+                item.getQuantity(), item.getUnitPrice(), seatsOrNull(item.getSeats()));
+    }
+
+    public ReservationItemDTO toItemDTO(ReservationItemRow row) {
+        return new ReservationItemDTO(row.getId(), row.getTicketOptionId(), row.getTicketOptionName(),
+                row.getQuantity(), row.getUnitPrice(), seatsOrNull(row.getSeats()));
+    }
+
+    // Sin butacas el campo no viaja
+    private List<String> seatsOrNull(List<String> seats) {
+        return seats == null || seats.isEmpty() ? null : seats;
+    }
+}
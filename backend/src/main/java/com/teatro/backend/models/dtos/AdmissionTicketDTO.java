@@ -0,0 +1,19 @@
+package com.teatro.backend.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdmissionTicketDTO {
+    private String token;
+    private Long eventId;
+    private boolean admitted;
+    private long position;
+
+    public static AdmissionTicketDTO granted(Long eventId) {
+        return new AdmissionTicketDTO(null, eventId, true, 0);
+    }
+}
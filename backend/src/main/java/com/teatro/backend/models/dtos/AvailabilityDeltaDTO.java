@@ -0,0 +1,17 @@
+package com.teatro.backend.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityDeltaDTO {
+    private Long eventId;
+
+    // Solo las opciones que cambiaron, con los valores absolutos: perderse un mensaje no deja nada corrido
+    private List<TicketAvailabilityDTO> ticketOptions;
+}
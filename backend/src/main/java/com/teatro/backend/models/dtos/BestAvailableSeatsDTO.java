@@ -0,0 +1,18 @@
+package com.teatro.backend.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BestAvailableSeatsDTO {
+    private Long ticketOptionId;
+    private Integer quantity;
+
+    // Vacío si no quedan tantas butacas juntas en ninguna fila
+    private List<String> seats;
+}
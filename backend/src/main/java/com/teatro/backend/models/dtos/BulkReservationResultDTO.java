@@ -0,0 +1,30 @@
+package com.teatro.backend.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkReservationResultDTO {
+    private int index;
+    private boolean success;
+    private ReservationDTO reservation;
+    private String error;
+    // el código que habría devuelto la misma reserva pedida sola
+    private Integer status;
+
+    public static BulkReservationResultDTO created(int index, ReservationDTO reservation) {
+        return new BulkReservationResultDTO(index, true, reservation, null, HttpStatus.OK.value());
+    }
+
+    public static BulkReservationResultDTO rejected(int index, String error) {
+        return rejected(index, HttpStatus.BAD_REQUEST, error);
+    }
+
+    public static BulkReservationResultDTO rejected(int index, HttpStatus status, String error) {
+        return new BulkReservationResultDTO(index, false, null, error, status.value());
+    }
+}
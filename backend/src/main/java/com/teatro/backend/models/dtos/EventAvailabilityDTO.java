@@ -0,0 +1,15 @@
+package com.teatro.backend.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventAvailabilityDTO {
+    private Long eventId;
+
+    // Pares planos [ticketOptionId, disponibles, ticketOptionId, disponibles, ...] ordenados por id
+    private long[] ticketOptions;
+}
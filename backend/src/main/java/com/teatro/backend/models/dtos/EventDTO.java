@@ -1,7 +1,6 @@
 package com.teatro.backend.models.dtos;
 
 
-;
 import com.teatro.backend.models.enums.EventStatus;
 import com.teatro.backend.models.enums.EventType;
 import jakarta.validation.constraints.NotBlank;
@@ -0,0 +1,17 @@
+package com.teatro.backend.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventPageDTO {
+    private List<EventDTO> items;
+
+    // null en la última página
+    private String nextCursor;
+}
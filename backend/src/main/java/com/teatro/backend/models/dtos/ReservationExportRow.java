@@ -0,0 +1,28 @@
+package com.teatro.backend.models.dtos;
+
+import com.teatro.backend.models.enums.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Una línea de la exportación de reservas; se arma directo en el SELECT, sin cargar entidades
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationExportRow {
+    private Long id;
+    private Long customerId;
+    private String customerName;
+    private Long eventId;
+    private String eventTitle;
+    private ReservationStatus status;
+    private String attendeeName;
+    private String attendedBy;
+    private Boolean loyaltyFree;
+    private BigDecimal total;
+    private LocalDateTime createdAt;
+    private LocalDateTime paidAt;
+}
@@ -0,0 +1,36 @@
+package com.teatro.backend.models.dtos;
+
+import com.teatro.backend.models.enums.EventType;
+import com.teatro.backend.models.enums.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+// Filtros de GET /api/reservations; los que vienen vacíos no se aplican
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationFilter {
+    private ReservationStatus status;
+    private Long eventId;
+    private Long customerId;
+
+    // createdAt en [from, to)
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    private EventType eventType;
+
+    // inicio del evento en [eventFrom, eventTo), por ejemplo "las funciones de la semana que viene"
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime eventFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime eventTo;
+}
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -15,4 +16,11 @@ public class ReservationItemDTO {
     private String ticketOptionName;
     private Integer quantity;
     private BigDecimal unitPrice;
+
+    // "fila-butaca", por ejemplo "3-12"; solo para opciones con plano de butacas
+    private List<String> seats;
+
+    public ReservationItemDTO(Long id, Long ticketOptionId, String ticketOptionName, Integer quantity, BigDecimal unitPrice) {
+        this(id, ticketOptionId, ticketOptionName, quantity, unitPrice, null);
+    }
 }
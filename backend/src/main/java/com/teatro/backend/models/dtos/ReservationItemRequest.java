@@ -6,6 +6,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,5 +19,12 @@ public class ReservationItemRequest {
     @NotNull(message = "Quantity is required")
     @Min(value = 1, message = "Quantity must be at least 1")
     private Integer quantity;
+
+    // "fila-butaca", por ejemplo "3-12"; solo para opciones con plano de butacas
+    private List<String> seats;
+
+    public ReservationItemRequest(Long ticketOptionId, Integer quantity) {
+        this(ticketOptionId, quantity, null);
+    }
 }
 
@@ -0,0 +1,30 @@
+package com.teatro.backend.models.dtos;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatMapDTO {
+    private Long ticketOptionId;
+
+    @NotNull(message = "Rows are required")
+    @Min(value = 1, message = "A seat map needs at least one row")
+    @Max(value = 500, message = "A seat map has at most 500 rows")
+    private Integer rows;
+
+    @NotNull(message = "Seats per row are required")
+    @Min(value = 1, message = "A row needs at least one seat")
+    @Max(value = 500, message = "A row has at most 500 seats")
+    private Integer seatsPerRow;
+
+    private Integer available;
+
+    // Un bit por butaca (1 = ocupada), fila por fila; en JSON viaja en base64
+    private byte[] taken;
+}
@@ -0,0 +1,14 @@
+package com.teatro.backend.models.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketAvailabilityDTO {
+    private Long ticketOptionId;
+    private Integer sold;
+    private Integer available;
+}
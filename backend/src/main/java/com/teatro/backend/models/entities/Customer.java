@@ -1,5 +1,6 @@
 package com.teatro.backend.models.entities;
 
+import com.teatro.backend.versioning.TableChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -11,6 +12,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(TableChangeListener.class)
 @Table(name = "customer")
 @Data
 @NoArgsConstructor
@@ -2,6 +2,7 @@ package com.teatro.backend.models.entities;
 
 import com.teatro.backend.models.enums.EventStatus;
 import com.teatro.backend.models.enums.EventType;
+import com.teatro.backend.versioning.TableChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -14,6 +15,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(TableChangeListener.class)
 @Table(name = "event")
 @Data
 @NoArgsConstructor
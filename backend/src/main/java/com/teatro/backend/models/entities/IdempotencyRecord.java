@@ -0,0 +1,43 @@
+package com.teatro.backend.models.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_record")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String key;
+
+    // Hash de la operación y el cuerpo: la misma key con otro pedido se rechaza
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Lob
+    @Column(name = "response_body", nullable = false)
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    // La key la elige el cliente: siempre se inserta, así una key repetida falla en vez de pisar la guardada
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
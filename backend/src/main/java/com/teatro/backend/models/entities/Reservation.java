@@ -1,6 +1,7 @@
 package com.teatro.backend.models.entities;
 
 import com.teatro.backend.models.enums.ReservationStatus;
+import com.teatro.backend.versioning.TableChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -12,14 +13,17 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 @Entity
+@EntityListeners(TableChangeListener.class)
 @Table(name = "reservation")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Reservation {
 
+    // Secuencia con ids reservados de a 50: con IDENTITY Hibernate no puede agrupar los INSERT en batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_seq")
+    @SequenceGenerator(name = "reservation_seq", sequenceName = "reservation_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -60,6 +64,10 @@ public class Reservation {
     @Column(name = "paid_at")
     private LocalDateTime paidAt;
 
+    // Vencimiento de la reserva PENDING; al pasar se cancela y se liberan las entradas
+    @Column(name = "hold_expires_at")
+    private LocalDateTime holdExpiresAt;
+
     @OneToMany(mappedBy = "reservation", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ReservationItem> items = new ArrayList<>();
 
@@ -1,5 +1,6 @@
 package com.teatro.backend.models.entities;
 
+import com.teatro.backend.versioning.TableChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -8,16 +9,21 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
+@EntityListeners(TableChangeListener.class)
 @Table(name = "reservation_item")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class ReservationItem {
 
+    // Secuencia con ids reservados de a 50: con IDENTITY Hibernate no puede agrupar los INSERT en batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_item_seq")
+    @SequenceGenerator(name = "reservation_item_seq", sequenceName = "reservation_item_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -38,5 +44,10 @@ public class ReservationItem {
     @NotNull(message = "Unit price is required")
     @Column(name = "unit_price", nullable = false, precision = 10, scale = 2)
     private BigDecimal unitPrice;
+
+    // Butacas numeradas ("fila-butaca"), solo para opciones con plano
+    @Convert(converter = SeatListConverter.class)
+    @Column(name = "seats")
+    private List<String> seats = new ArrayList<>();
 }
 
@@ -0,0 +1,22 @@
+package com.teatro.backend.models.entities;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Butacas de un ítem guardadas como "3-12,3-13" en una sola columna
+@Converter
+public class SeatListConverter implements AttributeConverter<List<String>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(List<String> seats) {
+        return seats == null || seats.isEmpty() ? null : String.join(",", seats);
+    }
+
+    @Override
+    public List<String> convertToEntityAttribute(String column) {
+        return column == null || column.isBlank() ? List.of() : Arrays.asList(column.split(","));
+    }
+}
@@ -0,0 +1,28 @@
+package com.teatro.backend.models.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "seat_map")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatMap {
+
+    @Id
+    @Column(name = "ticket_option_id")
+    private Long ticketOptionId;
+
+    @Column(name = "seat_rows", nullable = false)
+    private Integer rows;
+
+    @Column(name = "seats_per_row", nullable = false)
+    private Integer seatsPerRow;
+
+    // Un bit por butaca, en orden fila por fila; se lee y escribe entero
+    @Column(nullable = false, length = 65536)
+    private byte[] taken;
+}
@@ -1,6 +1,6 @@
 package com.teatro.backend.models.entities;
 
-import com.teatro.backend.exceptions.InsufficientCapacityException;
+import com.teatro.backend.versioning.TableChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -12,6 +12,7 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Entity
+@EntityListeners(TableChangeListener.class)
 @Table(name = "ticket_option")
 @Data
 @NoArgsConstructor
@@ -40,26 +41,10 @@ public class TicketOption {
     @Column(nullable = false)
     private Integer capacity;
 
-    @Column(nullable = false)
+    // Solo se modifica con las sentencias condicionales de TicketOptionRepository, nunca desde la entidad
+    @Column(nullable = false, updatable = false)
     private Integer sold = 0;
 
     @Version
     private Integer version;
-
-    public Integer getRemaining() {
-        return capacity - sold;
-    }
-
-    public boolean isReservable(Integer quantity) {
-        return getRemaining() >= quantity;
-    }
-
-    public void reserve(Integer quantity) {
-        if (!isReservable(quantity)) {
-            throw new InsufficientCapacityException(
-                    "Not enough tickets available. Requested: " + quantity + ", Available: " + getRemaining()
-            );
-        }
-        this.sold += quantity;
-    }
 }
\ No newline at end of file
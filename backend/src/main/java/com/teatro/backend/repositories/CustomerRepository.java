@@ -1,7 +1,10 @@
 package com.teatro.backend.repositories;
 
 import com.teatro.backend.models.entities.Customer;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +17,16 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Long countByLoyaltyFreeTrue();
     List<Customer> findByActiveTrue();
     Optional<Customer> findByIdAndActiveTrue(Long id);
+
+    // Solo lo que indexa el buscador, de a ventanas por id para no traer todos los clientes juntos
+    @Query("SELECT c.id AS id, c.firstName AS firstName, c.lastName AS lastName, c.email AS email " +
+            "FROM Customer c WHERE c.active = true AND c.id > :afterId ORDER BY c.id")
+    List<SearchRow> findSearchRowsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    interface SearchRow {
+        Long getId();
+        String getFirstName();
+        String getLastName();
+        String getEmail();
+    }
 }
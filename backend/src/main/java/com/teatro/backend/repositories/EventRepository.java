@@ -3,13 +3,45 @@ package com.teatro.backend.repositories;
 import com.teatro.backend.models.entities.Event;
 import com.teatro.backend.models.enums.EventStatus;
 import com.teatro.backend.models.enums.EventType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
     List<Event> findByStatus(EventStatus status);
     List<Event> findByType(EventType type);
+
+    // Catálogo: cada evento con sus opciones en el mismo SELECT, sin depender de una transacción abierta
+    @EntityGraph(attributePaths = "ticketOptions")
+    List<Event> findWithTicketOptionsBy();
+
+    @EntityGraph(attributePaths = "ticketOptions")
+    List<Event> findWithTicketOptionsByIdIn(Collection<Long> ids);
+
+    // Eventos con ese estado que empiezan después de (from, afterId), en orden de inicio y de a una ventana.
+    // Estado, fecha y orden los resuelve idx_event_status_start; el primer pedido usa afterId = Long.MAX_VALUE.
+    @Query("SELECT e.id AS id, e.startDateTime AS startDateTime FROM Event e " +
+            "WHERE e.status = :status AND (e.startDateTime > :from OR (e.startDateTime = :from AND e.id > :afterId)) " +
+            "ORDER BY e.startDateTime, e.id")
+    List<EventKey> findStartingAfter(@Param("status") EventStatus status,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("afterId") Long afterId,
+                                     Limit limit);
+
+    // Para recorrer los eventos de a uno sin cargar la tabla entera
+    @Query("SELECT MIN(e.id) FROM Event e WHERE e.id > :after")
+    Long findNextId(@Param("after") Long after);
+
+    interface EventKey {
+        Long getId();
+        LocalDateTime getStartDateTime();
+    }
 }
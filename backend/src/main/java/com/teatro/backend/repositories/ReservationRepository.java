@@ -3,17 +3,25 @@ package com.teatro.backend.repositories;
 import com.teatro.backend.models.entities.Reservation;
 import com.teatro.backend.models.enums.EventType;
 import com.teatro.backend.models.enums.ReservationStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+public interface ReservationRepository extends JpaRepository<Reservation, Long>, JpaSpecificationExecutor<Reservation> {
     List<Reservation> findByCustomerId(Long customerId);
     List<Reservation> findByEventId(Long eventId);
     List<Reservation> findByStatus(ReservationStatus status);
@@ -28,5 +36,59 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     List<Reservation> findByActiveTrue();
 
     Optional<Reservation> findByIdAndActiveTrue(Long id);
+
+    // Bloquea la fila hasta el fin de la transacción: dos cambios sobre la misma reserva (dos cancelaciones,
+    // un pago contra el vencimiento) se aplican de a uno y el segundo ve el estado que dejó el primero
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reservation r WHERE r.id = :id")
+    Optional<Reservation> findForUpdate(@Param("id") Long id);
+
+    // Lecturas para armar DTOs: cliente y evento en el mismo SELECT, los ítems van aparte con findItemRows
+    @EntityGraph(attributePaths = {"customer", "event"})
+    Optional<Reservation> findWithCustomerAndEventByIdAndActiveTrue(Long id);
+
+    @EntityGraph(attributePaths = {"customer", "event"})
+    List<Reservation> findWithCustomerAndEventByCustomerIdAndActiveTrue(Long customerId);
+
+    // Los ítems de varias reservas con el nombre de su ticket option, en un solo SELECT
+    @Query("SELECT i.reservation.id AS reservationId, i.id AS id, t.id AS ticketOptionId, t.name AS ticketOptionName, " +
+            "i.quantity AS quantity, i.unitPrice AS unitPrice, i.seats AS seats " +
+            "FROM ReservationItem i JOIN i.ticketOption t WHERE i.reservation.id IN :ids ORDER BY i.id")
+    List<ReservationItemRow> findItemRows(@Param("ids") Collection<Long> ids);
+
+    // Si la reserva no tiene vencimiento propio, vence cuando empieza el evento
+    @Query("SELECT r.id AS id, r.holdExpiresAt AS holdExpiresAt, e.startDateTime AS eventStart " +
+            "FROM Reservation r JOIN r.event e WHERE r.active = true AND r.status = :status")
+    List<PendingHold> findHolds(@Param("status") ReservationStatus status);
+
+    // Las vencidas de la lista, bloqueadas hasta el fin de la transacción: si alguien está pagando o editando
+    // una, el barrido espera y la evalúa con lo que quedó confirmado. Sin joins para que el FOR UPDATE
+    // toque solo filas de reservation; los ítems se cargan aparte con findWithItemsByIdIn
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reservation r WHERE r.id IN :ids AND r.active = true AND r.status = :status " +
+            "AND COALESCE(r.holdExpiresAt, (SELECT e.startDateTime FROM Event e WHERE e = r.event)) <= :now " +
+            "ORDER BY r.id")
+    List<Reservation> findExpiredHolds(@Param("ids") Collection<Long> ids,
+                                       @Param("status") ReservationStatus status,
+                                       @Param("now") LocalDateTime now);
+
+    @EntityGraph(attributePaths = "items")
+    List<Reservation> findWithItemsByIdIn(Collection<Long> ids);
+
+    interface ReservationItemRow {
+        Long getReservationId();
+        Long getId();
+        Long getTicketOptionId();
+        String getTicketOptionName();
+        Integer getQuantity();
+        BigDecimal getUnitPrice();
+        List<String> getSeats();
+    }
+
+    interface PendingHold {
+        Long getId();
+        LocalDateTime getHoldExpiresAt();
+        LocalDateTime getEventStart();
+    }
 }
 
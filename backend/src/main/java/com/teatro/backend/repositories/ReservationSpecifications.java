@@ -0,0 +1,93 @@
+package com.teatro.backend.repositories;
+
+import com.teatro.backend.models.dtos.ReservationFilter;
+import com.teatro.backend.models.entities.Event;
+import com.teatro.backend.models.entities.Reservation;
+import com.teatro.backend.models.enums.EventType;
+import com.teatro.backend.models.enums.ReservationStatus;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+// Filtros opcionales del listado de reservas; cada uno vale null si no se pidió y se combinan en un solo WHERE
+public final class ReservationSpecifications {
+
+    // Orden del listado: más nuevas primero y el id desempata las creadas en el mismo instante
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    private ReservationSpecifications() {
+    }
+
+    // Reservas activas que cumplen todos los filtros pedidos (listado y exportación)
+    public static Specification<Reservation> matching(ReservationFilter filter) {
+        return Specification.where(active())
+                .and(hasStatus(filter.getStatus()))
+                .and(forEvent(filter.getEventId()))
+                .and(forCustomer(filter.getCustomerId()))
+                .and(createdFrom(filter.getFrom()))
+                .and(createdBefore(filter.getTo()))
+                .and(forEventType(filter.getEventType()))
+                .and(eventStartingFrom(filter.getEventFrom()))
+                .and(eventStartingBefore(filter.getEventTo()));
+    }
+
+    public static Specification<Reservation> active() {
+        return (root, query, cb) -> cb.isTrue(root.get("active"));
+    }
+
+    public static Specification<Reservation> hasStatus(ReservationStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Reservation> forEvent(Long eventId) {
+        return eventId == null ? null : (root, query, cb) -> cb.equal(root.get("event").get("id"), eventId);
+    }
+
+    public static Specification<Reservation> forEventType(EventType type) {
+        return type == null ? null : (root, query, cb) -> cb.equal(event(root).get("type"), type);
+    }
+
+    public static Specification<Reservation> eventStartingFrom(LocalDateTime from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(event(root).get("startDateTime"), from);
+    }
+
+    public static Specification<Reservation> eventStartingBefore(LocalDateTime to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThan(event(root).get("startDateTime"), to);
+    }
+
+    public static Specification<Reservation> forCustomer(Long customerId) {
+        return customerId == null ? null : (root, query, cb) -> cb.equal(root.get("customer").get("id"), customerId);
+    }
+
+    public static Specification<Reservation> createdFrom(LocalDateTime from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    public static Specification<Reservation> createdBefore(LocalDateTime to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThan(root.get("createdAt"), to);
+    }
+
+    // Keyset: las que van después de (createdAt, id) en NEWEST_FIRST, sin OFFSET
+    public static Specification<Reservation> after(LocalDateTime createdAt, Long id) {
+        if (createdAt == null || id == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), createdAt),
+                cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id)));
+    }
+
+    // Un solo JOIN a event aunque se filtre por tipo y por fecha (o la consulta ya lo tenga, como la exportación)
+    @SuppressWarnings("unchecked")
+    private static Join<Reservation, Event> event(Root<Reservation> root) {
+        for (Join<Reservation, ?> join : root.getJoins()) {
+            if (join.getAttribute().getName().equals("event")) {
+                return (Join<Reservation, Event>) join;
+            }
+        }
+        return root.join("event");
+    }
+}
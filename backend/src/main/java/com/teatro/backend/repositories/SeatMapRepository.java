@@ -0,0 +1,20 @@
+package com.teatro.backend.repositories;
+
+import com.teatro.backend.models.entities.SeatMap;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface SeatMapRepository extends JpaRepository<SeatMap, Long> {
+
+    // Bloquea la fila hasta el fin de la transacción: las escrituras del mapa no se pisan entre sí
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SeatMap s WHERE s.ticketOptionId = :id")
+    Optional<SeatMap> findForUpdate(@Param("id") Long id);
+}
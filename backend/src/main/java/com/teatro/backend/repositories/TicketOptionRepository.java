@@ -1,13 +1,57 @@
 package com.teatro.backend.repositories;
 
 import com.teatro.backend.models.entities.TicketOption;
+import com.teatro.backend.models.enums.ReservationStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TicketOptionRepository extends JpaRepository<TicketOption, Long> {
     List<TicketOption> findByEventId(Long eventId);
-}
 
+    // Bloquea la fila hasta el fin de la transacción: reserveCapacity y releaseCapacity esperan
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM TicketOption t WHERE t.id = :id")
+    Optional<TicketOption> findForUpdate(@Param("id") Long id);
+
+    // Chequeo de capacidad e incremento en una sola sentencia: devuelve 0 si no alcanzan las entradas
+    @Transactional
+    @Modifying
+    @Query("UPDATE TicketOption t SET t.sold = t.sold + :quantity " +
+            "WHERE t.id = :id AND t.sold + :quantity <= t.capacity")
+    int reserveCapacity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE TicketOption t SET t.sold = t.sold - :quantity " +
+            "WHERE t.id = :id AND t.sold >= :quantity")
+    int releaseCapacity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // sold y lo que suman los ítems de reservas vigentes, en una sola sentencia para que ambos sean del mismo momento
+    @Query("SELECT t.id AS ticketOptionId, t.sold AS sold, " +
+            "(SELECT COALESCE(SUM(i.quantity), 0) FROM ReservationItem i JOIN i.reservation r " +
+            " WHERE i.ticketOption = t AND r.active = true AND r.status <> :cancelled) AS reserved " +
+            "FROM TicketOption t WHERE t.event.id = :eventId")
+    List<SoldCheck> checkSold(@Param("eventId") Long eventId, @Param("cancelled") ReservationStatus cancelled);
+
+    // Solo corrige si sold no cambió desde el chequeo
+    @Transactional
+    @Modifying
+    @Query("UPDATE TicketOption t SET t.sold = :reserved WHERE t.id = :id AND t.sold = :sold")
+    int repairSold(@Param("id") Long id, @Param("sold") int sold, @Param("reserved") int reserved);
+
+    interface SoldCheck {
+        Long getTicketOptionId();
+        Integer getSold();
+        Long getReserved();
+    }
+}
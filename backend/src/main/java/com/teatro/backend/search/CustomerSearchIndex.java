@@ -0,0 +1,362 @@
+package com.teatro.backend.search;
+
+import com.teatro.backend.models.entities.Customer;
+import com.teatro.backend.repositories.CustomerRepository;
+import com.teatro.backend.repositories.CustomerRepository.SearchRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Índice de trigramas en memoria sobre nombre, apellido y email de los clientes activos.
+// Cada cliente tiene un número interno (ordinal) que solo crece: los cambios agregan uno nuevo y dejan el viejo
+// vacío, así las listas de cada trigrama quedan siempre ordenadas y se intersectan con búsqueda binaria.
+// Cuando los vacíos pasan la mitad se compacta todo en memoria, sin volver a la base.
+// Las palabras se indexan con dos espacios adelante y uno atrás ("  a", " an", "ana", "na "): con una o dos letras
+// se busca por comienzo de palabra; desde tres, por cualquier parte. Los trigramas solo eligen candidatos: el texto
+// se verifica siempre.
+@Slf4j
+@Component
+public class CustomerSearchIndex {
+
+    private static final int LOAD_WINDOW = 5000;
+    private static final int MAX_TOKENS = 8;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    private final CustomerRepository customerRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+    private long[] ids = new long[1024];
+    // " juan perez juan perez example com ": null si el ordinal quedó vacío
+    private String[] texts = new String[1024];
+    private int size;
+    private int removed;
+
+    public CustomerSearchIndex(CustomerRepository customerRepository) {
+        this.customerRepository = customerRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Long afterId = 0L;
+        while (true) {
+            List<SearchRow> window = customerRepository.findSearchRowsAfter(afterId, Limit.of(LOAD_WINDOW));
+            lock.writeLock().lock();
+            try {
+                for (SearchRow row : window) {
+                    put(row.getId(), text(row.getFirstName(), row.getLastName(), row.getEmail()));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (window.size() < LOAD_WINDOW) {
+                break;
+            }
+            afterId = window.get(window.size() - 1).getId();
+        }
+        log.info("Customer search index built with {} customers", size());
+    }
+
+    // Alta, edición o baja: dentro de una transacción se aplica recién cuando confirma
+    public void refresh(Customer customer) {
+        Long id = customer.getId();
+        String text = Boolean.TRUE.equals(customer.getActive())
+                ? text(customer.getFirstName(), customer.getLastName(), customer.getEmail())
+                : null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(id, text);
+                }
+            });
+            return;
+        }
+        apply(id, text);
+    }
+
+    // Ids de los mejores resultados: más puntaje primero y, a igual puntaje, el que está hace más tiempo en el índice.
+    // Los candidatos salen en ese mismo orden, así que con limit resultados del mejor puntaje posible se corta.
+    public List<Long> search(String query, int limit) {
+        List<String> tokens = tokens(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> keys = new LinkedHashSet<>();
+        for (String token : tokens) {
+            if (token.length() < 3) {
+                keys.add(key(("  " + token).substring(token.length() - 1, token.length() + 2)));
+            } else {
+                keys.addAll(trigrams(token));
+            }
+        }
+        Term[] terms = new Term[tokens.size()];
+        for (int i = 0; i < terms.length; i++) {
+            terms[i] = new Term(tokens.get(i));
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>(keys.size());
+            for (Long key : keys) {
+                Postings list = postings.get(key);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            int bestPossible = 0;
+            for (Term term : terms) {
+                bestPossible += bestPossible(term);
+            }
+
+            PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, Hit.WORST_FIRST);
+            int perfect = 0;
+            Postings smallest = lists.get(0);
+            candidates:
+            for (int i = 0; i < smallest.size && perfect < limit; i++) {
+                int ordinal = smallest.ordinals[i];
+                for (int j = 1; j < lists.size(); j++) {
+                    if (!lists.get(j).contains(ordinal)) {
+                        continue candidates;
+                    }
+                }
+                String text = texts[ordinal];
+                int score = text == null ? -1 : score(text, terms);
+                if (score < 0) {
+                    continue;
+                }
+                best.add(new Hit(ids[ordinal], score, ordinal));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+                if (score == bestPossible) {
+                    perfect++;
+                }
+            }
+
+            Long[] result = new Long[best.size()];
+            for (int i = result.length - 1; i >= 0; i--) {
+                result[i] = best.poll().id;
+            }
+            return Arrays.asList(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Long id, String text) {
+        lock.writeLock().lock();
+        try {
+            if (text == null) {
+                remove(id);
+            } else {
+                put(id, text);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Long id, String text) {
+        Integer current = ordinalById.get(id);
+        if (current != null && text.equals(texts[current])) {
+            return;
+        }
+        remove(id);
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            texts = Arrays.copyOf(texts, size * 2);
+        }
+        int ordinal = size++;
+        ids[ordinal] = id;
+        texts[ordinal] = text;
+        ordinalById.put(id, ordinal);
+        addPostings(ordinal, text);
+    }
+
+    private void remove(Long id) {
+        Integer ordinal = ordinalById.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        texts[ordinal] = null;
+        removed++;
+        if (removed > 1024 && removed > size / 2) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        long[] liveIds = new long[Math.max(1024, ordinalById.size() * 2)];
+        String[] liveTexts = new String[liveIds.length];
+        int live = 0;
+        for (int i = 0; i < size; i++) {
+            if (texts[i] != null) {
+                liveIds[live] = ids[i];
+                liveTexts[live] = texts[i];
+                live++;
+            }
+        }
+        clear();
+        ids = liveIds;
+        texts = liveTexts;
+        for (int ordinal = 0; ordinal < live; ordinal++) {
+            ordinalById.put(ids[ordinal], ordinal);
+            addPostings(ordinal, texts[ordinal]);
+        }
+        size = live;
+    }
+
+    private void clear() {
+        postings.clear();
+        ordinalById.clear();
+        ids = new long[1024];
+        texts = new String[1024];
+        size = 0;
+        removed = 0;
+    }
+
+    private void addPostings(int ordinal, String text) {
+        Set<Long> keys = new LinkedHashSet<>();
+        for (String word : text.trim().split(" ")) {
+            keys.addAll(trigrams("  " + word + " "));
+        }
+        for (Long key : keys) {
+            postings.computeIfAbsent(key, k -> new Postings()).add(ordinal);
+        }
+    }
+
+    // -1 si algún término no está; cada término suma 3 si es una palabra entera, 2 si es su comienzo y 1 si está en el medio
+    private static int score(String text, Term[] terms) {
+        int score = 0;
+        for (Term term : terms) {
+            if (text.contains(term.word)) {
+                score += 3;
+            } else if (text.contains(term.prefix)) {
+                score += 2;
+            } else if (term.token.length() >= 3 && text.contains(term.token)) {
+                score += 1;
+            } else {
+                return -1;
+            }
+        }
+        return score;
+    }
+
+    // Cota por término según los trigramas que existen: sin "  ana " en el índice nadie tiene la palabra "ana"
+    private int bestPossible(Term term) {
+        if (postings.keySet().containsAll(trigrams("  " + term.token + " "))) {
+            return 3;
+        }
+        if (postings.keySet().containsAll(trigrams("  " + term.token))) {
+            return 2;
+        }
+        return 1;
+    }
+
+    static List<String> tokens(String query) {
+        if (query == null) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : normalize(query).trim().split(" ")) {
+            if (!token.isEmpty() && !tokens.contains(token) && tokens.size() < MAX_TOKENS) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // Minúsculas, sin acentos y con cualquier separador (espacios, @, puntos) como un solo espacio
+    static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        String plain = MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+        return SEPARATORS.matcher(plain).replaceAll(" ");
+    }
+
+    private static String text(String firstName, String lastName, String email) {
+        String joined = normalize((firstName == null ? "" : firstName) + " " + (lastName == null ? "" : lastName)
+                + " " + (email == null ? "" : email)).trim();
+        return " " + joined.replaceAll(" +", " ") + " ";
+    }
+
+    private static List<Long> trigrams(String value) {
+        List<Long> keys = new ArrayList<>(Math.max(0, value.length() - 2));
+        for (int i = 0; i + 3 <= value.length(); i++) {
+            keys.add(key(value.substring(i, i + 3)));
+        }
+        return keys;
+    }
+
+    private static long key(String trigram) {
+        return ((long) trigram.charAt(0) << 32) | ((long) trigram.charAt(1) << 16) | trigram.charAt(2);
+    }
+
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private int size;
+
+        // los ordinales se agregan siempre en orden creciente
+        private void add(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+
+        private boolean contains(int ordinal) {
+            return Arrays.binarySearch(ordinals, 0, size, ordinal) >= 0;
+        }
+    }
+
+    // El término ya armado para comparar contra el texto sin concatenar en cada candidato
+    private record Term(String token, String prefix, String word) {
+        private Term(String token) {
+            this(token, " " + token, " " + token + " ");
+        }
+    }
+
+    private record Hit(long id, int score, int ordinal) {
+        // la raíz de la cola es el peor de los que quedan: menos puntaje y, a igual puntaje, el ordinal más nuevo
+        private static final Comparator<Hit> WORST_FIRST = Comparator.comparingInt(Hit::score)
+                .thenComparing(Comparator.comparingInt(Hit::ordinal).reversed());
+    }
+}
@@ -1,5 +1,6 @@
 package com.teatro.backend.services;
 
+import com.teatro.backend.mappers.FieldSet;
 import com.teatro.backend.models.dtos.CustomerDTO;
 
 import java.util.List;
@@ -7,9 +8,11 @@ import java.util.List;
 public interface CustomerService {
 
     List<CustomerDTO> getAllCustomers();
+    List<CustomerDTO> getAllCustomers(FieldSet<CustomerDTO> fields);
     CustomerDTO getCustomerById(Long id);
     CustomerDTO createCustomer(CustomerDTO customerDTO);
     CustomerDTO updateCustomer(Long id, CustomerDTO customerDTO);
     void deleteCustomer(Long id);
     List<CustomerDTO> getCustomersWithFreePass();
+    List<CustomerDTO> searchCustomers(String query, int limit);
 }
@@ -1,15 +1,20 @@
 package com.teatro.backend.services;
 
+import com.teatro.backend.mappers.FieldSet;
+import com.teatro.backend.models.dtos.EventAvailabilityDTO;
 import com.teatro.backend.models.dtos.EventDTO;
+import com.teatro.backend.models.dtos.EventPageDTO;
 import com.teatro.backend.models.enums.EventStatus;
 
 import java.util.List;
 
 public interface EventService {
     List<EventDTO> getAllEvents();
+    List<EventDTO> getAllEvents(FieldSet<EventDTO> fields);
     EventDTO getEventById(Long id);
     EventDTO createEvent(EventDTO eventDTO);
     EventDTO updateEvent(Long id, EventDTO eventDTO);
-    List<EventDTO> getScheduledEvents();
+    EventPageDTO getUpcomingEvents(String cursor, int limit);
     EventDTO updateEventStatus(Long id, EventStatus status);
+    List<EventAvailabilityDTO> getAvailability(List<Long> eventIds);
 }
@@ -1,17 +1,24 @@
 package com.teatro.backend.services;
 
+import com.teatro.backend.mappers.FieldSet;
+import com.teatro.backend.models.dtos.BulkReservationResultDTO;
 import com.teatro.backend.models.dtos.CreateReservationRequest;
 import com.teatro.backend.models.dtos.ReservationDTO;
+import com.teatro.backend.models.dtos.ReservationFilter;
+import com.teatro.backend.models.dtos.ReservationPageDTO;
 
 import java.util.List;
 import java.util.Map;
 
 public interface ReservationService {
-    List<ReservationDTO> getAllReservations();
+    ReservationPageDTO getReservations(ReservationFilter filter, String cursor, int limit);
+    ReservationPageDTO getReservations(ReservationFilter filter, String cursor, int limit, FieldSet<ReservationDTO> fields);
     ReservationDTO getReservationById(Long id);
     ReservationDTO createReservation(CreateReservationRequest request);
+    List<BulkReservationResultDTO> createReservations(List<CreateReservationRequest> requests);
     List<ReservationDTO> getReservationsByCustomer(Long customerId);
     void deleteReservation(Long id);
     ReservationDTO updateReservation(Long id, ReservationDTO dto);
     ReservationDTO updateReservationStatus(Long id, Map<String, Object> updates);
+    int expireHolds(List<Long> reservationIds);
 }
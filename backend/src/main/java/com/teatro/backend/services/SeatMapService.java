@@ -0,0 +1,10 @@
+package com.teatro.backend.services;
+
+import com.teatro.backend.models.dtos.BestAvailableSeatsDTO;
+import com.teatro.backend.models.dtos.SeatMapDTO;
+
+public interface SeatMapService {
+    SeatMapDTO createSeatMap(Long ticketOptionId, SeatMapDTO seatMapDTO);
+    SeatMapDTO getSeatMap(Long ticketOptionId);
+    BestAvailableSeatsDTO findBestAvailable(Long ticketOptionId, int quantity);
+}
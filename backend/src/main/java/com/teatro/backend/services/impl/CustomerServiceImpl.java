@@ -1,48 +1,88 @@
 package com.teatro.backend.services.impl;
 
 import com.teatro.backend.exceptions.ResourceNotFoundException;
+import com.teatro.backend.mappers.CustomerMapper;
+import com.teatro.backend.mappers.FieldSet;
 import com.teatro.backend.models.dtos.CustomerDTO;
 import com.teatro.backend.models.entities.Customer;
 import com.teatro.backend.repositories.CustomerRepository;
+import com.teatro.backend.search.CustomerSearchIndex;
 import com.teatro.backend.services.CustomerService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CustomerServiceImpl implements CustomerService {
 
+    private static final int MAX_SEARCH_RESULTS = 50;
+
     private final CustomerRepository customerRepository;
-    private final ModelMapper modelMapper;
+    private final CustomerMapper customerMapper;
+    private final CustomerSearchIndex customerSearchIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
     public List<CustomerDTO> getAllCustomers() {
         return customerRepository.findByActiveTrue().stream()
-                .map(customer -> modelMapper.map(customer, CustomerDTO.class))
+                .map(customerMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
+    // Con ?fields= parcial el SELECT trae solo esas columnas y arma el DTO directo; las demás van como NULL
+    // para poder usar el constructor completo
+    @Override
+    @Transactional(readOnly = true)
+    public List<CustomerDTO> getAllCustomers(FieldSet<CustomerDTO> fields) {
+        if (fields.isAll()) {
+            return getAllCustomers();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CustomerDTO> query = cb.createQuery(CustomerDTO.class);
+        Root<Customer> customer = query.from(Customer.class);
+        List<Selection<?>> columns = new ArrayList<>();
+        for (String field : CustomerMapper.FIELDS.keySet()) {
+            Path<?> column = customer.get(field);
+            columns.add(fields.includes(field) ? column : cb.nullLiteral(column.getJavaType()));
+        }
+        query.select(cb.construct(CustomerDTO.class, columns.toArray(Selection[]::new)))
+                .where(cb.isTrue(customer.get("active")));
+        return entityManager.createQuery(query).getResultList();
+    }
+
     @Override
     public CustomerDTO getCustomerById(Long id) {
         Customer customer = customerRepository.findByIdAndActiveTrue(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found or inactive with id: " + id));
-        return modelMapper.map(customer, CustomerDTO.class);
+        return customerMapper.toDTO(customer);
     }
 
     @Override
     @Transactional
     public CustomerDTO createCustomer(CustomerDTO dto) {
-        Customer c = modelMapper.map(dto, Customer.class);
+        Customer c = customerMapper.toNewEntity(dto);
         c.setLoyaltyFree(false);
         c.setActive(true);
         Customer saved = customerRepository.save(c);
-        return modelMapper.map(saved, CustomerDTO.class);
+        customerSearchIndex.refresh(saved);
+        return customerMapper.toDTO(saved);
     }
 
     @Override
@@ -56,7 +96,8 @@ public class CustomerServiceImpl implements CustomerService {
         customer.setEmail(customerDTO.getEmail());
 
         Customer updatedCustomer = customerRepository.save(customer);
-        return modelMapper.map(updatedCustomer, CustomerDTO.class);
+        customerSearchIndex.refresh(updatedCustomer);
+        return customerMapper.toDTO(updatedCustomer);
     }
 
     @Override
@@ -66,14 +107,36 @@ public class CustomerServiceImpl implements CustomerService {
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found or already inactive with id: " + id));
         customer.setActive(false);
         customerRepository.save(customer);
+        customerSearchIndex.refresh(customer);
     }
 
     @Override
     public List<CustomerDTO> getCustomersWithFreePass() {
         return customerRepository.findByLoyaltyFreeTrue().stream()
                 .filter(Customer::getActive)
-                .map(customer -> modelMapper.map(customer, CustomerDTO.class))
+                .map(customerMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
+    // El índice decide qué clientes y en qué orden; de la base solo se leen esos pocos por id
+    @Override
+    public List<CustomerDTO> searchCustomers(String query, int limit) {
+        if (limit < 1) {
+            throw new IllegalStateException("Limit must be at least 1");
+        }
+        List<Long> ids = customerSearchIndex.search(query, Math.min(limit, MAX_SEARCH_RESULTS));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Customer> byId = new HashMap<>();
+        customerRepository.findAllById(ids).forEach(customer -> byId.put(customer.getId(), customer));
+        List<CustomerDTO> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Customer customer = byId.get(id);
+            if (customer != null && Boolean.TRUE.equals(customer.getActive())) {
+                result.add(customerMapper.toDTO(customer));
+            }
+        }
+        return result;
+    }
 }
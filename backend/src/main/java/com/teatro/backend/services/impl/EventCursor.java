@@ -0,0 +1,23 @@
+package com.teatro.backend.services.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Posición en el listado de próximos eventos: inicio e id del último evento devuelto
+record EventCursor(LocalDateTime startDateTime, Long id) {
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((startDateTime + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static EventCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            return new EventCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package com.teatro.backend.services.impl;
 
+import com.teatro.backend.catalog.EventCatalog;
 import com.teatro.backend.exceptions.ResourceNotFoundException;
+import com.teatro.backend.inventory.InventoryLedger;
+import com.teatro.backend.inventory.SeatInventory;
+import com.teatro.backend.mappers.EventMapper;
+import com.teatro.backend.mappers.FieldSet;
+import com.teatro.backend.models.dtos.EventAvailabilityDTO;
 import com.teatro.backend.models.dtos.EventDTO;
+import com.teatro.backend.models.dtos.EventPageDTO;
 import com.teatro.backend.models.dtos.TicketOptionDTO;
 import com.teatro.backend.models.entities.Event;
 import com.teatro.backend.models.entities.TicketOption;
@@ -10,33 +17,46 @@ import com.teatro.backend.repositories.EventRepository;
 import com.teatro.backend.services.EventService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class EventServiceImpl implements EventService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final EventRepository eventRepository;
-    private final ModelMapper modelMapper;
+    private final InventoryLedger inventoryLedger;
+    private final SeatInventory seatInventory;
+    private final EventMapper eventMapper;
+    private final EventCatalog eventCatalog;
 
+    // Las lecturas salen del catálogo: con el catálogo cargado no van a la base ni abren transacción
     @Override
     public List<EventDTO> getAllEvents() {
-        return eventRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return getAllEvents(FieldSet.all(EventMapper.FIELDS));
+    }
+
+    // Los vendidos y disponibles del ledger solo hacen falta si se piden las ticket options
+    @Override
+    public List<EventDTO> getAllEvents(FieldSet<EventDTO> fields) {
+        List<EventDTO> events = eventCatalog.all();
+        if (fields.includes("ticketOptions")) {
+            events.forEach(this::withAvailability);
+        }
+        return events;
     }
 
 
     @Override
     public EventDTO getEventById(Long id) {
-        Event event = eventRepository.findById(id)
+        return eventCatalog.find(id)
+                .map(this::withAvailability)
                 .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + id));
-        return convertToDTO(event);
     }
 
 
@@ -64,7 +84,9 @@ public class EventServiceImpl implements EventService {
         }
 
         Event savedEvent = eventRepository.save(event);
-        return convertToDTO(savedEvent);
+        savedEvent.getTicketOptions().forEach(inventoryLedger::track);
+        eventCatalog.invalidate(savedEvent.getId());
+        return convertSavedToDTO(savedEvent);
     }
 
     @Override
@@ -93,13 +115,18 @@ public class EventServiceImpl implements EventService {
                         .ifPresent(ticket -> {
                             ticket.setName(ticketDTO.getName());
                             ticket.setPrice(ticketDTO.getPrice());
-                            ticket.setCapacity(ticketDTO.getCapacity());
+                            // en las opciones con plano de butacas la capacidad la define el plano
+                            if (!seatInventory.hasSeatMap(ticket.getId())) {
+                                ticket.setCapacity(ticketDTO.getCapacity());
+                            }
                         });
             }
         }
 
         Event updatedEvent = eventRepository.save(event);
-        return convertToDTO(updatedEvent);
+        updatedEvent.getTicketOptions().forEach(inventoryLedger::track);
+        eventCatalog.invalidate(id);
+        return convertSavedToDTO(updatedEvent);
     }
 
     @Override
@@ -110,35 +137,72 @@ public class EventServiceImpl implements EventService {
 
         event.setStatus(status);
         Event updatedEvent = eventRepository.save(event);
-
-        return modelMapper.map(updatedEvent, EventDTO.class);
+        eventCatalog.invalidate(id);
+        return convertToDTO(updatedEvent);
     }
 
 
 
+    // Programados que todavía no empezaron, por fecha de inicio y de a una página
     @Override
-    public List<EventDTO> getScheduledEvents() {
+    public EventPageDTO getUpcomingEvents(String cursor, int limit) {
+        if (limit < 1) {
+            throw new IllegalStateException("Limit must be at least 1");
+        }
+        int size = Math.min(limit, MAX_PAGE_SIZE);
         LocalDateTime now = LocalDateTime.now();
-        return eventRepository.findByStatus(EventStatus.SCHEDULED).stream()
-                .filter(event -> event.getStartDateTime().isAfter(now))
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        EventCursor position = cursor == null || cursor.isBlank() ? null : EventCursor.decode(cursor);
+        // un cursor viejo puede apuntar a eventos que ya empezaron: se sigue desde ahora
+        if (position == null || position.startDateTime().isBefore(now)) {
+            position = new EventCursor(now, Long.MAX_VALUE);
+        }
+
+        List<EventDTO> events = eventCatalog.upcoming(position.startDateTime(), position.id(), size + 1);
+        events.forEach(this::withAvailability);
+        if (events.size() <= size) {
+            return new EventPageDTO(events, null);
+        }
+        EventDTO last = events.get(size - 1);
+        return new EventPageDTO(events.subList(0, size),
+                new EventCursor(last.getStartDateTime(), last.getId()).encode());
+    }
+
+    // Solo los contadores del ledger: no pasa por el catálogo ni por la base. Un id desconocido vuelve sin opciones.
+    @Override
+    public List<EventAvailabilityDTO> getAvailability(List<Long> eventIds) {
+        if (eventIds.size() > MAX_PAGE_SIZE) {
+            throw new IllegalStateException("At most " + MAX_PAGE_SIZE + " events per request");
+        }
+        List<EventAvailabilityDTO> result = new ArrayList<>(eventIds.size());
+        for (Long eventId : eventIds) {
+            result.add(new EventAvailabilityDTO(eventId, inventoryLedger.availability(eventId)));
+        }
+        return result;
     }
 
-    // Usé convertToDTO() en lugar de modelMapper.map() porque el DTO incluye
-    // campos calculados, como la disponibilidad de entradas que no existen en la entidad.
     private EventDTO convertToDTO(Event event) {
-        EventDTO dto = modelMapper.map(event, EventDTO.class);
-
-        if (event.getTicketOptions() != null) {
-            List<TicketOptionDTO> ticketDTOs = event.getTicketOptions().stream()
-                    .map(ticket -> {
-                        TicketOptionDTO ticketDTO = modelMapper.map(ticket, TicketOptionDTO.class);
-                        ticketDTO.setAvailable(ticket.getCapacity() - ticket.getSold());
-                        return ticketDTO;
-                    })
-                    .collect(Collectors.toList());
-            dto.setTicketOptions(ticketDTOs);
+        return withAvailability(eventMapper.toDTO(event));
+    }
+
+    // Alta o edición: el ledger recibe las opciones recién al confirmar, así que la disponibilidad sale de las filas
+    private EventDTO convertSavedToDTO(Event event) {
+        EventDTO dto = eventMapper.toDTO(event);
+        if (dto.getTicketOptions() != null) {
+            for (TicketOptionDTO ticketDTO : dto.getTicketOptions()) {
+                int sold = ticketDTO.getSold() == null ? 0 : ticketDTO.getSold();
+                ticketDTO.setAvailable(ticketDTO.getCapacity() - sold);
+            }
+        }
+        return dto;
+    }
+
+    // El DTO incluye campos calculados, como la disponibilidad de entradas, que no existen en la entidad
+    private EventDTO withAvailability(EventDTO dto) {
+        if (dto.getTicketOptions() != null) {
+            for (TicketOptionDTO ticketDTO : dto.getTicketOptions()) {
+                ticketDTO.setSold(inventoryLedger.sold(ticketDTO.getId()));
+                ticketDTO.setAvailable(inventoryLedger.remaining(ticketDTO.getId()));
+            }
         }
 
         return dto;
@@ -0,0 +1,24 @@
+package com.teatro.backend.services.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Posición en el listado de reservas: createdAt e id de la última fila devuelta.
+// Viaja como texto opaco en base64 url-safe para que el cliente no lo arme a mano.
+record ReservationCursor(LocalDateTime createdAt, Long id) {
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ReservationCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            return new ReservationCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -1,20 +1,35 @@
 package com.teatro.backend.services.impl;
 
 import com.teatro.backend.exceptions.ResourceNotFoundException;
+import com.teatro.backend.exceptions.SeatUnavailableException;
+import com.teatro.backend.inventory.InventoryDelta;
+import com.teatro.backend.inventory.InventoryLedger;
+import com.teatro.backend.inventory.InventoryReconciler;
+import com.teatro.backend.inventory.ReservationHoldScheduler;
+import com.teatro.backend.inventory.SeatInventory;
+import com.teatro.backend.mappers.FieldSet;
+import com.teatro.backend.mappers.ReservationMapper;
+import com.teatro.backend.models.dtos.BulkReservationResultDTO;
 import com.teatro.backend.models.dtos.CreateReservationRequest;
 import com.teatro.backend.models.dtos.ReservationDTO;
+import com.teatro.backend.models.dtos.ReservationFilter;
 import com.teatro.backend.models.dtos.ReservationItemDTO;
 import com.teatro.backend.models.dtos.ReservationItemRequest;
+import com.teatro.backend.models.dtos.ReservationPageDTO;
 import com.teatro.backend.models.entities.*;
 import com.teatro.backend.models.enums.ReservationStatus;
 import com.teatro.backend.repositories.CustomerRepository;
 import com.teatro.backend.repositories.EventRepository;
 import com.teatro.backend.repositories.ReservationRepository;
+import com.teatro.backend.repositories.ReservationSpecifications;
 import com.teatro.backend.repositories.TicketOptionRepository;
 import com.teatro.backend.services.ReservationService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.query.FluentQuery.FetchableFluentQuery;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,33 +37,81 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 @Service
 @RequiredArgsConstructor
 public class ReservationServiceImpl implements ReservationService {
 
+    private static final int MAX_BULK_SIZE = 1000;
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final ReservationRepository reservationRepository;
     private final CustomerRepository customerRepository;
     private final EventRepository eventRepository;
     private final TicketOptionRepository ticketOptionRepository;
-    private final ModelMapper modelMapper;
+    private final InventoryLedger inventoryLedger;
+    private final ReservationHoldScheduler holdScheduler;
+    private final InventoryReconciler inventoryReconciler;
+    private final SeatInventory seatInventory;
+    private final ReservationMapper reservationMapper;
+
+    // Una página por keyset sobre (createdAt, id) con los filtros en el WHERE: se leen limit + 1 filas
+    // para saber si hay otra página, sin COUNT ni OFFSET, así el costo no depende del tamaño de la tabla
+    @Override
+    @Transactional(readOnly = true)
+    public ReservationPageDTO getReservations(ReservationFilter filter, String cursor, int limit) {
+        return getReservations(filter, cursor, limit, FieldSet.all(ReservationMapper.FIELDS));
+    }
 
+    // Con ?fields= parcial el join con cliente y evento solo se hace si se piden sus nombres,
+    // y la consulta de ítems solo si se piden los ítems
     @Override
-    public List<ReservationDTO> getAllReservations() {
-        return reservationRepository.findAll().stream()
-                .filter(Reservation::getActive)
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public ReservationPageDTO getReservations(ReservationFilter filter, String cursor, int limit, FieldSet<ReservationDTO> fields) {
+        if (limit < 1) {
+            throw new IllegalStateException("Limit must be at least 1");
+        }
+        int size = Math.min(limit, MAX_PAGE_SIZE);
+        ReservationCursor position = cursor == null || cursor.isBlank() ? null : ReservationCursor.decode(cursor);
+
+        Specification<Reservation> where = ReservationSpecifications.matching(filter)
+                .and(position == null ? null : ReservationSpecifications.after(position.createdAt(), position.id()));
+
+        boolean withParties = fields.includes("customerName") || fields.includes("eventTitle");
+        List<Reservation> rows = reservationRepository.findBy(where, query -> {
+            FetchableFluentQuery<Reservation> page = query
+                    .sortBy(ReservationSpecifications.NEWEST_FIRST)
+                    .limit(size + 1);
+            return (withParties ? page.project("customer", "event") : page).all();
+        });
+        if (rows.size() <= size) {
+            return new ReservationPageDTO(toDTOs(rows, fields), null);
+        }
+        Reservation last = rows.get(size - 1);
+        return new ReservationPageDTO(toDTOs(rows.subList(0, size), fields),
+                new ReservationCursor(last.getCreatedAt(), last.getId()).encode());
     }
 
 
     @Override
+    @Transactional(readOnly = true)
     public ReservationDTO getReservationById(Long id) {
-        Reservation reservation = reservationRepository.findByIdAndActiveTrue(id)
+        Reservation reservation = reservationRepository.findWithCustomerAndEventByIdAndActiveTrue(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Reservation not found with id: " + id));
-        return convertToDTO(reservation);
+        return toDTOs(List.of(reservation)).get(0);
     }
 
 
@@ -63,87 +126,107 @@ public class ReservationServiceImpl implements ReservationService {
                 .orElseThrow(() -> new ResourceNotFoundException("Event not found with id: " + request.getEventId()));
 
 
-        Reservation reservation = new Reservation();
-        reservation.setCustomer(customer);
-        reservation.setEvent(event);
-        reservation.setAttendeeName(request.getAttendeeName());
-        reservation.setAttendedBy(request.getAttendedBy());
-        reservation.setCreatedByAdmin(true);
-        reservation.setLoyaltyFree(customer.getLoyaltyFree());
-        reservation.setStatus(ReservationStatus.PENDING);
-        reservation.setActive(true);
-
-        List<ReservationItem> items = new ArrayList<>();
-        boolean freeUsed = false;
+        Reservation reservation = newReservation(customer, event, request);
 
+        Map<Long, TicketOption> ticketOptions = loadTicketOptions(request.getEventId(),
+                request.getItems().stream().map(ReservationItemRequest::getTicketOptionId).toList());
+        List<ReservationItemRequest> items = assignBestAvailable(request.getItems(), ticketOptions);
+        Map<Long, Set<String>> seats = new HashMap<>();
+        items.forEach(item -> validateSeats(ticketOptions.get(item.getTicketOptionId()),
+                item.getQuantity(), item.getSeats(), seats));
 
-        for (ReservationItemRequest itemRequest : request.getItems()) {
-            TicketOption ticketOption = ticketOptionRepository.findById(itemRequest.getTicketOptionId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Ticket option not found"));
-
-            if (!ticketOption.isReservable(itemRequest.getQuantity())) {
-                throw new IllegalStateException("Not enough tickets available for " + ticketOption.getName());
+        reservation.setItems(buildItems(reservation, customer, items, ticketOptions));
+        try {
+            applyDelta(InventoryDelta.heldBy(reservation), List.of(reservation));
+        } catch (SeatUnavailableException e) {
+            // otra reserva tomó el bloque sugerido entre la búsqueda y el claim: el reintento vuelve a buscar
+            if (items != request.getItems()) {
+                throw new OptimisticLockingFailureException(e.getMessage(), e);
             }
+            throw e;
+        }
 
-            // Reservar las entradas (reduce capacidad disponible)
-            ticketOption.reserve(itemRequest.getQuantity());
-            ticketOptionRepository.save(ticketOption);
+        customerRepository.save(customer);
+        reservation.calculateTotal();
+        Reservation saved = reservationRepository.save(reservation);
+        if (saved.getHoldExpiresAt() != null) {
+            holdScheduler.schedule(saved.getId(), saved.getHoldExpiresAt());
+        }
 
-            ReservationItem item = new ReservationItem();
-            item.setReservation(reservation);
-            item.setTicketOption(ticketOption);
+        return reservationMapper.toDTO(saved);
+    }
 
 
-            if (customer.getLoyaltyFree() && !freeUsed) {
 
-                int totalQty = itemRequest.getQuantity();
+    // Todas las reservas del lote se validan en una sola pasada contra la disponibilidad;
+    // las que no entran se informan en su resultado y no frenan al resto
+    @Override
+    @Transactional
+    public List<BulkReservationResultDTO> createReservations(List<CreateReservationRequest> requests) {
+        if (requests.size() > MAX_BULK_SIZE) {
+            throw new IllegalStateException("A bulk request accepts at most " + MAX_BULK_SIZE + " reservations");
+        }
 
-                // compró solo 1 entrada
-                if (totalQty == 1) {
-                    item.setQuantity(1);
-                    item.setUnitPrice(BigDecimal.ZERO);
-                    items.add(item);
+        Map<Long, Customer> customers = customerRepository.findAllById(
+                        idsOf(requests.stream().map(CreateReservationRequest::getCustomerId))).stream()
+                .filter(Customer::getActive)
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+        Map<Long, Event> events = eventRepository.findAllById(
+                        idsOf(requests.stream().map(CreateReservationRequest::getEventId))).stream()
+                .collect(Collectors.toMap(Event::getId, Function.identity()));
+        Map<Long, TicketOption> ticketOptions = ticketOptionRepository.findAllById(
+                        idsOf(requests.stream()
+                                .filter(request -> request.getItems() != null)
+                                .flatMap(request -> request.getItems().stream())
+                                .map(ReservationItemRequest::getTicketOptionId))).stream()
+                .collect(Collectors.toMap(TicketOption::getId, Function.identity()));
+
+        BulkReservationResultDTO[] results = new BulkReservationResultDTO[requests.size()];
+        Map<Long, Integer> remaining = new HashMap<>();
+        Map<Long, Integer> accepted = new TreeMap<>();
+        Map<Integer, Reservation> reservations = new LinkedHashMap<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            CreateReservationRequest request = requests.get(i);
+            BulkReservationResultDTO rejection = validateBulkRequest(i, request, customers, events, ticketOptions);
+            if (rejection == null) {
+                Map<Long, Integer> quantities = quantitiesByTicketOption(request.getItems());
+                String error = allocate(quantities, ticketOptions, remaining);
+                if (error == null) {
+                    quantities.forEach((ticketOptionId, quantity) -> accepted.merge(ticketOptionId, quantity, Integer::sum));
+                    Customer customer = customers.get(request.getCustomerId());
+                    Reservation reservation = newReservation(customer, events.get(request.getEventId()), request);
+                    reservation.setItems(buildItems(reservation, customer, request.getItems(), ticketOptions));
+                    reservation.calculateTotal();
+                    reservations.put(i, reservation);
+                    continue;
                 }
-
-                // compró varias → 1 gratis + (n-1) pagas
-                else {
-                    // Ítem gratis
-                    ReservationItem freeItem = new ReservationItem();
-                    freeItem.setReservation(reservation);
-                    freeItem.setTicketOption(ticketOption);
-                    freeItem.setQuantity(1);
-                    freeItem.setUnitPrice(BigDecimal.ZERO);
-                    items.add(freeItem);
-
-                    // Ítem con precio normal (las restantes)
-                    item.setQuantity(totalQty - 1);
-                    item.setUnitPrice(ticketOption.getPrice());
-                    items.add(item);
-                }
-
-
-                freeUsed = true;
-                customer.setLoyaltyFree(false);
-            } else {
-
-                //  precio normal
-                item.setQuantity(itemRequest.getQuantity());
-                item.setUnitPrice(ticketOption.getPrice());
-                items.add(item);
+                rejection = BulkReservationResultDTO.rejected(i, error);
             }
+            results[i] = rejection;
         }
 
+        // Un UPDATE condicional por opción para todo el lote; si otra venta se metió en el medio,
+        // el lote entero se reintenta con la disponibilidad nueva
+        accepted.forEach((ticketOptionId, quantity) -> {
+            if (!inventoryLedger.tryReserve(ticketOptions.get(ticketOptionId), quantity)
+                    || ticketOptionRepository.reserveCapacity(ticketOptionId, quantity) == 0) {
+                throw new OptimisticLockingFailureException(
+                        "Availability of ticket option " + ticketOptionId + " changed while processing the bulk request");
+            }
+        });
 
-        customerRepository.save(customer);
-        reservation.setItems(items);
-        reservation.calculateTotal();
-        Reservation saved = reservationRepository.save(reservation);
-
-        return convertToDTO(saved);
+        reservationRepository.saveAll(reservations.values());
+        reservations.forEach((index, reservation) -> {
+            inventoryReconciler.markDirty(reservation.getEvent().getId());
+            if (reservation.getHoldExpiresAt() != null) {
+                holdScheduler.schedule(reservation.getId(), reservation.getHoldExpiresAt());
+            }
+            results[index] = BulkReservationResultDTO.created(index, reservationMapper.toDTO(reservation));
+        });
+        return Arrays.asList(results);
     }
 
-
-
     @Override
     @Transactional(readOnly = true)
     public List<ReservationDTO> getReservationsByCustomer(Long customerId) {
@@ -152,31 +235,27 @@ public class ReservationServiceImpl implements ReservationService {
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id: " + customerId));
 
 
-        List<Reservation> reservations = reservationRepository.findByCustomerId(customerId)
-                .stream()
-                .filter(Reservation::getActive)
-                .toList();
-
-        return reservations.stream()
-                .map(this::convertToDTO)
-                .toList();
+        return toDTOs(reservationRepository.findWithCustomerAndEventByCustomerIdAndActiveTrue(customerId));
     }
 
 
     @Override
     @Transactional
     public void deleteReservation(Long id) {
-        Reservation reservation = reservationRepository.findByIdAndActiveTrue(id)
+        Reservation reservation = reservationRepository.findForUpdate(id)
+                .filter(Reservation::getActive)
                 .orElseThrow(() -> new ResourceNotFoundException("Reservation not found with id: " + id));
 
+        InventoryDelta before = InventoryDelta.heldBy(reservation);
         reservation.setActive(false);
+        applyDelta(InventoryDelta.heldBy(reservation).minus(before), List.of(reservation));
         reservationRepository.save(reservation);
     }
 
     @Override
     @Transactional
     public ReservationDTO updateReservationStatus(Long id, Map<String, Object> updates) {
-        Reservation reservation = reservationRepository.findById(id)
+        Reservation reservation = reservationRepository.findForUpdate(id)
                 .orElseThrow(() -> new EntityNotFoundException("Reservation not found with id: " + id));
 
         if (reservation.getStatus() == ReservationStatus.PAID) {
@@ -197,28 +276,40 @@ public class ReservationServiceImpl implements ReservationService {
             throw new IllegalArgumentException("Invalid status value: " + newStatus);
         }
 
+        InventoryDelta before = InventoryDelta.heldBy(reservation);
+        boolean reopened = statusEnum == ReservationStatus.PENDING && reservation.getStatus() != ReservationStatus.PENDING;
         reservation.setStatus(statusEnum);
 
         if (statusEnum == ReservationStatus.PAID) {
             reservation.setPaidAt(LocalDateTime.now());
         } else if (statusEnum == ReservationStatus.CANCELLED) {
             reservation.setPaidAt(null);
+        } else if (reopened) {
+            // el plazo anterior probablemente ya pasó: la reserva reabierta arranca uno nuevo
+            reservation.setHoldExpiresAt(holdScheduler.holdExpiration(reservation.getEvent()));
         }
 
+        // cancelar devuelve las entradas; reabrir una cancelada las vuelve a tomar si hay lugar
+        applyDelta(InventoryDelta.heldBy(reservation).minus(before), List.of(reservation));
         reservationRepository.save(reservation);
-        return convertToDTO(reservation);
+        if (reopened) {
+            holdScheduler.schedule(reservation.getId(), reservation.getHoldExpiresAt());
+        }
+        return reservationMapper.toDTO(reservation);
     }
 
     @Override
     @Transactional
     public ReservationDTO updateReservation(Long id, ReservationDTO dto) {
-        Reservation reservation = reservationRepository.findById(id)
+        Reservation reservation = reservationRepository.findForUpdate(id)
                 .orElseThrow(() -> new EntityNotFoundException("Reservation not found with id: " + id));
 
         if (reservation.getStatus() == ReservationStatus.PAID) {
             throw new IllegalStateException("You cannot modify a reservation that is already paid");
         }
 
+        InventoryDelta before = InventoryDelta.heldBy(reservation);
+        Long previousEventId = reservation.getEvent().getId();
 
         reservation.setAttendeeName(dto.getAttendeeName());
         reservation.setCustomer(customerRepository.findById(dto.getCustomerId())
@@ -227,53 +318,334 @@ public class ReservationServiceImpl implements ReservationService {
                 .orElseThrow(() -> new EntityNotFoundException("Event not found")));
 
 
+        Map<Long, TicketOption> ticketOptions = loadTicketOptions(dto.getEventId(),
+                dto.getItems().stream().map(ReservationItemDTO::getTicketOptionId).toList());
+        Map<Long, Set<String>> seats = new HashMap<>();
+        dto.getItems().forEach(item -> validateSeats(ticketOptions.get(item.getTicketOptionId()),
+                item.getQuantity(), item.getSeats(), seats));
+
         reservation.getItems().clear();
         for (ReservationItemDTO itemDto : dto.getItems()) {
-            TicketOption option = ticketOptionRepository.findById(itemDto.getTicketOptionId())
-                    .orElseThrow(() -> new EntityNotFoundException("Ticket option not found"));
+            TicketOption option = ticketOptions.get(itemDto.getTicketOptionId());
             ReservationItem item = new ReservationItem();
             item.setReservation(reservation);
             item.setTicketOption(option);
             item.setQuantity(itemDto.getQuantity());
             item.setUnitPrice(option.getPrice());
+            item.setSeats(seatsOrEmpty(itemDto.getSeats()));
             reservation.getItems().add(item);
         }
+        // solo se descuenta o devuelve la diferencia entre los ítems viejos y los nuevos
+        applyDelta(InventoryDelta.heldBy(reservation).minus(before), List.of(reservation));
+        inventoryReconciler.markDirty(previousEventId);
         reservation.calculateTotal();
         reservationRepository.save(reservation);
-        return convertToDTO(reservation);
+        return reservationMapper.toDTO(reservation);
+    }
+
+
+
+
+    // Cancela en lote las reservas vencidas de la lista; las que ya se pagaron o cancelaron se ignoran.
+    // Solo se devuelven las entradas de las filas que el SELECT bloqueó todavía PENDING
+    @Override
+    @Transactional
+    public int expireHolds(List<Long> reservationIds) {
+        List<Reservation> expired = reservationRepository.findExpiredHolds(
+                reservationIds, ReservationStatus.PENDING, LocalDateTime.now());
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        // completa los ítems de las mismas instancias en un solo SELECT
+        reservationRepository.findWithItemsByIdIn(expired.stream().map(Reservation::getId).toList());
+
+        InventoryDelta released = new InventoryDelta();
+        for (Reservation reservation : expired) {
+            InventoryDelta before = InventoryDelta.heldBy(reservation);
+            reservation.setStatus(ReservationStatus.CANCELLED);
+            reservation.setPaidAt(null);
+            released.plus(InventoryDelta.heldBy(reservation).minus(before));
+        }
+        applyDelta(released, expired);
+        return expired.size();
     }
 
+    private Reservation newReservation(Customer customer, Event event, CreateReservationRequest request) {
+        Reservation reservation = new Reservation();
+        reservation.setCustomer(customer);
+        reservation.setEvent(event);
+        reservation.setAttendeeName(request.getAttendeeName());
+        reservation.setAttendedBy(request.getAttendedBy());
+        reservation.setCreatedByAdmin(true);
+        reservation.setLoyaltyFree(customer.getLoyaltyFree());
+        reservation.setStatus(ReservationStatus.PENDING);
+        reservation.setHoldExpiresAt(holdScheduler.holdExpiration(event));
+        reservation.setActive(true);
+        return reservation;
+    }
 
+    private List<ReservationItem> buildItems(Reservation reservation, Customer customer,
+                                             List<ReservationItemRequest> itemRequests,
+                                             Map<Long, TicketOption> ticketOptions) {
+        List<ReservationItem> items = new ArrayList<>();
+        boolean freeUsed = false;
 
 
-    private ReservationDTO convertToDTO(Reservation reservation) {
-        ReservationDTO dto = new ReservationDTO();
-        dto.setId(reservation.getId());
-        dto.setCustomerId(reservation.getCustomer().getId());
-        dto.setCustomerName(
-                reservation.getCustomer().getFirstName() + " " + reservation.getCustomer().getLastName()
-        );
-        dto.setEventId(reservation.getEvent().getId());
-        dto.setEventTitle(reservation.getEvent().getTitle());
-        dto.setStatus(reservation.getStatus());
-        dto.setLoyaltyFree(reservation.getLoyaltyFree());
-        dto.setTotal(reservation.getTotal());
-        dto.setCreatedAt(reservation.getCreatedAt());
-        dto.setPaidAt(reservation.getPaidAt());
-        dto.setAttendeeName(reservation.getAttendeeName());
-        dto.setAttendedBy(reservation.getAttendedBy());
-
-        List<ReservationItemDTO> itemDTOs = reservation.getItems().stream()
-                .map(item -> new ReservationItemDTO(
-                        item.getId(),
-                        item.getTicketOption().getId(),
-                        item.getTicketOption().getName(),
-                        item.getQuantity(),
-                        item.getUnitPrice()
-                ))
-                .collect(Collectors.toList());
-
-        dto.setItems(itemDTOs);
-        return dto;
+        for (ReservationItemRequest itemRequest : itemRequests) {
+            TicketOption ticketOption = ticketOptions.get(itemRequest.getTicketOptionId());
+
+            ReservationItem item = new ReservationItem();
+            item.setReservation(reservation);
+            item.setTicketOption(ticketOption);
+
+
+            if (customer.getLoyaltyFree() && !freeUsed) {
+
+                int totalQty = itemRequest.getQuantity();
+
+                List<String> seats = seatsOrEmpty(itemRequest.getSeats());
+
+                // compró solo 1 entrada
+                if (totalQty == 1) {
+                    item.setQuantity(1);
+                    item.setUnitPrice(BigDecimal.ZERO);
+                    item.setSeats(seats);
+                    items.add(item);
+                }
+
+                // compró varias → 1 gratis + (n-1) pagas
+                else {
+                    // Ítem gratis
+                    ReservationItem freeItem = new ReservationItem();
+                    freeItem.setReservation(reservation);
+                    freeItem.setTicketOption(ticketOption);
+                    freeItem.setQuantity(1);
+                    freeItem.setUnitPrice(BigDecimal.ZERO);
+                    freeItem.setSeats(seats.isEmpty() ? new ArrayList<>() : new ArrayList<>(seats.subList(0, 1)));
+                    items.add(freeItem);
+
+                    // Ítem con precio normal (las restantes)
+                    item.setQuantity(totalQty - 1);
+                    item.setUnitPrice(ticketOption.getPrice());
+                    item.setSeats(seats.isEmpty() ? new ArrayList<>() : new ArrayList<>(seats.subList(1, seats.size())));
+                    items.add(item);
+                }
+
+
+                freeUsed = true;
+                customer.setLoyaltyFree(false);
+            } else {
+
+                //  precio normal
+                item.setQuantity(itemRequest.getQuantity());
+                item.setUnitPrice(ticketOption.getPrice());
+                item.setSeats(seatsOrEmpty(itemRequest.getSeats()));
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    private Map<Long, Integer> quantitiesByTicketOption(List<ReservationItemRequest> itemRequests) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (ReservationItemRequest itemRequest : itemRequests) {
+            quantities.merge(itemRequest.getTicketOptionId(), itemRequest.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private Set<Long> idsOf(Stream<Long> ids) {
+        return ids.filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    // Mismos códigos que createReservation: lo que no existe es 404, el resto 400
+    private BulkReservationResultDTO validateBulkRequest(int index, CreateReservationRequest request,
+                                                         Map<Long, Customer> customers, Map<Long, Event> events,
+                                                         Map<Long, TicketOption> ticketOptions) {
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            return BulkReservationResultDTO.rejected(index, "At least one item is required");
+        }
+        if (!customers.containsKey(request.getCustomerId())) {
+            return BulkReservationResultDTO.rejected(index, HttpStatus.NOT_FOUND,
+                    "Customer not found with id: " + request.getCustomerId());
+        }
+        if (!events.containsKey(request.getEventId())) {
+            return BulkReservationResultDTO.rejected(index, HttpStatus.NOT_FOUND,
+                    "Event not found with id: " + request.getEventId());
+        }
+        for (ReservationItemRequest item : request.getItems()) {
+            if (item.getQuantity() == null || item.getQuantity() < 1) {
+                return BulkReservationResultDTO.rejected(index, "Quantity must be at least 1");
+            }
+            TicketOption option = ticketOptions.get(item.getTicketOptionId());
+            if (option == null) {
+                return BulkReservationResultDTO.rejected(index, HttpStatus.NOT_FOUND,
+                        "Ticket option not found with id: " + item.getTicketOptionId());
+            }
+            if (!option.getEvent().getId().equals(request.getEventId())) {
+                return BulkReservationResultDTO.rejected(index,
+                        "Ticket option " + option.getId() + " does not belong to event " + request.getEventId());
+            }
+            if (seatInventory.hasSeatMap(option.getId()) || (item.getSeats() != null && !item.getSeats().isEmpty())) {
+                return BulkReservationResultDTO.rejected(index,
+                        "Ticket option " + option.getId() + " has assigned seating and must be booked individually");
+            }
+        }
+        return null;
+    }
+
+    // Descuenta del disponible local del lote; solo si entran todos los ítems de la reserva
+    private String allocate(Map<Long, Integer> quantities, Map<Long, TicketOption> ticketOptions,
+                            Map<Long, Integer> remaining) {
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            TicketOption option = ticketOptions.get(entry.getKey());
+            int available = remaining.computeIfAbsent(entry.getKey(), id -> inventoryLedger.remaining(option));
+            if (available < entry.getValue()) {
+                return "Not enough tickets available for " + option.getName();
+            }
+        }
+        quantities.forEach((ticketOptionId, quantity) -> remaining.merge(ticketOptionId, -quantity, Integer::sum));
+        return null;
+    }
+
+    // Trae todas las opciones del pedido en un solo SELECT ... IN y valida que sean del evento
+    private Map<Long, TicketOption> loadTicketOptions(Long eventId, List<Long> ticketOptionIds) {
+        Map<Long, TicketOption> ticketOptions = ticketOptionRepository.findAllById(new HashSet<>(ticketOptionIds)).stream()
+                .collect(Collectors.toMap(TicketOption::getId, Function.identity()));
+
+        for (Long ticketOptionId : ticketOptionIds) {
+            TicketOption option = ticketOptions.get(ticketOptionId);
+            if (option == null) {
+                throw new ResourceNotFoundException("Ticket option not found with id: " + ticketOptionId);
+            }
+            if (!option.getEvent().getId().equals(eventId)) {
+                throw new IllegalStateException("Ticket option " + ticketOptionId + " does not belong to event " + eventId);
+            }
+        }
+        return ticketOptions;
+    }
+
+    // Los ítems de opciones con plano que llegan sin butacas se ubican solos: un bloque contiguo por opción
+    // para todas sus entradas, repartido entre los ítems en orden. Devuelve copias y deja el pedido como estaba,
+    // así un reintento busca de nuevo; si no hay nada que asignar devuelve la misma lista.
+    private List<ReservationItemRequest> assignBestAvailable(List<ReservationItemRequest> items,
+                                                             Map<Long, TicketOption> ticketOptions) {
+        Map<Long, Integer> missing = new TreeMap<>();
+        for (ReservationItemRequest item : items) {
+            if (needsSeats(item)) {
+                missing.merge(item.getTicketOptionId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        if (missing.isEmpty()) {
+            return items;
+        }
+
+        Map<Long, Iterator<String>> assigned = new HashMap<>();
+        missing.forEach((ticketOptionId, quantity) -> assigned.put(ticketOptionId,
+                seatInventory.bestAvailable(ticketOptionId, quantity)
+                        .orElseThrow(() -> new IllegalStateException("There are no " + quantity
+                                + " seats together available for " + ticketOptions.get(ticketOptionId).getName()))
+                        .iterator()));
+
+        List<ReservationItemRequest> withSeats = new ArrayList<>();
+        for (ReservationItemRequest item : items) {
+            if (!needsSeats(item)) {
+                withSeats.add(item);
+                continue;
+            }
+            Iterator<String> block = assigned.get(item.getTicketOptionId());
+            List<String> seats = new ArrayList<>();
+            for (int i = 0; i < item.getQuantity(); i++) {
+                seats.add(block.next());
+            }
+            withSeats.add(new ReservationItemRequest(item.getTicketOptionId(), item.getQuantity(), seats));
+        }
+        return withSeats;
+    }
+
+    private boolean needsSeats(ReservationItemRequest item) {
+        return seatInventory.hasSeatMap(item.getTicketOptionId())
+                && (item.getSeats() == null || item.getSeats().isEmpty())
+                && item.getQuantity() != null && item.getQuantity() > 0;
+    }
+
+    // Las opciones con plano piden una butaca por entrada; las demás no aceptan butacas
+    private void validateSeats(TicketOption option, Integer quantity, List<String> seats, Map<Long, Set<String>> seen) {
+        boolean seated = seatInventory.hasSeatMap(option.getId());
+        int count = seats == null ? 0 : seats.size();
+        if (!seated && count > 0) {
+            throw new IllegalStateException("Ticket option " + option.getName() + " has no assigned seating");
+        }
+        if (seated && !Objects.equals(quantity, count)) {
+            throw new IllegalStateException("Ticket option " + option.getName() + " has assigned seating: choose "
+                    + quantity + " seats");
+        }
+        for (int i = 0; i < count; i++) {
+            if (!seen.computeIfAbsent(option.getId(), id -> new HashSet<>()).add(seats.get(i).trim())) {
+                throw new IllegalStateException("Seat " + seats.get(i) + " was requested twice");
+            }
+        }
+    }
+
+    private List<String> seatsOrEmpty(List<String> seats) {
+        return seats == null ? new ArrayList<>() : seats.stream().map(String::trim).collect(Collectors.toList());
+    }
+
+    // Aplica el cambio neto de una o varias reservas dentro de la transacción actual, en orden ascendente de id:
+    // dos pedidos con las mismas opciones toman los locks de fila en el mismo orden y no se bloquean mutuamente.
+    // El ledger rechaza en memoria; el UPDATE condicional es el que descuenta en la base.
+    // Si una opción no tiene lugar para lo que se suma, falla todo y se deshacen también las devoluciones.
+    private void applyDelta(InventoryDelta delta, List<Reservation> reservations) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        Map<Long, TicketOption> ticketOptions = new HashMap<>();
+        for (Reservation reservation : reservations) {
+            reservation.getItems().forEach(item -> ticketOptions.put(item.getTicketOption().getId(), item.getTicketOption()));
+            inventoryReconciler.markDirty(reservation.getEvent().getId());
+        }
+        Set<Long> touched = new TreeSet<>(delta.changes().keySet());
+        ticketOptions.keySet().stream().filter(delta::hasSeatChanges).forEach(touched::add);
+        for (Long ticketOptionId : touched) {
+            int change = delta.changes().getOrDefault(ticketOptionId, 0);
+            if (change > 0) {
+                TicketOption ticketOption = ticketOptions.get(ticketOptionId);
+                if (!inventoryLedger.tryReserve(ticketOption, change)
+                        || ticketOptionRepository.reserveCapacity(ticketOptionId, change) == 0) {
+                    throw new IllegalStateException("Not enough tickets available for " + ticketOption.getName());
+                }
+            } else if (change < 0) {
+                // devolver más de lo vendido quiere decir que la misma devolución ya se aplicó
+                if (ticketOptionRepository.releaseCapacity(ticketOptionId, -change) == 0) {
+                    throw new IllegalStateException("Ticket option " + ticketOptionId + " has fewer sold tickets than "
+                            + -change + " to release");
+                }
+                inventoryLedger.release(ticketOptionId, -change);
+            }
+            if (delta.hasSeatChanges(ticketOptionId)) {
+                seatInventory.apply(ticketOptionId, delta.claimedSeats(ticketOptionId), delta.releasedSeats(ticketOptionId));
+            }
+        }
+    }
+
+    // Modelo de lectura: las reservas llegan con cliente y evento ya cargados y los ítems salen de un SELECT ... IN
+    // por cada tanda de ids, así la cantidad de consultas no depende de cuántas reservas o ítems haya
+    private List<ReservationDTO> toDTOs(List<Reservation> reservations) {
+        return toDTOs(reservations, FieldSet.all(ReservationMapper.FIELDS));
+    }
+
+    private List<ReservationDTO> toDTOs(List<Reservation> reservations, FieldSet<ReservationDTO> fields) {
+        List<Long> ids = reservations.stream().map(Reservation::getId).toList();
+        Map<Long, List<ReservationItemDTO>> items = new HashMap<>();
+        if (fields.includes("items")) {
+            for (int from = 0; from < ids.size(); from += MAX_PAGE_SIZE) {
+                reservationRepository.findItemRows(ids.subList(from, Math.min(ids.size(), from + MAX_PAGE_SIZE)))
+                        .forEach(row -> items.computeIfAbsent(row.getReservationId(), id -> new ArrayList<>())
+                                .add(reservationMapper.toItemDTO(row)));
+            }
+        }
+        return reservations.stream()
+                .map(reservation -> reservationMapper.toDTO(reservation, items.getOrDefault(reservation.getId(), new ArrayList<>()), fields))
+                .toList();
     }
 }
@@ -0,0 +1,137 @@
+package com.teatro.backend.services.impl;
+
+import com.teatro.backend.mappers.FieldSet;
+import com.teatro.backend.models.dtos.BulkReservationResultDTO;
+import com.teatro.backend.models.dtos.CreateReservationRequest;
+import com.teatro.backend.models.dtos.ReservationDTO;
+import com.teatro.backend.models.dtos.ReservationFilter;
+import com.teatro.backend.models.dtos.ReservationPageDTO;
+import com.teatro.backend.services.ReservationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// Reintenta las operaciones de escritura de reservas cuando chocan por concurrencia
+// (@Version, locks o deadlocks). Cada intento llama al proxy transaccional de ReservationServiceImpl,
+// así que corre en una transacción nueva; por eso esta clase no es @Transactional.
+@Slf4j
+@Service
+@Primary
+public class RetryingReservationService implements ReservationService {
+
+    private final ReservationServiceImpl delegate;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    public RetryingReservationService(ReservationServiceImpl delegate,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${teatro.reservations.retry.max-attempts:4}") int maxAttempts,
+                                      @Value("${teatro.reservations.retry.initial-backoff-ms:20}") long initialBackoffMs,
+                                      @Value("${teatro.reservations.retry.max-backoff-ms:500}") long maxBackoffMs) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    @Override
+    public ReservationPageDTO getReservations(ReservationFilter filter, String cursor, int limit) {
+        return delegate.getReservations(filter, cursor, limit);
+    }
+
+    @Override
+    public ReservationPageDTO getReservations(ReservationFilter filter, String cursor, int limit, FieldSet<ReservationDTO> fields) {
+        return delegate.getReservations(filter, cursor, limit, fields);
+    }
+
+    @Override
+    public ReservationDTO getReservationById(Long id) {
+        return delegate.getReservationById(id);
+    }
+
+    @Override
+    public ReservationDTO createReservation(CreateReservationRequest request) {
+        return withRetry("createReservation", () -> delegate.createReservation(request));
+    }
+
+    @Override
+    public List<BulkReservationResultDTO> createReservations(List<CreateReservationRequest> requests) {
+        return withRetry("createReservations", () -> delegate.createReservations(requests));
+    }
+
+    @Override
+    public List<ReservationDTO> getReservationsByCustomer(Long customerId) {
+        return delegate.getReservationsByCustomer(customerId);
+    }
+
+    @Override
+    public void deleteReservation(Long id) {
+        withRetry("deleteReservation", () -> {
+            delegate.deleteReservation(id);
+            return null;
+        });
+    }
+
+    @Override
+    public ReservationDTO updateReservation(Long id, ReservationDTO dto) {
+        return withRetry("updateReservation", () -> delegate.updateReservation(id, dto));
+    }
+
+    @Override
+    public ReservationDTO updateReservationStatus(Long id, Map<String, Object> updates) {
+        return withRetry("updateReservationStatus", () -> delegate.updateReservationStatus(id, updates));
+    }
+
+    @Override
+    public int expireHolds(List<Long> reservationIds) {
+        return withRetry("expireHolds", () -> delegate.expireHolds(reservationIds));
+    }
+
+    private <T> T withRetry(String method, Supplier<T> operation) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = operation.get();
+                if (attempt > 1) {
+                    meterRegistry.counter("reservations.retry.recovered", "method", method).increment();
+                }
+                return result;
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("reservations.retry.exhausted", "method", method).increment();
+                    log.warn("{} failed after {} attempts due to concurrent updates", method, attempt);
+                    throw e;
+                }
+                meterRegistry.counter("reservations.retry.attempts", "method", method).increment();
+                log.debug("{} hit a concurrency conflict on attempt {}, retrying", method, attempt);
+                sleep(backoff(attempt));
+            }
+        }
+    }
+
+    // Backoff exponencial con jitter: la mitad fija y la otra mitad al azar, para que no reintenten todos juntos
+    long backoff(int attempt) {
+        long exponential = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        long half = exponential / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.teatro.backend.services.impl;
+
+import com.teatro.backend.catalog.EventCatalog;
+import com.teatro.backend.exceptions.ResourceNotFoundException;
+import com.teatro.backend.inventory.InventoryLedger;
+import com.teatro.backend.inventory.SeatBitmap;
+import com.teatro.backend.inventory.SeatInventory;
+import com.teatro.backend.models.dtos.BestAvailableSeatsDTO;
+import com.teatro.backend.models.dtos.SeatMapDTO;
+import com.teatro.backend.models.entities.SeatMap;
+import com.teatro.backend.models.entities.TicketOption;
+import com.teatro.backend.repositories.SeatMapRepository;
+import com.teatro.backend.repositories.TicketOptionRepository;
+import com.teatro.backend.services.SeatMapService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class SeatMapServiceImpl implements SeatMapService {
+
+    private final SeatMapRepository seatMapRepository;
+    private final TicketOptionRepository ticketOptionRepository;
+    private final SeatInventory seatInventory;
+    private final InventoryLedger inventoryLedger;
+    private final EventCatalog eventCatalog;
+
+    // La capacidad de la opción pasa a ser la cantidad de butacas del plano.
+    // La fila de la opción queda tomada hasta confirmar: ninguna venta sin butaca entra entre el chequeo y el alta
+    @Override
+    @Transactional
+    public SeatMapDTO createSeatMap(Long ticketOptionId, SeatMapDTO seatMapDTO) {
+        TicketOption option = ticketOptionRepository.findForUpdate(ticketOptionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket option not found with id: " + ticketOptionId));
+        if (seatMapRepository.existsById(ticketOptionId)) {
+            throw new IllegalStateException("Ticket option " + ticketOptionId + " already has a seat map");
+        }
+        if (option.getSold() != null && option.getSold() > 0) {
+            throw new IllegalStateException("Ticket option " + ticketOptionId + " already has tickets sold");
+        }
+
+        SeatBitmap bitmap = new SeatBitmap(seatMapDTO.getRows(), seatMapDTO.getSeatsPerRow());
+        SeatMap seatMap = seatMapRepository.save(
+                new SeatMap(ticketOptionId, seatMapDTO.getRows(), seatMapDTO.getSeatsPerRow(), bitmap.toBytes()));
+        option.setCapacity(bitmap.size());
+        ticketOptionRepository.save(option);
+        inventoryLedger.track(option);
+
+        // la memoria cambia recién cuando el plano existe en la base
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                seatInventory.register(seatMap);
+                eventCatalog.invalidate(option.getEvent().getId());
+            }
+        });
+        return toDTO(ticketOptionId, bitmap);
+    }
+
+    // Sale del bitmap en memoria: no lee la base ni filas por butaca
+    @Override
+    public SeatMapDTO getSeatMap(Long ticketOptionId) {
+        SeatBitmap bitmap = seatInventory.bitmap(ticketOptionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Seat map not found for ticket option: " + ticketOptionId));
+        return toDTO(ticketOptionId, bitmap);
+    }
+
+    // Solo sugiere: las butacas se toman al crear la reserva (un ítem sin butacas usa el mismo criterio)
+    @Override
+    public BestAvailableSeatsDTO findBestAvailable(Long ticketOptionId, int quantity) {
+        if (!seatInventory.hasSeatMap(ticketOptionId)) {
+            throw new ResourceNotFoundException("Seat map not found for ticket option: " + ticketOptionId);
+        }
+        if (quantity < 1) {
+            throw new IllegalStateException("Quantity must be at least 1");
+        }
+        return new BestAvailableSeatsDTO(ticketOptionId, quantity,
+                seatInventory.bestAvailable(ticketOptionId, quantity).orElse(List.of()));
+    }
+
+    private SeatMapDTO toDTO(Long ticketOptionId, SeatBitmap bitmap) {
+        return new SeatMapDTO(ticketOptionId, bitmap.rows(), bitmap.seatsPerRow(), bitmap.available(), bitmap.toBytes());
+    }
+}
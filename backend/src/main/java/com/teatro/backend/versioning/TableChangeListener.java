@@ -0,0 +1,35 @@
+package com.teatro.backend.versioning;
+
+import com.teatro.backend.models.entities.Customer;
+import com.teatro.backend.models.entities.Event;
+import com.teatro.backend.models.entities.Reservation;
+import com.teatro.backend.models.entities.ReservationItem;
+import com.teatro.backend.models.entities.TicketOption;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+
+// Listener JPA de las entidades que muestran los ETag; Hibernate lo crea a través de Spring mientras arma
+// el EntityManagerFactory, por eso TableVersions (que depende de repositorios) se busca recién al usarlo.
+// Los UPDATE masivos (ticket_option.sold) no pasan por acá: esos cambios los cuenta el ledger.
+@RequiredArgsConstructor
+public class TableChangeListener {
+
+    private final ObjectProvider<TableVersions> tableVersions;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        TableVersions versions = tableVersions.getObject();
+        if (entity instanceof Event || entity instanceof TicketOption) {
+            versions.changed(TableVersions.Table.EVENT);
+        } else if (entity instanceof Customer) {
+            versions.changed(TableVersions.Table.CUSTOMER);
+        } else if (entity instanceof Reservation || entity instanceof ReservationItem) {
+            versions.changed(TableVersions.Table.RESERVATION);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.teatro.backend.versioning;
+
+import com.teatro.backend.inventory.InventoryLedger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Versión por tabla para los ETag: un contador en memoria que sube cuando confirma una transacción que tocó la tabla.
+// Las entidades avisan con TableChangeListener, así también cuentan los cambios por dirty checking.
+// Las ventas no pasan por acá: la versión de eventos suma la del ledger, que es de donde salen sold y available.
+// El epoch del arranque evita que un ETag de antes de reiniciar coincida con uno nuevo.
+@Component
+@RequiredArgsConstructor
+public class TableVersions {
+
+    public enum Table { EVENT, CUSTOMER, RESERVATION }
+
+    private final InventoryLedger inventoryLedger;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLongArray versions = new AtomicLongArray(Table.values().length);
+
+    // Dentro de una transacción se anota y sube al confirmar; si vuelve atrás no cambia nada
+    public void changed(Table table) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            versions.incrementAndGet(table.ordinal());
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<Table> pending = (Set<Table>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Table> tables = EnumSet.noneOf(Table.class);
+            TransactionSynchronizationManager.bindResource(this, tables);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TableVersions.this);
+                    if (status == STATUS_COMMITTED) {
+                        tables.forEach(changed -> versions.incrementAndGet(changed.ordinal()));
+                    }
+                }
+            });
+            pending = tables;
+        }
+        pending.add(table);
+    }
+
+    public long version(Table table) {
+        long version = versions.get(table.ordinal());
+        return table == Table.EVENT ? version + inventoryLedger.version() : version;
+    }
+
+    // Los contadores solo crecen, así que la suma es distinta para cada estado de esas tablas
+    public String etag(Table... tables) {
+        long version = 0;
+        for (Table table : tables) {
+            version += version(table);
+        }
+        return "\"" + epoch + "-" + version + "\"";
+    }
+}
@@ -1,8 +1,12 @@
+DROP TABLE IF EXISTS idempotency_record;
 DROP TABLE IF EXISTS reservation_item;
+DROP TABLE IF EXISTS seat_map;
 DROP TABLE IF EXISTS reservation;
 DROP TABLE IF EXISTS ticket_option;
 DROP TABLE IF EXISTS event;
 DROP TABLE IF EXISTS customer;
+DROP SEQUENCE IF EXISTS reservation_seq;
+DROP SEQUENCE IF EXISTS reservation_item_seq;
 
 CREATE TABLE customer (
                           id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -27,6 +31,12 @@ CREATE TABLE event (
                        active BOOLEAN DEFAULT TRUE
 );
 
+-- Próximos eventos: filtra por estado y recorre por fecha de inicio sin ordenar aparte
+CREATE INDEX idx_event_status_start ON event (status, start_date_time, id);
+
+-- Reservas por tipo de evento y fecha de la función
+CREATE INDEX idx_event_type_start ON event (type, start_date_time, id);
+
 CREATE TABLE ticket_option (
                                id BIGINT AUTO_INCREMENT PRIMARY KEY,
                                event_id BIGINT NOT NULL,
@@ -50,17 +60,54 @@ CREATE TABLE reservation (
                              total DECIMAL(10,2) DEFAULT 0.00,
                              created_at TIMESTAMP NOT NULL,
                              paid_at TIMESTAMP,
+                             hold_expires_at TIMESTAMP,
                              active BOOLEAN DEFAULT TRUE,
                              CONSTRAINT fk_reservation_customer FOREIGN KEY (customer_id) REFERENCES customer(id),
                              CONSTRAINT fk_reservation_event FOREIGN KEY (event_id) REFERENCES event(id)
 );
 
+-- Listado paginado por keyset: más nuevas primero, el id desempata
+CREATE INDEX idx_reservation_active_created ON reservation (active, created_at DESC, id DESC);
+
+-- Búsqueda con varios filtros: las igualdades van primero y el listado sigue saliendo ordenado del índice.
+-- customer_id y event_id solos ya tienen el índice que H2 crea para cada clave foránea; un cliente tiene pocas
+-- reservas, así que ahí conviene sumar el estado. Un evento tiene miles: su índice conserva el orden del listado.
+-- El de estado también sirve a los vencimientos (PENDING activas)
+CREATE INDEX idx_reservation_customer_status ON reservation (customer_id, status, active, created_at DESC, id DESC);
+CREATE INDEX idx_reservation_event_created ON reservation (event_id, active, created_at DESC, id DESC);
+CREATE INDEX idx_reservation_status_created ON reservation (status, active, created_at DESC, id DESC);
+
 CREATE TABLE reservation_item (
                                   id BIGINT AUTO_INCREMENT PRIMARY KEY,
                                   reservation_id BIGINT NOT NULL,
                                   ticket_option_id BIGINT NOT NULL,
                                   quantity INT NOT NULL,
                                   unit_price DECIMAL(10,2) NOT NULL,
+                                  seats VARCHAR(4000),
                                   CONSTRAINT fk_item_reservation FOREIGN KEY (reservation_id) REFERENCES reservation(id),
                                   CONSTRAINT fk_item_ticket FOREIGN KEY (ticket_option_id) REFERENCES ticket_option(id)
 );
+
+-- Plano de butacas numeradas de una ticket option: un bit por butaca (1 = ocupada), fila por fila
+CREATE TABLE seat_map (
+                          ticket_option_id BIGINT PRIMARY KEY,
+                          seat_rows INT NOT NULL,
+                          seats_per_row INT NOT NULL,
+                          taken VARBINARY(65536) NOT NULL,
+                          CONSTRAINT fk_seat_map_ticket FOREIGN KEY (ticket_option_id) REFERENCES ticket_option(id)
+);
+
+-- Respuestas guardadas por Idempotency-Key para devolverlas si el cliente reintenta
+CREATE TABLE idempotency_record (
+                                    idempotency_key VARCHAR(100) PRIMARY KEY,
+                                    request_hash VARCHAR(64) NOT NULL,
+                                    response_body CLOB NOT NULL,
+                                    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotency_created_at ON idempotency_record (created_at);
+
+-- Ids de reservas asignados por Hibernate en bloques de 50 (permite INSERT en batch);
+-- arrancan después de los datos iniciales cargados con AUTO_INCREMENT
+CREATE SEQUENCE reservation_seq START WITH 1000 INCREMENT BY 50;
+CREATE SEQUENCE reservation_item_seq START WITH 1000 INCREMENT BY 50;
@@ -0,0 +1,183 @@
+package com.teatro.backend.admission;
+
+import com.teatro.backend.exceptions.AdmissionQueueFullException;
+import com.teatro.backend.exceptions.InsufficientCapacityException;
+import com.teatro.backend.exceptions.ResourceNotFoundException;
+import com.teatro.backend.inventory.InventoryLedger;
+import com.teatro.backend.models.dtos.AdmissionTicketDTO;
+import com.teatro.backend.repositories.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EventAdmissionGateTest {
+
+    private static final Long EVENT_ID = 1L;
+
+    @Mock private InventoryLedger inventoryLedger;
+    @Mock private EventRepository eventRepository;
+
+    private EventAdmissionGate gate;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(eventRepository.existsById(anyLong())).thenReturn(true);
+        gate = new EventAdmissionGate(inventoryLedger, eventRepository, 2, 3, 30);
+    }
+
+    @Test
+    void shouldQueueBeyondConcurrencyLimitInArrivalOrder() {
+        assertTrue(gate.enter(EVENT_ID, null).isAdmitted());
+        assertTrue(gate.enter(EVENT_ID, null).isAdmitted());
+
+        AdmissionTicketDTO first = gate.enter(EVENT_ID, null);
+        AdmissionTicketDTO second = gate.enter(EVENT_ID, null);
+        assertFalse(first.isAdmitted());
+        assertEquals(1, first.getPosition());
+        assertEquals(2, second.getPosition());
+
+        gate.leave(EVENT_ID);
+
+        assertTrue(gate.status(first.getToken()).isAdmitted());
+        assertFalse(gate.status(second.getToken()).isAdmitted());
+        assertEquals(1, gate.status(second.getToken()).getPosition());
+        // el lugar que se liberó quedó reservado para el primero de la cola
+        assertFalse(gate.enter(EVENT_ID, null).isAdmitted());
+        assertTrue(gate.enter(EVENT_ID, first.getToken()).isAdmitted());
+        assertEquals(2, gate.active(EVENT_ID));
+    }
+
+    @Test
+    void shouldNotAdmitTokenTwice() {
+        gate.enter(EVENT_ID, null);
+        gate.enter(EVENT_ID, null);
+        AdmissionTicketDTO queued = gate.enter(EVENT_ID, null);
+        gate.leave(EVENT_ID);
+
+        assertTrue(gate.enter(EVENT_ID, queued.getToken()).isAdmitted());
+        assertThrows(ResourceNotFoundException.class, () -> gate.enter(EVENT_ID, queued.getToken()));
+    }
+
+    @Test
+    void shouldRejectWhenQueueIsFull() {
+        for (int i = 0; i < 5; i++) {
+            gate.enter(EVENT_ID, null);
+        }
+        assertThrows(AdmissionQueueFullException.class, () -> gate.enter(EVENT_ID, null));
+        // otro evento no se ve afectado
+        assertTrue(gate.enter(2L, null).isAdmitted());
+    }
+
+    @Test
+    void shouldRejectSoldOutEventWithoutQueueing() {
+        when(inventoryLedger.isSoldOut(EVENT_ID)).thenReturn(true);
+
+        assertThrows(InsufficientCapacityException.class, () -> gate.enter(EVENT_ID, null));
+        assertEquals(0, gate.active(EVENT_ID));
+    }
+
+    @Test
+    void shouldRejectUnknownEventWithoutCreatingQueue() {
+        when(eventRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> gate.enter(99L, null));
+        assertEquals(0, gate.queueCount());
+    }
+
+    @Test
+    void shouldDropQueuesThatAreNoLongerUsed() {
+        gate.enter(EVENT_ID, null);
+        gate.enter(2L, null);
+        gate.leave(2L);
+
+        gate.sweep();
+
+        assertEquals(1, gate.queueCount());
+        assertEquals(1, gate.active(EVENT_ID));
+        // volver a entrar arma una cola nueva
+        assertTrue(gate.enter(2L, null).isAdmitted());
+        verify(eventRepository, times(2)).existsById(2L);
+    }
+
+    @Test
+    void shouldReleaseAdmissionsThatAreNeverUsed() {
+        gate = new EventAdmissionGate(inventoryLedger, eventRepository, 1, 10, 0);
+        gate.enter(EVENT_ID, null);
+        AdmissionTicketDTO queued = gate.enter(EVENT_ID, null);
+        gate.leave(EVENT_ID);
+        assertEquals(1, gate.active(EVENT_ID));
+
+        sleepPastTtl();
+        gate.sweep();
+
+        assertEquals(0, gate.active(EVENT_ID));
+        assertThrows(ResourceNotFoundException.class, () -> gate.status(queued.getToken()));
+    }
+
+    @Test
+    void shouldNeverExceedConcurrencyLimit() throws InterruptedException {
+        gate = new EventAdmissionGate(inventoryLedger, eventRepository, 4, 10_000, 30);
+        int clients = 64;
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        for (int i = 0; i < clients; i++) {
+            pool.submit(() -> {
+                start.await();
+                AdmissionTicketDTO ticket = gate.enter(EVENT_ID, null);
+                while (!ticket.isAdmitted()) {
+                    Thread.sleep(1);
+                    ticket = gate.status(ticket.getToken()).isAdmitted()
+                            ? gate.enter(EVENT_ID, ticket.getToken())
+                            : ticket;
+                }
+                try {
+                    maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                    Thread.sleep(2);
+                    inside.decrementAndGet();
+                    completed.incrementAndGet();
+                } finally {
+                    gate.leave(EVENT_ID);
+                }
+                return null;
+            });
+        }
+        // el barrido corre todo el tiempo y descarta la cola cada vez que queda vacía
+        Thread sweeper = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                gate.sweep();
+            }
+        });
+        sweeper.start();
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        sweeper.interrupt();
+        sweeper.join();
+
+        assertEquals(clients, completed.get());
+        assertTrue(maxInside.get() <= 4);
+        assertEquals(0, gate.active(EVENT_ID));
+    }
+
+    private void sleepPastTtl() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.teatro.backend.availability;
+
+import com.teatro.backend.inventory.InventoryLedger;
+import com.teatro.backend.models.dtos.AvailabilityDeltaDTO;
+import com.teatro.backend.models.dtos.TicketAvailabilityDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class AvailabilityBroadcasterTest {
+
+    private static final Long EVENT_ID = 1L;
+
+    private final Map<Long, Integer> sold = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private AvailabilityBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        sold.put(10L, 0);
+        sold.put(11L, 0);
+        InventoryLedger ledger = mock(InventoryLedger.class);
+        when(ledger.ticketOptionIds(EVENT_ID)).thenReturn(Set.of(10L, 11L));
+        when(ledger.sold(anyLong())).thenAnswer(invocation -> sold.get(invocation.<Long>getArgument(0)));
+        when(ledger.remaining(anyLong())).thenAnswer(invocation -> 100 - sold.get(invocation.<Long>getArgument(0)));
+        when(ledger.version()).thenAnswer(invocation -> version.get());
+        broadcaster = new AvailabilityBroadcaster(ledger, 60_000, 50, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void shouldSendSnapshotThenOnlyLatestValuesOfChangedOptions() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(EVENT_ID, emitter);
+
+        AvailabilityDeltaDTO snapshot = emitter.next();
+        assertEquals(List.of(10L, 11L), snapshot.getTicketOptions().stream().map(TicketAvailabilityDTO::getTicketOptionId).toList());
+
+        // tres ventas dentro del mismo intervalo salen en un solo mensaje
+        sell(10L, 1);
+        sell(10L, 2);
+        sell(10L, 4);
+        broadcaster.flush();
+
+        AvailabilityDeltaDTO delta = emitter.next();
+        assertEquals(List.of(new TicketAvailabilityDTO(10L, 7, 93)), delta.getTicketOptions());
+        broadcaster.flush();
+        assertNull(emitter.received.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void shouldDropStalledSubscriberWithoutHoldingOthersBack() throws InterruptedException {
+        RecordingEmitter slow = new RecordingEmitter();
+        slow.gate = new CountDownLatch(1);
+        RecordingEmitter fast = new RecordingEmitter();
+        broadcaster.subscribe(EVENT_ID, slow);
+        broadcaster.subscribe(EVENT_ID, fast);
+        fast.next();
+
+        Thread.sleep(100);
+        sell(11L, 3);
+        broadcaster.flush();
+
+        assertEquals(List.of(new TicketAvailabilityDTO(11L, 3, 97)), fast.next().getTicketOptions());
+        assertEquals(1, broadcaster.subscribers(EVENT_ID));
+        assertTrue(slow.completed.await(1, TimeUnit.SECONDS));
+        slow.gate.countDown();
+    }
+
+    @Test
+    void shouldForgetEventWhenLastSubscriberLeaves() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.failing = true;
+        broadcaster.subscribe(EVENT_ID, emitter);
+
+        for (int i = 0; i < 20 && broadcaster.subscribers(EVENT_ID) > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, broadcaster.subscribers(EVENT_ID));
+    }
+
+    private void sell(Long ticketOptionId, int quantity) {
+        sold.merge(ticketOptionId, quantity, Integer::sum);
+        version.incrementAndGet();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<AvailabilityDeltaDTO> received = new LinkedBlockingQueue<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile CountDownLatch gate;
+        private volatile boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            for (DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof AvailabilityDeltaDTO delta && MediaType.APPLICATION_JSON.equals(part.getMediaType())) {
+                    received.add(delta);
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        private AvailabilityDeltaDTO next() throws InterruptedException {
+            AvailabilityDeltaDTO delta = received.poll(1, TimeUnit.SECONDS);
+            assertNotNull(delta, "No availability message received");
+            return delta;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.teatro.backend.booking;
+
+import com.teatro.backend.models.dtos.CreateReservationRequest;
+import com.teatro.backend.models.dtos.ReservationDTO;
+import com.teatro.backend.models.dtos.ReservationItemRequest;
+import com.teatro.backend.models.dtos.SeatMapDTO;
+import com.teatro.backend.services.SeatMapService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Con el secuenciador prendido, las opciones con plano de butacas se siguen pudiendo reservar
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sequencerseats",
+        "spring.jpa.show-sql=false",
+        "teatro.inventory.reconciler.enabled=false",
+        "teatro.booking.sequencer.enabled=true"
+})
+class EventBookingSequencerSeatingTest {
+
+    private static final long EVENT_ID = 3L;
+
+    @Autowired private EventBookingSequencer sequencer;
+    @Autowired private SeatMapService seatMapService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private long ticketOptionId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO ticket_option (event_id, name, price, capacity, sold, version) " +
+                "VALUES (?, 'Platea numerada', 1000.00, 1, 0, 0)", EVENT_ID);
+        ticketOptionId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM ticket_option", Long.class);
+        seatMapService.createSeatMap(ticketOptionId, new SeatMapDTO(null, 10, 10, null, null));
+    }
+
+    @Test
+    void shouldBookChosenSeats() {
+        ReservationDTO reservation = reserve(new ReservationItemRequest(ticketOptionId, 2, List.of("4-4", "4-5")));
+
+        assertEquals(List.of("4-4", "4-5"), reservation.getItems().get(0).getSeats());
+        assertEquals(98, seatMapService.getSeatMap(ticketOptionId).getAvailable());
+    }
+
+    @Test
+    void shouldAssignBestAvailableSeats() {
+        ReservationDTO reservation = reserve(new ReservationItemRequest(ticketOptionId, 3));
+
+        assertEquals(3, reservation.getItems().get(0).getSeats().size());
+        assertEquals(97, seatMapService.getSeatMap(ticketOptionId).getAvailable());
+    }
+
+    private ReservationDTO reserve(ReservationItemRequest item) {
+        return sequencer.createReservation(new CreateReservationRequest(3L, EVENT_ID, "Carlos Pérez", "Boletería",
+                List.of(item)));
+    }
+}
@@ -0,0 +1,145 @@
+package com.teatro.backend.booking;
+
+import com.teatro.backend.exceptions.ResourceNotFoundException;
+import com.teatro.backend.inventory.SeatInventory;
+import com.teatro.backend.models.dtos.BulkReservationResultDTO;
+import com.teatro.backend.models.dtos.CreateReservationRequest;
+import com.teatro.backend.models.dtos.ReservationDTO;
+import com.teatro.backend.services.ReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class EventBookingSequencerTest {
+
+    @Mock private ReservationService reservationService;
+    @Mock private SeatInventory seatInventory;
+
+    private EventBookingSequencer sequencer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (sequencer != null) {
+            sequencer.stop();
+        }
+    }
+
+    @Test
+    void shouldCallServiceDirectlyWhenDisabled() {
+        sequencer = new EventBookingSequencer(reservationService, seatInventory, false, 4, 16, 16);
+        ReservationDTO created = reservation(1L);
+        when(reservationService.createReservation(any())).thenReturn(created);
+
+        assertSame(created, sequencer.createReservation(request(5L)));
+        verify(reservationService, never()).createReservations(anyList());
+    }
+
+    @Test
+    void shouldGroupConcurrentBookingsIntoBatches() throws Exception {
+        sequencer = new EventBookingSequencer(reservationService, seatInventory, true, 1, 1024, 64);
+        CountDownLatch firstBatchRunning = new CountDownLatch(1);
+        CountDownLatch othersQueued = new CountDownLatch(1);
+        AtomicInteger batches = new AtomicInteger();
+        AtomicInteger nextId = new AtomicInteger();
+        when(reservationService.createReservations(anyList())).thenAnswer(invocation -> {
+            List<CreateReservationRequest> requests = invocation.getArgument(0);
+            if (batches.incrementAndGet() == 1) {
+                firstBatchRunning.countDown();
+                othersQueued.await(5, TimeUnit.SECONDS);
+            }
+            List<BulkReservationResultDTO> results = new ArrayList<>();
+            for (int i = 0; i < requests.size(); i++) {
+                results.add(BulkReservationResultDTO.created(i, reservation((long) nextId.incrementAndGet())));
+            }
+            return results;
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(41);
+        Future<ReservationDTO> first = pool.submit(() -> sequencer.createReservation(request(5L)));
+        assertTrue(firstBatchRunning.await(5, TimeUnit.SECONDS));
+        List<Future<ReservationDTO>> rest = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            rest.add(pool.submit(() -> sequencer.createReservation(request(5L))));
+        }
+        Thread.sleep(200);
+        othersQueued.countDown();
+
+        assertNotNull(first.get(5, TimeUnit.SECONDS).getId());
+        for (Future<ReservationDTO> future : rest) {
+            assertNotNull(future.get(5, TimeUnit.SECONDS).getId());
+        }
+        pool.shutdown();
+
+        // el primero solo y los otros 40 en un único lote
+        assertEquals(2, batches.get());
+        assertEquals(20.5, sequencer.averageBatchSize());
+        verify(reservationService, never()).createReservation(any());
+    }
+
+    @Test
+    void shouldFailOnlyRejectedBookingsOfABatch() {
+        sequencer = new EventBookingSequencer(reservationService, seatInventory, true, 1, 16, 16);
+        when(reservationService.createReservations(anyList()))
+                .thenReturn(List.of(BulkReservationResultDTO.rejected(0, "Not enough tickets available for VIP")));
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> sequencer.createReservation(request(5L)));
+        assertEquals("Not enough tickets available for VIP", error.getMessage());
+    }
+
+    @Test
+    void shouldKeepNotFoundErrorsOfABatch() {
+        sequencer = new EventBookingSequencer(reservationService, seatInventory, true, 1, 16, 16);
+        when(reservationService.createReservations(anyList())).thenReturn(List.of(
+                BulkReservationResultDTO.rejected(0, HttpStatus.NOT_FOUND, "Customer not found with id: 3")));
+
+        ResourceNotFoundException error = assertThrows(ResourceNotFoundException.class,
+                () -> sequencer.createReservation(request(5L)));
+        assertEquals("Customer not found with id: 3", error.getMessage());
+    }
+
+    @Test
+    void shouldFallBackToSingleBookingsWhenBatchFails() {
+        sequencer = new EventBookingSequencer(reservationService, seatInventory, true, 1, 16, 16);
+        ReservationDTO created = reservation(7L);
+        when(reservationService.createReservations(anyList())).thenThrow(new IllegalStateException("boom"));
+        when(reservationService.createReservation(any())).thenReturn(created);
+
+        assertEquals(7L, sequencer.createReservation(request(5L)).getId());
+    }
+
+    private CreateReservationRequest request(Long eventId) {
+        CreateReservationRequest request = new CreateReservationRequest();
+        request.setCustomerId(3L);
+        request.setEventId(eventId);
+        return request;
+    }
+
+    private ReservationDTO reservation(Long id) {
+        ReservationDTO dto = new ReservationDTO();
+        dto.setId(id);
+        return dto;
+    }
+}
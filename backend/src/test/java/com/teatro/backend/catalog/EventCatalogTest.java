@@ -0,0 +1,169 @@
+package com.teatro.backend.catalog;
+
+import com.teatro.backend.mappers.EventMapper;
+import com.teatro.backend.models.dtos.EventDTO;
+import com.teatro.backend.models.entities.Event;
+import com.teatro.backend.models.entities.TicketOption;
+import com.teatro.backend.models.enums.EventStatus;
+import com.teatro.backend.models.enums.EventType;
+import com.teatro.backend.repositories.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class EventCatalogTest {
+
+    private EventRepository eventRepository;
+    private EventCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(EventRepository.class);
+        catalog = new EventCatalog(eventRepository, new EventMapper(), 2);
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromMemory() {
+        when(eventRepository.findWithTicketOptionsBy()).thenReturn(List.of(event(1L), event(2L)));
+
+        catalog.all();
+        List<EventDTO> second = catalog.all();
+        EventDTO byId = catalog.find(2L).orElseThrow();
+
+        assertEquals(2, second.size());
+        assertEquals("Evento 2", byId.getTitle());
+        assertEquals("Platea", byId.getTicketOptions().get(0).getName());
+        verify(eventRepository, times(1)).findWithTicketOptionsBy();
+        verify(eventRepository, never()).findWithTicketOptionsByIdIn(any());
+    }
+
+    @Test
+    void shouldReturnCopiesThatCallersCanModify() {
+        when(eventRepository.findWithTicketOptionsByIdIn(List.of(1L))).thenReturn(List.of(event(1L)));
+
+        EventDTO first = catalog.find(1L).orElseThrow();
+        first.setTitle("Modificado");
+        first.getTicketOptions().get(0).setAvailable(0);
+
+        EventDTO second = catalog.find(1L).orElseThrow();
+        assertEquals("Evento 1", second.getTitle());
+        assertNull(second.getTicketOptions().get(0).getAvailable());
+    }
+
+    @Test
+    void shouldReloadAfterInvalidation() {
+        Event event = event(1L);
+        when(eventRepository.findStartingAfter(eq(EventStatus.SCHEDULED), any(), any(), any()))
+                .thenReturn(List.of(key(event)));
+        when(eventRepository.findWithTicketOptionsByIdIn(List.of(1L))).thenReturn(List.of(event));
+        assertEquals(1, catalog.upcoming(LocalDateTime.now(), Long.MAX_VALUE, 10).size());
+
+        when(eventRepository.findStartingAfter(eq(EventStatus.SCHEDULED), any(), any(), any())).thenReturn(List.of());
+        catalog.invalidate(1L);
+
+        assertTrue(catalog.upcoming(LocalDateTime.now(), Long.MAX_VALUE, 10).isEmpty());
+        verify(eventRepository, times(2)).findStartingAfter(eq(EventStatus.SCHEDULED), any(), any(), any());
+    }
+
+    @Test
+    void shouldPageUpcomingEventsFromCachedKeys() {
+        Event first = event(1L);
+        Event second = event(2L);
+        Event third = event(3L);
+        second.setStartDateTime(first.getStartDateTime());
+        third.setStartDateTime(first.getStartDateTime().plusDays(1));
+        when(eventRepository.findStartingAfter(eq(EventStatus.SCHEDULED), any(), eq(Long.MAX_VALUE), eq(Limit.of(500))))
+                .thenReturn(List.of(key(first), key(second), key(third)));
+        when(eventRepository.findWithTicketOptionsByIdIn(any())).thenAnswer(invocation -> {
+            List<Event> found = new ArrayList<>();
+            for (Long id : invocation.<Collection<Long>>getArgument(0)) {
+                found.add(List.of(first, second, third).get(id.intValue() - 1));
+            }
+            return found;
+        });
+
+        List<EventDTO> firstPage = catalog.upcoming(LocalDateTime.now(), Long.MAX_VALUE, 2);
+        // mismo inicio que el 1: el id desempata
+        List<EventDTO> secondPage = catalog.upcoming(first.getStartDateTime(), 1L, 2);
+        List<EventDTO> last = catalog.upcoming(third.getStartDateTime(), 3L, 2);
+
+        assertEquals(List.of(1L, 2L), firstPage.stream().map(EventDTO::getId).toList());
+        assertEquals(List.of(2L, 3L), secondPage.stream().map(EventDTO::getId).toList());
+        assertTrue(last.isEmpty());
+        verify(eventRepository, times(1)).findStartingAfter(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldReadAllFromDatabaseWhenItDoesNotFitInTheCache() {
+        when(eventRepository.findWithTicketOptionsBy()).thenReturn(List.of(event(1L), event(2L), event(3L)));
+        when(eventRepository.findWithTicketOptionsByIdIn(List.of(2L))).thenReturn(List.of(event(2L)));
+
+        catalog.find(2L);
+        catalog.all();
+        List<EventDTO> again = catalog.all();
+        catalog.find(2L);
+
+        // entran de a dos: cada all() es una sola consulta y no desaloja lo que ya estaba
+        assertEquals(List.of(1L, 2L, 3L), again.stream().map(EventDTO::getId).toList());
+        verify(eventRepository, times(2)).findWithTicketOptionsBy();
+        verify(eventRepository, times(1)).findWithTicketOptionsByIdIn(List.of(2L));
+    }
+
+    @Test
+    void shouldNotCacheLoadThatRacedWithInvalidation() {
+        when(eventRepository.findWithTicketOptionsBy()).thenAnswer(invocation -> {
+            // la edición confirma mientras esta lectura todavía tiene la versión anterior
+            catalog.invalidate(1L);
+            return List.of(event(1L));
+        });
+
+        catalog.all();
+        catalog.all();
+
+        verify(eventRepository, times(2)).findWithTicketOptionsBy();
+    }
+
+    private EventRepository.EventKey key(Event event) {
+        return new EventRepository.EventKey() {
+            @Override
+            public Long getId() {
+                return event.getId();
+            }
+
+            @Override
+            public LocalDateTime getStartDateTime() {
+                return event.getStartDateTime();
+            }
+        };
+    }
+
+    private Event event(Long id) {
+        Event event = new Event();
+        event.setId(id);
+        event.setTitle("Evento " + id);
+        event.setType(EventType.THEATER);
+        event.setStartDateTime(LocalDateTime.now().plusDays(3));
+        event.setEndDateTime(LocalDateTime.now().plusDays(3).plusHours(2));
+        event.setStatus(EventStatus.SCHEDULED);
+        TicketOption option = new TicketOption();
+        option.setId(id * 10);
+        option.setEvent(event);
+        option.setName("Platea");
+        option.setPrice(new BigDecimal("1500.00"));
+        option.setCapacity(100);
+        option.setSold(0);
+        event.getTicketOptions().add(option);
+        return event;
+    }
+}
@@ -3,6 +3,9 @@ package com.teatro.backend.controllers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.teatro.backend.models.dtos.CustomerDTO;
 import com.teatro.backend.services.CustomerService;
+import com.teatro.backend.versioning.TableVersions;
+import com.teatro.backend.versioning.TableVersions.Table;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,6 +34,15 @@ class CustomerControllerTest {
     @MockBean
     private CustomerService customerService;
 
+
+    @MockBean
+    private TableVersions tableVersions;
+
+    @BeforeEach
+    void stubVersions() {
+        when(tableVersions.etag(Table.CUSTOMER)).thenReturn("\"v-1\"");
+    }
+
     @Test
     void shouldReturnAllCustomers() throws Exception {
         CustomerDTO dto = new CustomerDTO();
@@ -42,7 +54,7 @@ class CustomerControllerTest {
         dto.setLoyaltyFree(false);
         dto.setActive(true);
 
-        when(customerService.getAllCustomers()).thenReturn(List.of(dto));
+        when(customerService.getAllCustomers(any())).thenReturn(List.of(dto));
 
         mockMvc.perform(get("/api/customers"))
                 .andExpect(status().isOk())
@@ -54,6 +66,24 @@ class CustomerControllerTest {
                 .andExpect(jsonPath("$[0].active").value(true));
     }
 
+    @Test
+    void shouldReturnOnlyRequestedFields() throws Exception {
+        CustomerDTO dto = new CustomerDTO();
+        dto.setId(1L);
+        dto.setFirstName("Luca");
+        dto.setLastName("Casamayor");
+
+        when(customerService.getAllCustomers(any())).thenReturn(List.of(dto));
+
+        mockMvc.perform(get("/api/customers").param("fields", "id,lastName,firstName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(jsonPath("$[0].firstName").value("Luca"))
+                .andExpect(jsonPath("$[0].lastName").value("Casamayor"))
+                .andExpect(jsonPath("$[0].email").doesNotExist())
+                .andExpect(jsonPath("$[0].active").doesNotExist());
+    }
+
     @Test
     void shouldReturnCustomerById() throws Exception {
         CustomerDTO dto = new CustomerDTO();
@@ -144,4 +174,30 @@ class CustomerControllerTest {
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].loyaltyFree").value(true));
     }
+
+    @Test
+    void shouldAnswerNotModifiedWithoutQueryingCustomers() throws Exception {
+        mockMvc.perform(get("/api/customers/1").header("If-None-Match", "\"v-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"v-1\""));
+        mockMvc.perform(get("/api/customers/free-pass").header("If-None-Match", "\"v-1\""))
+                .andExpect(status().isNotModified());
+
+        Mockito.verifyNoInteractions(customerService);
+    }
+
+    @Test
+    void shouldSearchCustomers() throws Exception {
+        CustomerDTO dto = new CustomerDTO();
+        dto.setId(4L);
+        dto.setFirstName("Ana");
+        dto.setLastName("Torres");
+        when(customerService.searchCustomers("ana to", 5)).thenReturn(List.of(dto));
+
+        mockMvc.perform(get("/api/customers/search").param("q", "ana to").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v-1\""))
+                .andExpect(jsonPath("$[0].id").value(4L))
+                .andExpect(jsonPath("$[0].lastName").value("Torres"));
+    }
 }
@@ -1,22 +1,37 @@
 package com.teatro.backend.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teatro.backend.availability.AvailabilityBroadcaster;
+import com.teatro.backend.exceptions.ResourceNotFoundException;
+import com.teatro.backend.mappers.FieldSet;
+import com.teatro.backend.models.dtos.EventAvailabilityDTO;
 import com.teatro.backend.models.dtos.EventDTO;
+import com.teatro.backend.models.dtos.EventPageDTO;
+import com.teatro.backend.models.dtos.TicketOptionDTO;
 import com.teatro.backend.models.enums.EventStatus;
 import com.teatro.backend.models.enums.EventType;
 import com.teatro.backend.services.EventService;
+import com.teatro.backend.versioning.TableVersions;
+import com.teatro.backend.versioning.TableVersions.Table;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -33,6 +48,18 @@ class EventControllerTest {
     @MockBean
     private EventService eventService;
 
+
+    @MockBean
+    private TableVersions tableVersions;
+
+    @MockBean
+    private AvailabilityBroadcaster availabilityBroadcaster;
+
+    @BeforeEach
+    void stubVersions() {
+        when(tableVersions.etag(Table.EVENT)).thenReturn("\"v-1\"");
+    }
+
     @Test
     void shouldReturnAllEvents() throws Exception {
         EventDTO dto = new EventDTO();
@@ -44,7 +71,7 @@ class EventControllerTest {
         dto.setStatus(EventStatus.SCHEDULED);
         dto.setDescription("Una gran comedia clásica");
 
-        when(eventService.getAllEvents()).thenReturn(List.of(dto));
+        when(eventService.getAllEvents(any())).thenReturn(List.of(dto));
 
         mockMvc.perform(get("/api/events"))
                 .andExpect(status().isOk())
@@ -54,6 +81,36 @@ class EventControllerTest {
                 .andExpect(jsonPath("$[0].status").value("SCHEDULED"));
     }
 
+    @Test
+    void shouldReturnOnlyRequestedFields() throws Exception {
+        EventDTO dto = new EventDTO(1L, "Obra de Teatro", EventType.THEATER, LocalDateTime.of(2025, 10, 30, 20, 0),
+                LocalDateTime.of(2025, 10, 30, 22, 0), EventStatus.SCHEDULED, "Una gran comedia clásica",
+                List.of(new TicketOptionDTO(10L, "Platea", new BigDecimal("1500.00"), 100, 5, 95)));
+        when(eventService.getAllEvents(any())).thenReturn(List.of(dto));
+
+        mockMvc.perform(get("/api/events").param("fields", "title, id,startDateTime"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(jsonPath("$[0].title").value("Obra de Teatro"))
+                .andExpect(jsonPath("$[0].startDateTime").value("2025-10-30T20:00:00"))
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].ticketOptions").doesNotExist())
+                .andExpect(jsonPath("$[0].status").doesNotExist());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<FieldSet<EventDTO>> fields = ArgumentCaptor.forClass(FieldSet.class);
+        Mockito.verify(eventService).getAllEvents(fields.capture());
+        assertFalse(fields.getValue().includes("ticketOptions"));
+    }
+
+    @Test
+    void shouldRejectUnknownField() throws Exception {
+        mockMvc.perform(get("/api/events").param("fields", "id,price"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verify(eventService, Mockito.never()).getAllEvents(any());
+    }
+
     @Test
     void shouldReturnEventById() throws Exception {
         EventDTO dto = new EventDTO();
@@ -142,15 +199,29 @@ class EventControllerTest {
         dto.setType(EventType.CONCERT);
         dto.setStatus(EventStatus.SCHEDULED);
 
-        when(eventService.getScheduledEvents()).thenReturn(List.of(dto));
+        when(eventService.getUpcomingEvents(isNull(), eq(100))).thenReturn(new EventPageDTO(List.of(dto), "next-page"));
 
         mockMvc.perform(get("/api/events/upcoming"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next-page"))
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].type").value("CONCERT"))
                 .andExpect(jsonPath("$[0].status").value("SCHEDULED"));
     }
 
+    @Test
+    void shouldPassCursorAndLimitForUpcomingEvents() throws Exception {
+        when(eventService.getUpcomingEvents("abc", 20)).thenReturn(new EventPageDTO(List.of(), null));
+
+        mockMvc.perform(get("/api/events/upcoming")
+                        .param("cursor", "abc")
+                        .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        Mockito.verify(eventService).getUpcomingEvents("abc", 20);
+    }
+
     @Test
     void shouldUpdateEventStatus() throws Exception {
         EventDTO dto = new EventDTO();
@@ -167,4 +238,65 @@ class EventControllerTest {
                 .andExpect(jsonPath("$.id").value(3L))
                 .andExpect(jsonPath("$.status").value("FINISHED"));
     }
+
+    @Test
+    void shouldSendEtagAndAnswerNotModifiedWhenUnchanged() throws Exception {
+        when(eventService.getAllEvents(any())).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/events"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v-1\""));
+
+        mockMvc.perform(get("/api/events").header("If-None-Match", "\"v-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/events/1").header("If-None-Match", "\"v-1\""))
+                .andExpect(status().isNotModified());
+
+        Mockito.verify(eventService, Mockito.times(1)).getAllEvents(any());
+        Mockito.verify(eventService, Mockito.never()).getEventById(any());
+    }
+
+    @Test
+    void shouldReturnBodyWhenEtagIsStale() throws Exception {
+        when(eventService.getAllEvents(any())).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/events").header("If-None-Match", "\"v-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v-1\""));
+    }
+
+    @Test
+    void shouldOpenAvailabilityStream() throws Exception {
+        when(availabilityBroadcaster.subscribe(1L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/events/1/availability/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        Mockito.verify(availabilityBroadcaster).subscribe(1L);
+    }
+
+    @Test
+    void shouldNotSubscribeToUnknownEvent() throws Exception {
+        when(eventService.getEventById(99L)).thenThrow(new ResourceNotFoundException("Event not found with id: 99"));
+
+        mockMvc.perform(get("/api/events/99/availability/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isNotFound());
+
+        Mockito.verifyNoInteractions(availabilityBroadcaster);
+    }
+
+    @Test
+    void shouldReturnAvailabilityForSeveralEvents() throws Exception {
+        when(eventService.getAvailability(List.of(1L, 2L))).thenReturn(List.of(
+                new EventAvailabilityDTO(1L, new long[]{10L, 95L, 11L, 0L}),
+                new EventAvailabilityDTO(2L, new long[0])));
+
+        mockMvc.perform(get("/api/events/availability").param("ids", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].eventId").value(1L))
+                .andExpect(jsonPath("$[0].ticketOptions[1]").value(95))
+                .andExpect(jsonPath("$[0].ticketOptions[3]").value(0))
+                .andExpect(jsonPath("$[1].ticketOptions").isEmpty());
+    }
 }
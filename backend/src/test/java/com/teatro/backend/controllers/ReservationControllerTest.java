@@ -1,28 +1,52 @@
 package com.teatro.backend.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teatro.backend.admission.EventAdmissionGate;
+import com.teatro.backend.booking.EventBookingSequencer;
+import com.teatro.backend.export.ReservationExporter;
+import com.teatro.backend.idempotency.IdempotencyStore;
+import com.teatro.backend.inventory.SeatInventory;
+import com.teatro.backend.mappers.FieldSet;
+import com.teatro.backend.models.dtos.AdmissionTicketDTO;
+import com.teatro.backend.models.dtos.BulkReservationResultDTO;
 import com.teatro.backend.models.dtos.CreateReservationRequest;
 import com.teatro.backend.models.dtos.ReservationDTO;
+import com.teatro.backend.models.dtos.ReservationFilter;
+import com.teatro.backend.models.dtos.ReservationItemDTO;
+import com.teatro.backend.models.dtos.ReservationPageDTO;
+import com.teatro.backend.models.enums.EventType;
 import com.teatro.backend.models.enums.ReservationStatus;
+import com.teatro.backend.repositories.IdempotencyRecordRepository;
 import com.teatro.backend.services.ReservationService;
+import com.teatro.backend.versioning.TableVersions;
+import com.teatro.backend.versioning.TableVersions.Table;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ReservationController.class)
+@Import({IdempotencyStore.class, EventBookingSequencer.class})
 class ReservationControllerTest {
 
     @Autowired
@@ -34,6 +58,27 @@ class ReservationControllerTest {
     @MockBean
     private ReservationService reservationService;
 
+
+    @MockBean
+    private TableVersions tableVersions;
+
+    @BeforeEach
+    void stubVersions() {
+        Mockito.when(tableVersions.etag(Table.RESERVATION, Table.CUSTOMER, Table.EVENT)).thenReturn("\"v-1\"");
+    }
+
+    @MockBean
+    private EventAdmissionGate admissionGate;
+
+    @MockBean
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @MockBean
+    private ReservationExporter reservationExporter;
+
+    @MockBean
+    private SeatInventory seatInventory;
+
     @Test
     void shouldReturnAllReservations() throws Exception {
         ReservationDTO dto = new ReservationDTO();
@@ -42,16 +87,69 @@ class ReservationControllerTest {
         dto.setStatus(ReservationStatus.PAID);
         dto.setTotal(BigDecimal.valueOf(1200));
 
-        Mockito.when(reservationService.getAllReservations()).thenReturn(List.of(dto));
+        Mockito.when(reservationService.getReservations(any(ReservationFilter.class), Mockito.isNull(), eq(100), any()))
+                .thenReturn(new ReservationPageDTO(List.of(dto), "next-page"));
 
         mockMvc.perform(get("/api/reservations"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next-page"))
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].eventTitle").value("Concierto"))
                 .andExpect(jsonPath("$[0].status").value("PAID"))
                 .andExpect(jsonPath("$[0].total").value(1200));
     }
 
+    @Test
+    void shouldReturnOnlyRequestedFieldsAndKeepCursor() throws Exception {
+        ReservationDTO dto = new ReservationDTO();
+        dto.setId(1L);
+        dto.setCustomerName("Luca Casamayor");
+        dto.setStatus(ReservationStatus.PAID);
+        dto.setTotal(BigDecimal.valueOf(1200));
+        dto.setItems(List.of(new ReservationItemDTO(5L, 10L, "Platea", 2, BigDecimal.valueOf(600), null)));
+
+        Mockito.when(reservationService.getReservations(any(ReservationFilter.class), Mockito.isNull(), eq(100), any()))
+                .thenReturn(new ReservationPageDTO(List.of(dto), "next-page"));
+
+        mockMvc.perform(get("/api/reservations").param("fields", "id,customerName,status,total"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next-page"))
+                .andExpect(jsonPath("$[0].customerName").value("Luca Casamayor"))
+                .andExpect(jsonPath("$[0].total").value(1200))
+                .andExpect(jsonPath("$[0].items").doesNotExist())
+                .andExpect(jsonPath("$[0].eventTitle").doesNotExist());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<FieldSet<ReservationDTO>> fields = ArgumentCaptor.forClass(FieldSet.class);
+        Mockito.verify(reservationService).getReservations(any(ReservationFilter.class), Mockito.isNull(), eq(100), fields.capture());
+        assertFalse(fields.getValue().includes("items"));
+    }
+
+    @Test
+    void shouldPassFiltersAndCursorToService() throws Exception {
+        Mockito.when(reservationService.getReservations(any(ReservationFilter.class), eq("abc"), eq(20), any()))
+                .thenReturn(new ReservationPageDTO(List.of(), null));
+
+        mockMvc.perform(get("/api/reservations")
+                        .param("status", "PENDING")
+                        .param("eventId", "5")
+                        .param("from", "2025-03-01T00:00:00")
+                        .param("eventType", "CONCERT")
+                        .param("eventTo", "2025-03-08T00:00:00")
+                        .param("cursor", "abc")
+                        .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        ArgumentCaptor<ReservationFilter> filter = ArgumentCaptor.forClass(ReservationFilter.class);
+        Mockito.verify(reservationService).getReservations(filter.capture(), eq("abc"), eq(20), any());
+        assertEquals(ReservationStatus.PENDING, filter.getValue().getStatus());
+        assertEquals(5L, filter.getValue().getEventId());
+        assertEquals(LocalDateTime.of(2025, 3, 1, 0, 0), filter.getValue().getFrom());
+        assertEquals(EventType.CONCERT, filter.getValue().getEventType());
+        assertEquals(LocalDateTime.of(2025, 3, 8, 0, 0), filter.getValue().getEventTo());
+    }
+
     @Test
     void shouldReturnReservationById() throws Exception {
         ReservationDTO dto = new ReservationDTO();
@@ -80,6 +178,7 @@ class ReservationControllerTest {
         response.setCustomerName("Luca Casamayor");
         response.setStatus(ReservationStatus.PENDING);
 
+        Mockito.when(admissionGate.enter(5L, null)).thenReturn(AdmissionTicketDTO.granted(5L));
         Mockito.when(reservationService.createReservation(any(CreateReservationRequest.class)))
                 .thenReturn(response);
 
@@ -90,6 +189,115 @@ class ReservationControllerTest {
                 .andExpect(jsonPath("$.id").value(99L))
                 .andExpect(jsonPath("$.customerName").value("Luca Casamayor"))
                 .andExpect(jsonPath("$.status").value("PENDING"));
+
+        Mockito.verify(admissionGate).leave(5L);
+    }
+
+    @Test
+    void shouldQueueReservationWhenEventIsBusy() throws Exception {
+        CreateReservationRequest request = new CreateReservationRequest();
+        request.setCustomerId(10L);
+        request.setEventId(5L);
+
+        Mockito.when(admissionGate.enter(5L, null))
+                .thenReturn(new AdmissionTicketDTO("abc", 5L, false, 12));
+
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.token").value("abc"))
+                .andExpect(jsonPath("$.position").value(12));
+
+        Mockito.verifyNoInteractions(reservationService);
+        Mockito.verify(admissionGate, Mockito.never()).leave(any());
+    }
+
+    @Test
+    void shouldCreateReservationWithAdmissionToken() throws Exception {
+        CreateReservationRequest request = new CreateReservationRequest();
+        request.setCustomerId(10L);
+        request.setEventId(5L);
+
+        ReservationDTO response = new ReservationDTO();
+        response.setId(100L);
+
+        Mockito.when(admissionGate.enter(5L, "abc")).thenReturn(AdmissionTicketDTO.granted(5L));
+        Mockito.when(reservationService.createReservation(any(CreateReservationRequest.class))).thenReturn(response);
+
+        mockMvc.perform(post("/api/reservations")
+                        .header("Admission-Token", "abc")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(100L));
+    }
+
+    @Test
+    void shouldReplayReservationForRepeatedIdempotencyKey() throws Exception {
+        CreateReservationRequest request = new CreateReservationRequest();
+        request.setCustomerId(10L);
+        request.setEventId(5L);
+
+        ReservationDTO response = new ReservationDTO();
+        response.setId(101L);
+
+        Mockito.when(admissionGate.enter(5L, null)).thenReturn(AdmissionTicketDTO.granted(5L));
+        Mockito.when(reservationService.createReservation(any(CreateReservationRequest.class))).thenReturn(response);
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/reservations")
+                            .header("Idempotency-Key", "retry-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(101L));
+        }
+
+        Mockito.verify(reservationService, Mockito.times(1)).createReservation(any(CreateReservationRequest.class));
+        Mockito.verify(admissionGate, Mockito.times(1)).enter(5L, null);
+    }
+
+    @Test
+    void shouldRejectIdempotencyKeyReusedWithAnotherBody() throws Exception {
+        ReservationDTO updated = new ReservationDTO();
+        updated.setId(1L);
+        updated.setStatus(ReservationStatus.PAID);
+        Mockito.when(reservationService.updateReservationStatus(eq(1L), any(Map.class))).thenReturn(updated);
+
+        mockMvc.perform(patch("/api/reservations/1")
+                        .header("Idempotency-Key", "pay-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"PAID\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/api/reservations/1")
+                        .header("Idempotency-Key", "pay-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"CANCELLED\"}"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verify(reservationService, Mockito.times(1)).updateReservationStatus(eq(1L), any(Map.class));
+    }
+
+    @Test
+    void shouldCreateReservationsInBulk() throws Exception {
+        ReservationDTO created = new ReservationDTO();
+        created.setId(100L);
+
+        Mockito.when(reservationService.createReservations(any()))
+                .thenReturn(List.of(
+                        BulkReservationResultDTO.created(0, created),
+                        BulkReservationResultDTO.rejected(1, "Not enough tickets available for VIP")));
+
+        mockMvc.perform(post("/api/reservations/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(new CreateReservationRequest(), new CreateReservationRequest()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andExpect(jsonPath("$[0].reservation.id").value(100L))
+                .andExpect(jsonPath("$[1].success").value(false))
+                .andExpect(jsonPath("$[1].error").value("Not enough tickets available for VIP"))
+                .andExpect(jsonPath("$[1].status").value(400));
     }
 
     @Test
@@ -130,4 +338,47 @@ class ReservationControllerTest {
                 .andExpect(jsonPath("$[0].customerName").value("Luca Casamayor"))
                 .andExpect(jsonPath("$[0].status").value("PAID"));
     }
+
+    @Test
+    void shouldAnswerNotModifiedWithoutQueryingReservations() throws Exception {
+        mockMvc.perform(get("/api/reservations").header("If-None-Match", "\"v-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"v-1\""));
+        mockMvc.perform(get("/api/reservations/customer/3").header("If-None-Match", "\"v-1\""))
+                .andExpect(status().isNotModified());
+
+        Mockito.verifyNoInteractions(reservationService);
+    }
+
+    @Test
+    void shouldStreamExportInRequestedFormat() throws Exception {
+        Mockito.doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write("{\"id\":1}\n".getBytes());
+            return null;
+        }).when(reservationExporter).export(any(ReservationFilter.class), eq(ReservationExporter.Format.NDJSON), any());
+
+        MvcResult result = mockMvc.perform(get("/api/reservations/export")
+                        .param("format", "ndjson")
+                        .param("eventId", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"reservations.ndjson\""))
+                .andExpect(content().string("{\"id\":1}\n"));
+
+        ArgumentCaptor<ReservationFilter> filter = ArgumentCaptor.forClass(ReservationFilter.class);
+        Mockito.verify(reservationExporter).export(filter.capture(), eq(ReservationExporter.Format.NDJSON), any());
+        assertEquals(2L, filter.getValue().getEventId());
+    }
+
+    @Test
+    void shouldRejectUnknownExportFormat() throws Exception {
+        mockMvc.perform(get("/api/reservations/export").param("format", "xlsx"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(reservationExporter);
+    }
 }
@@ -0,0 +1,81 @@
+package com.teatro.backend.controllers;
+
+import com.teatro.backend.models.dtos.BestAvailableSeatsDTO;
+import com.teatro.backend.models.dtos.SeatMapDTO;
+import com.teatro.backend.services.SeatMapService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SeatMapController.class)
+class SeatMapControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SeatMapService seatMapService;
+
+    @Test
+    void shouldReturnSeatMapAsPackedBits() throws Exception {
+        Mockito.when(seatMapService.getSeatMap(7L))
+                .thenReturn(new SeatMapDTO(7L, 2, 4, 6, new byte[]{0b0000_0011}));
+
+        mockMvc.perform(get("/api/ticket-options/7/seat-map"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows").value(2))
+                .andExpect(jsonPath("$.available").value(6))
+                .andExpect(jsonPath("$.taken").value("Aw=="));
+    }
+
+    @Test
+    void shouldCreateSeatMap() throws Exception {
+        Mockito.when(seatMapService.createSeatMap(eq(7L), any(SeatMapDTO.class)))
+                .thenReturn(new SeatMapDTO(7L, 10, 20, 200, new byte[25]));
+
+        mockMvc.perform(post("/api/ticket-options/7/seat-map")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rows\":10,\"seatsPerRow\":20}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(200));
+    }
+
+    @Test
+    void shouldRejectEmptyLayout() throws Exception {
+        mockMvc.perform(post("/api/ticket-options/7/seat-map")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rows\":0,\"seatsPerRow\":20}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldRejectLayoutLargerThanTheColumn() throws Exception {
+        mockMvc.perform(post("/api/ticket-options/7/seat-map")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rows\":70000,\"seatsPerRow\":70000}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldSuggestBestAvailableSeats() throws Exception {
+        Mockito.when(seatMapService.findBestAvailable(7L, 2))
+                .thenReturn(new BestAvailableSeatsDTO(7L, 2, List.of("4-9", "4-10")));
+
+        mockMvc.perform(get("/api/ticket-options/7/seat-map/best-available").param("quantity", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.seats[0]").value("4-9"))
+                .andExpect(jsonPath("$.seats[1]").value("4-10"));
+    }
+}
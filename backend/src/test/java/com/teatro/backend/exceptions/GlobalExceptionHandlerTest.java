@@ -3,6 +3,7 @@ package com.teatro.backend.exceptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BeanPropertyBindingResult;
@@ -81,6 +82,18 @@ class GlobalExceptionHandlerTest {
         assertTrue(response.getBody().message().contains("Database integrity violation"));
     }
 
+    @Test
+    void shouldHandleOptimisticLockingFailureAsConflict() {
+        ObjectOptimisticLockingFailureException ex =
+                new ObjectOptimisticLockingFailureException("TicketOption", 1L);
+
+        ResponseEntity<GlobalExceptionHandler.ErrorResponse> response =
+                handler.handleConcurrencyFailure(ex);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(409, response.getBody().status());
+    }
+
     @Test
     void shouldHandleGenericException() {
         Exception ex = new Exception("Error inesperado");
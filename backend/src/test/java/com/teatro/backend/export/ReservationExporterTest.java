@@ -0,0 +1,106 @@
+package com.teatro.backend.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teatro.backend.export.ReservationExporter.Format;
+import com.teatro.backend.models.dtos.ReservationFilter;
+import com.teatro.backend.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservationexport",
+        "spring.jpa.show-sql=false",
+        "teatro.inventory.reconciler.enabled=false",
+        "teatro.reservations.export.fetch-size=2",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.teatro.backend.support.SqlStatementCounter"
+})
+class ReservationExporterTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 3, 10, 18, 30);
+
+    @Autowired private ReservationExporter exporter;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Long eventId;
+    private final List<Long> reservationIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO event (title, type, start_date_time, end_date_time, status) VALUES (?, 'CONCERT', ?, ?, 'SCHEDULED')",
+                "Gala, \"Aniversario\"", CREATED.plusDays(30), CREATED.plusDays(30).plusHours(2));
+        eventId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM event", Long.class);
+        reservationIds.clear();
+        insertReservation("Ana", true, "PAID");
+        insertReservation("Pérez, Lola", true, "PENDING");
+        insertReservation("Baja", false, "PAID");
+    }
+
+    @Test
+    void shouldWriteCsvInIdOrderWithQuotedValues() throws Exception {
+        List<String> lines = export(Format.CSV).lines().toList();
+
+        assertEquals("id,customerId,customerName,eventId,eventTitle,status,attendeeName,attendedBy,loyaltyFree,total,createdAt,paidAt",
+                lines.get(0));
+        assertEquals(3, lines.size());
+        assertEquals(reservationIds.get(0) + ",1,Luca Casamayor," + eventId + ",\"Gala, \"\"Aniversario\"\"\",PAID,Ana,Boletería,false,1500.00,2025-03-10T18:30,",
+                lines.get(1));
+        assertTrue(lines.get(2).startsWith(reservationIds.get(1) + ","));
+        assertTrue(lines.get(2).contains(",\"Pérez, Lola\","));
+    }
+
+    @Test
+    void shouldWriteOneJsonObjectPerLine() throws Exception {
+        String[] lines = export(Format.NDJSON).split("\n");
+
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(reservationIds.get(0), first.get("id").asLong());
+        assertEquals("Gala, \"Aniversario\"", first.get("eventTitle").asText());
+        assertEquals("2025-03-10T18:30:00", first.get("createdAt").asText());
+        assertEquals(1500.00, first.get("total").asDouble());
+        assertEquals("PENDING", objectMapper.readTree(lines[1]).get("status").asText());
+    }
+
+    @Test
+    void shouldReadEverythingWithOneSelect() throws Exception {
+        SqlStatementCounter.reset();
+        export(Format.CSV);
+
+        // con fetch-size=2 los datos llegan en varios viajes, pero es un solo SELECT sin consultas por fila
+        assertEquals(1, SqlStatementCounter.selects());
+    }
+
+    @Test
+    void shouldRejectUnknownFormat() {
+        assertThrows(IllegalStateException.class, () -> Format.parse("xml"));
+        assertEquals(Format.NDJSON, Format.parse("ndjson"));
+    }
+
+    private String export(Format format) throws Exception {
+        ReservationFilter filter = new ReservationFilter();
+        filter.setEventId(eventId);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(filter, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private void insertReservation(String attendee, boolean active, String status) {
+        jdbcTemplate.update("INSERT INTO reservation (customer_id, event_id, status, attendee_name, attended_by, created_by_admin, " +
+                        "loyalty_free, total, created_at, active) VALUES (1, ?, ?, ?, 'Boletería', TRUE, FALSE, 1500.00, ?, ?)",
+                eventId, status, attendee, CREATED, active);
+        reservationIds.add(jdbcTemplate.queryForObject("SELECT MAX(id) FROM reservation", Long.class));
+    }
+}
@@ -0,0 +1,172 @@
+package com.teatro.backend.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teatro.backend.models.dtos.ReservationDTO;
+import com.teatro.backend.models.entities.IdempotencyRecord;
+import com.teatro.backend.models.enums.ReservationStatus;
+import com.teatro.backend.repositories.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class IdempotencyStoreTest {
+
+    @Mock private IdempotencyRecordRepository repository;
+
+    private IdempotencyStore store;
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(repository.findById(any())).thenReturn(Optional.empty());
+        store = new IdempotencyStore(repository, new ObjectMapper().findAndRegisterModules(), 2, 24);
+    }
+
+    @Test
+    void shouldReplayStoredResponseWithoutRunningAgain() {
+        ReservationDTO first = store.execute("k1", "create", Map.of("eventId", 1), ReservationDTO.class, this::create);
+        ReservationDTO second = store.execute("k1", "create", Map.of("eventId", 1), ReservationDTO.class, this::create);
+
+        assertEquals(1, executions.get());
+        assertEquals(first.getId(), second.getId());
+        assertEquals(ReservationStatus.PENDING, second.getStatus());
+        verify(repository).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void shouldRunEveryTimeWithoutKey() {
+        store.execute(null, "create", Map.of(), ReservationDTO.class, this::create);
+        store.execute(null, "create", Map.of(), ReservationDTO.class, this::create);
+
+        assertEquals(2, executions.get());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void shouldRejectKeyReusedForAnotherRequest() {
+        store.execute("k1", "create", Map.of("eventId", 1), ReservationDTO.class, this::create);
+
+        assertThrows(IllegalStateException.class,
+                () -> store.execute("k1", "create", Map.of("eventId", 2), ReservationDTO.class, this::create));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void shouldRejectKeyLongerThanTheColumnBeforeRunning() {
+        String key = "k".repeat(IdempotencyStore.MAX_KEY_LENGTH + 1);
+
+        assertThrows(IllegalStateException.class, () -> store.find(key, "create", Map.of(), ReservationDTO.class));
+        assertThrows(IllegalStateException.class,
+                () -> store.execute(key, "create", Map.of(), ReservationDTO.class, this::create));
+        assertEquals(0, executions.get());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void shouldFallBackToTableWhenEvictedFromCache() {
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        store.execute("k1", "create", Map.of(), ReservationDTO.class, this::create);
+        verify(repository).saveAndFlush(saved.capture());
+        // el LRU tiene lugar para dos keys: k1 queda afuera
+        store.execute("k2", "create", Map.of(), ReservationDTO.class, this::create);
+        store.execute("k3", "create", Map.of(), ReservationDTO.class, this::create);
+        when(repository.findById("k1")).thenReturn(Optional.of(saved.getValue()));
+
+        assertTrue(store.find("k1", "create", Map.of(), ReservationDTO.class).isPresent());
+        assertEquals(3, executions.get());
+    }
+
+    @Test
+    void shouldNotStoreFailures() {
+        assertThrows(IllegalStateException.class, () -> store.execute("k1", "create", Map.of(), ReservationDTO.class, () -> {
+            throw new IllegalStateException("Not enough tickets available for VIP");
+        }));
+
+        store.execute("k1", "create", Map.of(), ReservationDTO.class, this::create);
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void shouldCollapseConcurrentDuplicates() throws Exception {
+        int clients = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<ReservationDTO>> results = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return store.execute("k1", "create", Map.of("eventId", 1), ReservationDTO.class, () -> {
+                    sleep(50);
+                    return create();
+                });
+            }));
+        }
+        start.countDown();
+        for (Future<ReservationDTO> result : results) {
+            assertEquals(1L, result.get(10, TimeUnit.SECONDS).getId());
+        }
+        pool.shutdown();
+
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void shouldReturnStoredResponseWhenAnotherInstanceSavedTheKeyFirst() throws Exception {
+        ReservationDTO theirs = create();
+        IdempotencyRecord stored = new IdempotencyRecord("k1", null, new ObjectMapper().findAndRegisterModules()
+                .writeValueAsString(theirs), LocalDateTime.now());
+        when(repository.saveAndFlush(any())).thenAnswer(invocation -> {
+            stored.setRequestHash(invocation.<IdempotencyRecord>getArgument(0).getRequestHash());
+            when(repository.findById("k1")).thenReturn(Optional.of(stored));
+            throw new DataIntegrityViolationException("duplicate key");
+        });
+
+        ReservationDTO result = store.execute("k1", "create", Map.of(), ReservationDTO.class, this::create);
+
+        assertEquals(theirs.getId(), result.getId());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void shouldPurgeOldKeys() {
+        store.purge();
+
+        verify(repository).deleteCreatedBefore(argThat(before -> before.isBefore(LocalDateTime.now().minusHours(23))));
+    }
+
+    private ReservationDTO create() {
+        ReservationDTO dto = new ReservationDTO();
+        dto.setId((long) executions.incrementAndGet());
+        dto.setStatus(ReservationStatus.PENDING);
+        dto.setCreatedAt(LocalDateTime.now());
+        return dto;
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
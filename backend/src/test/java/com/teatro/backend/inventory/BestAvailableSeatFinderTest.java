@@ -0,0 +1,65 @@
+package com.teatro.backend.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BestAvailableSeatFinderTest {
+
+    private final BestAvailableSeatFinder finder = new BestAvailableSeatFinder(0.35, 1.0, 1.0);
+
+    @Test
+    void shouldPickCenterOfIdealRowInEmptyVenue() {
+        SeatBitmap bitmap = new SeatBitmap(10, 20);
+
+        List<String> seats = finder.find(bitmap, 4).orElseThrow().labels(bitmap);
+
+        // fila ideal: 0.35 de 10 filas es la cuarta
+        assertEquals(List.of("4-9", "4-10", "4-11", "4-12"), seats);
+    }
+
+    @Test
+    void shouldTradeRowForCenterAccordingToWeights() {
+        SeatBitmap bitmap = new SeatBitmap(10, 20);
+        // el centro de la fila ideal ocupado: quedan 4 butacas libres en cada punta
+        bitmap.tryClaim(range(3 * 20 + 4, 12));
+
+        assertEquals(List.of("3-9", "3-10", "3-11", "3-12"), finder.find(bitmap, 4).orElseThrow().labels(bitmap));
+
+        BestAvailableSeatFinder onlyRows = new BestAvailableSeatFinder(0.35, 1.0, 0.0);
+        assertEquals(List.of("4-1", "4-2", "4-3", "4-4"), onlyRows.find(bitmap, 4).orElseThrow().labels(bitmap));
+    }
+
+    @Test
+    void shouldFindRunsAcrossWordBoundaries() {
+        SeatBitmap bitmap = new SeatBitmap(2, 100);
+        bitmap.tryClaim(range(0, 60));
+        bitmap.tryClaim(range(70, 30));
+
+        BestAvailableSeatFinder front = new BestAvailableSeatFinder(0.0, 1.0, 1.0);
+        BestAvailableSeatFinder.SeatBlock block = front.find(bitmap, 10).orElseThrow();
+
+        assertEquals(0, block.row());
+        assertEquals(60, block.firstSeat());
+    }
+
+    @Test
+    void shouldReturnEmptyWhenNoContiguousBlockIsLeft() {
+        SeatBitmap bitmap = new SeatBitmap(1, 5);
+        bitmap.tryClaim(new int[]{1, 3});
+
+        assertTrue(finder.find(bitmap, 2).isEmpty());
+        assertTrue(finder.find(bitmap, 6).isEmpty());
+        assertTrue(finder.find(bitmap, 1).isPresent());
+    }
+
+    private int[] range(int first, int count) {
+        int[] seats = new int[count];
+        for (int i = 0; i < count; i++) {
+            seats[i] = first + i;
+        }
+        return seats;
+    }
+}
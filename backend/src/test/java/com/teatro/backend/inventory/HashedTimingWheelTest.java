@@ -0,0 +1,61 @@
+package com.teatro.backend.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    @Test
+    void shouldExpireEntriesAtTheirTick() {
+        HashedTimingWheel wheel = new HashedTimingWheel(100, 8, START);
+        wheel.schedule(1L, START + 250);
+        wheel.schedule(2L, START + 520);
+
+        assertTrue(wheel.advance(START + 199).isEmpty());
+        assertEquals(List.of(1L), wheel.advance(START + 300));
+        assertTrue(wheel.advance(START + 499).isEmpty());
+        assertEquals(List.of(2L), wheel.advance(START + 500));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void shouldKeepEntriesBeyondOneRotation() {
+        HashedTimingWheel wheel = new HashedTimingWheel(100, 8, START);
+        // 8 ticks por vuelta: 2.5 s son más de tres vueltas
+        wheel.schedule(1L, START + 2_500);
+
+        assertTrue(wheel.advance(START + 2_399).isEmpty());
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(1L), wheel.advance(START + 2_500));
+    }
+
+    @Test
+    void shouldExpireOverdueEntriesOnNextAdvance() {
+        HashedTimingWheel wheel = new HashedTimingWheel(100, 8, START);
+        wheel.advance(START + 1_000);
+        wheel.schedule(1L, START + 200);
+
+        assertEquals(List.of(1L), wheel.advance(START + 1_100));
+    }
+
+    @Test
+    void shouldHandleHundredsOfThousandsOfHolds() {
+        HashedTimingWheel wheel = new HashedTimingWheel(1_000, 512, START);
+        int holds = 300_000;
+        for (int i = 0; i < holds; i++) {
+            wheel.schedule(i, START + (i % 3_600) * 1_000L);
+        }
+        assertEquals(holds, wheel.size());
+
+        int expired = wheel.advance(START + 1_799_999L).size();
+        expired += wheel.advance(START + 3_600_000L).size();
+
+        assertEquals(holds, expired);
+        assertEquals(0, wheel.size());
+    }
+}
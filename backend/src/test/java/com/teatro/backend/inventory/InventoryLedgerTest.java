@@ -0,0 +1,162 @@
+package com.teatro.backend.inventory;
+
+import com.teatro.backend.models.entities.Event;
+import com.teatro.backend.models.entities.TicketOption;
+import com.teatro.backend.repositories.TicketOptionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InventoryLedgerTest {
+
+    @Mock private TicketOptionRepository ticketOptionRepository;
+
+    private InventoryLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ledger = new InventoryLedger(ticketOptionRepository);
+        when(ticketOptionRepository.findAll()).thenReturn(List.of(option(1L, 100, 0), option(2L, 30, 28)));
+        ledger.rebuild();
+    }
+
+    @Test
+    void shouldRebuildFromTable() {
+        assertEquals(100, ledger.remaining(1L));
+        assertEquals(2, ledger.remaining(2L));
+        assertEquals(28, ledger.sold(2L));
+    }
+
+    @Test
+    void shouldRejectWhenNotEnoughCapacity() {
+        assertFalse(ledger.tryReserve(2L, 3));
+        assertTrue(ledger.tryReserve(2L, 2));
+        assertEquals(0, ledger.remaining(2L));
+        assertFalse(ledger.tryReserve(2L, 1));
+    }
+
+    @Test
+    void shouldReleaseTickets() {
+        assertTrue(ledger.tryReserve(1L, 10));
+        ledger.release(1L, 4);
+        assertEquals(6, ledger.sold(1L));
+    }
+
+    @Test
+    void shouldTrackOptionsOnlyWhenTheTransactionCommits() {
+        inTransaction(() -> ledger.track(option(1L, 120, 0)), false);
+        assertEquals(100, ledger.remaining(1L));
+
+        inTransaction(() -> {
+            ledger.track(option(1L, 120, 0));
+            assertEquals(100, ledger.remaining(1L));
+        }, true);
+        assertEquals(120, ledger.remaining(1L));
+    }
+
+    @Test
+    void shouldReportEventSoldOutOnlyWhenEveryOptionIsFull() {
+        Event event = new Event();
+        event.setId(7L);
+        TicketOption general = option(10L, 2, 0);
+        TicketOption vip = option(11L, 1, 0);
+        general.setEvent(event);
+        vip.setEvent(event);
+        ledger.track(general);
+        ledger.track(vip);
+
+        assertTrue(ledger.tryReserve(10L, 2));
+        assertFalse(ledger.isSoldOut(7L));
+        assertTrue(ledger.tryReserve(11L, 1));
+        assertTrue(ledger.isSoldOut(7L));
+
+        ledger.release(11L, 1);
+        assertFalse(ledger.isSoldOut(7L));
+        assertFalse(ledger.isSoldOut(99L));
+    }
+
+    @Test
+    void shouldReportRemainingPerOptionSortedById() {
+        Event event = new Event();
+        event.setId(7L);
+        TicketOption vip = option(11L, 5, 0);
+        TicketOption general = option(10L, 20, 3);
+        vip.setEvent(event);
+        general.setEvent(event);
+        ledger.track(vip);
+        ledger.track(general);
+
+        assertTrue(ledger.tryReserve(11L, 2));
+
+        assertArrayEquals(new long[]{10L, 17L, 11L, 3L}, ledger.availability(7L));
+        assertArrayEquals(new long[0], ledger.availability(99L));
+    }
+
+    @Test
+    void shouldNeverOversellUnderConcurrentBuyers() throws InterruptedException {
+        int buyers = 128;
+        ExecutorService pool = Executors.newFixedThreadPool(buyers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger approved = new AtomicInteger();
+
+        for (int i = 0; i < buyers; i++) {
+            int quantity = 1 + (i % 3);
+            pool.submit(() -> {
+                start.await();
+                // cada comprador sigue comprando hasta que el ledger lo rechaza
+                while (ledger.tryReserve(1L, quantity)) {
+                    approved.addAndGet(quantity);
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, ledger.sold(1L));
+        assertEquals(100, approved.get());
+        assertEquals(0, ledger.remaining(1L));
+    }
+
+    // Corre las sincronizaciones registradas como lo haría el transaction manager al confirmar o deshacer
+    private void inTransaction(Runnable work, boolean commit) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            if (commit) {
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            }
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(commit
+                    ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private TicketOption option(Long id, int capacity, int sold) {
+        TicketOption option = new TicketOption();
+        option.setId(id);
+        option.setName("General");
+        option.setPrice(new BigDecimal("100.00"));
+        option.setCapacity(capacity);
+        option.setSold(sold);
+        return option;
+    }
+}
@@ -0,0 +1,76 @@
+package com.teatro.backend.inventory;
+
+import com.teatro.backend.models.enums.ReservationStatus;
+import com.teatro.backend.repositories.EventRepository;
+import com.teatro.backend.repositories.TicketOptionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class InventoryReconcilerTest {
+
+    @Mock private TicketOptionRepository ticketOptionRepository;
+    @Mock private EventRepository eventRepository;
+    @Mock private InventoryLedger inventoryLedger;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(ticketOptionRepository.checkSold(1L, ReservationStatus.CANCELLED))
+                .thenReturn(List.of(check(10L, 5, 5), check(11L, 9, 6)));
+    }
+
+    @Test
+    void shouldReportDriftWithoutRepairingByDefault() {
+        InventoryReconciler reconciler = new InventoryReconciler(ticketOptionRepository, eventRepository, inventoryLedger, true, false, 50);
+
+        assertEquals(1, reconciler.reconcile(1L));
+        verify(ticketOptionRepository, never()).repairSold(anyLong(), anyInt(), anyInt());
+        verifyNoInteractions(inventoryLedger);
+    }
+
+    @Test
+    void shouldRepairDriftWhenEnabled() {
+        InventoryReconciler reconciler = new InventoryReconciler(ticketOptionRepository, eventRepository, inventoryLedger, true, true, 50);
+        when(ticketOptionRepository.repairSold(11L, 9, 6)).thenReturn(1);
+
+        reconciler.reconcile(1L);
+
+        verify(ticketOptionRepository).repairSold(11L, 9, 6);
+        verify(inventoryLedger).adjust(11L, -3);
+    }
+
+    @Test
+    void shouldCheckDirtyEventsAndOneEventOfTheSweepPerRun() {
+        InventoryReconciler reconciler = new InventoryReconciler(ticketOptionRepository, eventRepository, inventoryLedger, true, false, 50);
+        when(eventRepository.findNextId(0L)).thenReturn(3L);
+        when(eventRepository.findNextId(3L)).thenReturn(null);
+        reconciler.markDirty(1L);
+        reconciler.markDirty(1L);
+
+        reconciler.run();
+        reconciler.run();
+
+        verify(ticketOptionRepository, times(1)).checkSold(1L, ReservationStatus.CANCELLED);
+        verify(ticketOptionRepository, times(1)).checkSold(3L, ReservationStatus.CANCELLED);
+        // después del último evento el recorrido vuelve a empezar
+        reconciler.run();
+        verify(eventRepository, times(2)).findNextId(0L);
+    }
+
+    private TicketOptionRepository.SoldCheck check(Long id, int sold, long reserved) {
+        return new TicketOptionRepository.SoldCheck() {
+            public Long getTicketOptionId() { return id; }
+            public Integer getSold() { return sold; }
+            public Long getReserved() { return reserved; }
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package com.teatro.backend.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatBitmapTest {
+
+    @Test
+    void shouldTranslateLabelsAndIndexes() {
+        SeatBitmap bitmap = new SeatBitmap(40, 50);
+
+        assertEquals(0, bitmap.index("1-1"));
+        assertEquals(2 * 50 + 11, bitmap.index("3-12"));
+        assertEquals("3-12", bitmap.label(bitmap.index("3-12")));
+        assertThrows(IllegalStateException.class, () -> bitmap.index("41-1"));
+        assertThrows(IllegalStateException.class, () -> bitmap.index("A12"));
+    }
+
+    @Test
+    void shouldRejectMoreSeatsThanFitInTheColumn() {
+        assertThrows(IllegalStateException.class, () -> new SeatBitmap(70000, 70000));
+        assertThrows(IllegalStateException.class, () -> new SeatBitmap(SeatBitmap.MAX_SEATS, 2));
+        assertEquals(SeatBitmap.MAX_SEATS, new SeatBitmap(SeatBitmap.MAX_SEATS / 8, 8).size());
+    }
+
+    @Test
+    void shouldClaimAllOrNothing() {
+        SeatBitmap bitmap = new SeatBitmap(2, 10);
+        assertTrue(bitmap.tryClaim(new int[]{3, 4}));
+
+        assertFalse(bitmap.tryClaim(new int[]{1, 2, 4}));
+        assertFalse(bitmap.isTaken(1));
+        assertFalse(bitmap.isTaken(2));
+        assertEquals(18, bitmap.available());
+
+        bitmap.release(new int[]{3});
+        assertFalse(bitmap.isTaken(3));
+        assertEquals(19, bitmap.available());
+    }
+
+    @Test
+    void shouldSkipToNextFreeAndTakenSeat() {
+        SeatBitmap bitmap = new SeatBitmap(2, 100);
+        int[] block = new int[70];
+        for (int i = 0; i < block.length; i++) {
+            block[i] = 10 + i;
+        }
+        bitmap.tryClaim(block);
+
+        assertEquals(0, bitmap.nextFree(0, 100));
+        assertEquals(10, bitmap.nextTaken(0, 100));
+        assertEquals(80, bitmap.nextFree(10, 100));
+        assertEquals(100, bitmap.nextTaken(80, 100));
+        // el límite corta aunque la palabra siga
+        assertEquals(50, bitmap.nextFree(20, 50));
+    }
+
+    @Test
+    void shouldRoundTripPackedBytes() {
+        SeatBitmap bitmap = new SeatBitmap(40, 50);
+        bitmap.tryClaim(new int[]{0, 63, 64, 1000, 1999});
+
+        byte[] packed = bitmap.toBytes();
+        assertEquals(250, packed.length);
+
+        SeatBitmap loaded = SeatBitmap.fromBytes(40, 50, packed);
+        assertEquals(1995, loaded.available());
+        for (int seat : new int[]{0, 63, 64, 1000, 1999}) {
+            assertTrue(loaded.isTaken(seat));
+            assertTrue(SeatBitmap.isSet(packed, seat));
+        }
+        assertFalse(loaded.isTaken(1));
+    }
+
+    @Test
+    void shouldGiveEachSeatToOneBuyerOnly() throws InterruptedException {
+        SeatBitmap bitmap = new SeatBitmap(40, 50);
+        int buyers = 64;
+        AtomicInteger claimed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(buyers);
+        for (int b = 0; b < buyers; b++) {
+            int offset = b;
+            pool.submit(() -> {
+                start.await();
+                // pares de butacas que se solapan entre compradores vecinos
+                for (int seat = offset % 3; seat + 1 < bitmap.size(); seat += 3) {
+                    if (bitmap.tryClaim(new int[]{seat, seat + 1})) {
+                        claimed.addAndGet(2);
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        int taken = 0;
+        for (int seat = 0; seat < bitmap.size(); seat++) {
+            taken += bitmap.isTaken(seat) ? 1 : 0;
+        }
+        assertEquals(taken, claimed.get());
+        assertEquals(bitmap.size() - taken, bitmap.available());
+    }
+}
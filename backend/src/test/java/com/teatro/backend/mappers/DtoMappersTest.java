@@ -0,0 +1,157 @@
+package com.teatro.backend.mappers;
+
+import com.teatro.backend.models.dtos.CustomerDTO;
+import com.teatro.backend.models.dtos.EventDTO;
+import com.teatro.backend.models.dtos.ReservationDTO;
+import com.teatro.backend.models.dtos.ReservationItemDTO;
+import com.teatro.backend.models.dtos.TicketOptionDTO;
+import com.teatro.backend.models.entities.*;
+import com.teatro.backend.models.enums.EventStatus;
+import com.teatro.backend.models.enums.EventType;
+import com.teatro.backend.models.enums.ReservationStatus;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Los mappers copian a mano: si a un DTO se le agrega un campo y nadie lo mapea, esto falla
+class DtoMappersTest {
+
+    private final EventMapper eventMapper = new EventMapper();
+    private final CustomerMapper customerMapper = new CustomerMapper();
+    private final ReservationMapper reservationMapper = new ReservationMapper();
+
+    @Test
+    void shouldMapEveryEventAndTicketOptionField() {
+        Event event = event();
+
+        EventDTO dto = eventMapper.toDTO(event);
+
+        assertAllFieldsSet(dto, Set.of());
+        // available lo calcula el servicio con el ledger
+        assertAllFieldsSet(dto.getTicketOptions().get(0), Set.of("available"));
+        assertEquals("Platea", dto.getTicketOptions().get(0).getName());
+        assertEquals(12, dto.getTicketOptions().get(0).getSold());
+    }
+
+    @Test
+    void shouldMapEveryCustomerField() {
+        CustomerDTO dto = customerMapper.toDTO(customer());
+
+        assertAllFieldsSet(dto, Set.of());
+        assertEquals("luca@example.com", dto.getEmail());
+    }
+
+    @Test
+    void shouldMapEveryReservationField() {
+        Reservation reservation = new Reservation();
+        reservation.setId(9L);
+        reservation.setCustomer(customer());
+        reservation.setEvent(event());
+        reservation.setStatus(ReservationStatus.PAID);
+        reservation.setAttendeeName("Luca");
+        reservation.setAttendedBy("Boletería");
+        reservation.setLoyaltyFree(false);
+        reservation.setTotal(new BigDecimal("3000.00"));
+        reservation.setCreatedAt(LocalDateTime.of(2025, 3, 1, 10, 0));
+        reservation.setPaidAt(LocalDateTime.of(2025, 3, 1, 10, 5));
+        ReservationItem item = new ReservationItem();
+        item.setId(20L);
+        item.setReservation(reservation);
+        item.setTicketOption(reservation.getEvent().getTicketOptions().get(0));
+        item.setQuantity(2);
+        item.setUnitPrice(new BigDecimal("1500.00"));
+        item.setSeats(new ArrayList<>(List.of("3-4", "3-5")));
+        reservation.setItems(new ArrayList<>(List.of(item)));
+
+        ReservationDTO dto = reservationMapper.toDTO(reservation);
+
+        assertAllFieldsSet(dto, Set.of());
+        assertAllFieldsSet(dto.getItems().get(0), Set.of());
+        assertEquals("Luca Casamayor", dto.getCustomerName());
+        assertEquals(List.of("3-4", "3-5"), dto.getItems().get(0).getSeats());
+    }
+
+    // ?fields= acepta exactamente las propiedades del DTO; el listado de clientes además arma el DTO
+    // con el constructor completo en ese orden
+    @Test
+    void fieldsShouldListEveryDtoPropertyInDeclarationOrder() {
+        assertEquals(declaredFields(EventDTO.class), List.copyOf(EventMapper.FIELDS.keySet()));
+        assertEquals(declaredFields(CustomerDTO.class), List.copyOf(CustomerMapper.FIELDS.keySet()));
+        assertEquals(declaredFields(ReservationDTO.class), List.copyOf(ReservationMapper.FIELDS.keySet()));
+    }
+
+    @Test
+    void partialReservationShouldNotTouchUnrequestedParties() {
+        Reservation reservation = new Reservation();
+        reservation.setId(9L);
+        reservation.setCustomer(customer());
+        reservation.setEvent(event());
+
+        ReservationDTO dto = reservationMapper.toDTO(reservation, List.of(),
+                FieldSet.parse("id,customerId,eventId,eventTitle", ReservationMapper.FIELDS));
+
+        assertEquals(3L, dto.getCustomerId());
+        assertNull(dto.getCustomerName());
+        assertEquals("Obra", dto.getEventTitle());
+    }
+
+    private List<String> declaredFields(Class<?> type) {
+        return Arrays.stream(type.getDeclaredFields()).map(Field::getName).toList();
+    }
+
+    private Event event() {
+        Event event = new Event();
+        event.setId(1L);
+        event.setTitle("Obra");
+        event.setDescription("Comedia");
+        event.setType(EventType.THEATER);
+        event.setStartDateTime(LocalDateTime.of(2025, 5, 1, 20, 0));
+        event.setEndDateTime(LocalDateTime.of(2025, 5, 1, 22, 0));
+        event.setStatus(EventStatus.SCHEDULED);
+        TicketOption option = new TicketOption();
+        option.setId(2L);
+        option.setEvent(event);
+        option.setName("Platea");
+        option.setPrice(new BigDecimal("1500.00"));
+        option.setCapacity(100);
+        option.setSold(12);
+        event.getTicketOptions().add(option);
+        return event;
+    }
+
+    private Customer customer() {
+        Customer customer = new Customer();
+        customer.setId(3L);
+        customer.setFirstName("Luca");
+        customer.setLastName("Casamayor");
+        customer.setEmail("luca@example.com");
+        customer.setRegistrationDate(LocalDateTime.of(2025, 1, 1, 0, 0));
+        customer.setTotalAttendances(4);
+        customer.setCurrentStreak(2);
+        customer.setLoyaltyFree(false);
+        customer.setActive(true);
+        return customer;
+    }
+
+    private void assertAllFieldsSet(Object dto, Set<String> skipped) {
+        for (Field field : dto.getClass().getDeclaredFields()) {
+            if (skipped.contains(field.getName())) {
+                continue;
+            }
+            field.setAccessible(true);
+            try {
+                assertNotNull(field.get(dto), dto.getClass().getSimpleName() + "." + field.getName() + " is not mapped");
+            } catch (IllegalAccessException e) {
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.teatro.backend.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teatro.backend.inventory.InventoryLedger;
+import com.teatro.backend.models.dtos.EventAvailabilityDTO;
+import com.teatro.backend.models.entities.Event;
+import com.teatro.backend.models.entities.TicketOption;
+import com.teatro.backend.repositories.TicketOptionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Lo que hace GET /api/events/availability para 300 eventos de 4 opciones: leer los contadores y serializar.
+// No corre con el build normal:  mvn test -Dtest=AvailabilitySnapshotBenchmark -Dteatro.loadtest=true
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(0)
+public class AvailabilitySnapshotBenchmark {
+
+    private static final int EVENTS = 300;
+    private static final int OPTIONS_PER_EVENT = 4;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private InventoryLedger ledger;
+    private List<Long> eventIds;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        List<TicketOption> options = new ArrayList<>();
+        eventIds = new ArrayList<>();
+        for (long eventId = 1; eventId <= EVENTS; eventId++) {
+            Event event = new Event();
+            event.setId(eventId);
+            eventIds.add(eventId);
+            for (int i = 0; i < OPTIONS_PER_EVENT; i++) {
+                TicketOption option = new TicketOption();
+                option.setId(eventId * 10 + i);
+                option.setEvent(event);
+                option.setName("Sector " + i);
+                option.setPrice(new BigDecimal("1500.00"));
+                option.setCapacity(200);
+                option.setSold(20 * i);
+                options.add(option);
+            }
+        }
+        TicketOptionRepository repository = mock(TicketOptionRepository.class);
+        when(repository.findAll()).thenReturn(options);
+        ledger = new InventoryLedger(repository);
+        ledger.rebuild();
+    }
+
+    @Benchmark
+    public List<EventAvailabilityDTO> snapshot() {
+        List<EventAvailabilityDTO> result = new ArrayList<>(eventIds.size());
+        for (Long eventId : eventIds) {
+            result.add(new EventAvailabilityDTO(eventId, ledger.availability(eventId)));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public byte[] snapshotAsJson() throws Exception {
+        return objectMapper.writeValueAsBytes(snapshot());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "teatro.loadtest", matches = "true")
+    void run() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(AvailabilitySnapshotBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
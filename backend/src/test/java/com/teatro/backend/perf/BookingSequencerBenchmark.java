@@ -0,0 +1,113 @@
+package com.teatro.backend.perf;
+
+import com.teatro.backend.BackendApplication;
+import com.teatro.backend.booking.EventBookingSequencer;
+import com.teatro.backend.inventory.SeatInventory;
+import com.teatro.backend.models.dtos.CreateReservationRequest;
+import com.teatro.backend.models.dtos.ReservationItemRequest;
+import com.teatro.backend.services.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Compara muchas reservas concurrentes sobre un mismo evento por el camino normal (createReservation con
+// UPDATE condicional y reintentos) contra el secuenciador con distintos tamaños de lote.
+// No corre con el build normal:  mvn test -Dtest=BookingSequencerBenchmark -Dteatro.loadtest=true
+@EnabledIfSystemProperty(named = "teatro.loadtest", matches = "true")
+class BookingSequencerBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("teatro.loadtest.concurrency", 200);
+    private static final int BOOKINGS = Integer.getInteger("teatro.loadtest.requests", 6000);
+    private static final int CUSTOMERS = 500;
+
+    @Test
+    void compareDirectPathAndSequencer() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "spring.datasource.url=jdbc:h2:mem:sequencer-bench",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run()) {
+            ReservationService reservationService = context.getBean(ReservationService.class);
+            SeatInventory seatInventory = context.getBean(SeatInventory.class);
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            long firstCustomer = createCustomers(jdbc);
+
+            List<String> report = new ArrayList<>();
+            long ticketOptionId = createHotEvent(jdbc);
+            report.add(run("direct", jdbc, ticketOptionId, firstCustomer, reservationService::createReservation, null));
+            for (int batch : new int[]{1, 16, 64, 256}) {
+                EventBookingSequencer sequencer = new EventBookingSequencer(reservationService, seatInventory, true, 1, BOOKINGS, batch);
+                try {
+                    long optionId = createHotEvent(jdbc);
+                    report.add(run("sequencer batch=" + batch, jdbc, optionId, firstCustomer, sequencer::createReservation, sequencer));
+                } finally {
+                    sequencer.stop();
+                }
+            }
+            System.out.println(String.format("%-22s %10s %10s %8s", "path", "req/s", "avg batch", "errors"));
+            report.forEach(System.out::println);
+        }
+    }
+
+    private String run(String name, JdbcTemplate jdbc, long ticketOptionId, long firstCustomer,
+                       Function<CreateReservationRequest, ?> book, EventBookingSequencer sequencer) throws Exception {
+        long eventId = jdbc.queryForObject("SELECT event_id FROM ticket_option WHERE id = ?", Long.class, ticketOptionId);
+        AtomicInteger errors = new AtomicInteger();
+        AtomicInteger next = new AtomicInteger();
+        long begin = System.nanoTime();
+        try (ExecutorService clients = Executors.newFixedThreadPool(CLIENTS)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < BOOKINGS; i++) {
+                futures.add(clients.submit(() -> {
+                    long customerId = firstCustomer + next.getAndIncrement() % CUSTOMERS;
+                    try {
+                        book.apply(new CreateReservationRequest(customerId, eventId, "Bench", "bench",
+                                List.of(new ReservationItemRequest(ticketOptionId, 1))));
+                    } catch (RuntimeException e) {
+                        errors.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        int sold = jdbc.queryForObject("SELECT sold FROM ticket_option WHERE id = ?", Integer.class, ticketOptionId);
+        assertEquals(BOOKINGS - errors.get(), sold);
+        return String.format("%-22s %10.0f %10.1f %8d", name, BOOKINGS / seconds,
+                sequencer == null ? 1.0 : sequencer.averageBatchSize(), errors.get());
+    }
+
+    private long createHotEvent(JdbcTemplate jdbc) {
+        jdbc.update("INSERT INTO event (title, type, start_date_time, end_date_time, status, active) " +
+                "VALUES ('Hot concert', 'CONCERT', DATEADD('YEAR', 1, CURRENT_TIMESTAMP), DATEADD('YEAR', 1, CURRENT_TIMESTAMP), 'SCHEDULED', TRUE)");
+        long eventId = jdbc.queryForObject("SELECT MAX(id) FROM event", Long.class);
+        jdbc.update("INSERT INTO ticket_option (event_id, name, price, capacity, sold, version) VALUES (?, 'Campo', 1000.00, ?, 0, 0)",
+                eventId, BOOKINGS * 2);
+        return jdbc.queryForObject("SELECT MAX(id) FROM ticket_option", Long.class);
+    }
+
+    // Clientes distintos para que la fila customer no sea el cuello de botella
+    private long createCustomers(JdbcTemplate jdbc) {
+        for (int i = 0; i < CUSTOMERS; i++) {
+            jdbc.update("INSERT INTO customer (first_name, last_name, email, registration_date, active) " +
+                    "VALUES ('Bench', ?, ?, CURRENT_TIMESTAMP, TRUE)", "Customer " + i, "bench" + i + "@example.com");
+        }
+        return jdbc.queryForObject("SELECT MAX(id) FROM customer", Long.class) - CUSTOMERS + 1;
+    }
+}
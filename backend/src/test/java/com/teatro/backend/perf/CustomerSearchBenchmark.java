@@ -0,0 +1,119 @@
+package com.teatro.backend.perf;
+
+import com.teatro.backend.repositories.CustomerRepository;
+import com.teatro.backend.repositories.CustomerRepository.SearchRow;
+import com.teatro.backend.search.CustomerSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Búsquedas de autocompletar sobre 1M de clientes generados (nombres y apellidos comunes, así hay muchos parecidos).
+// "m" trae a todos los que tienen una palabra que empieza con m; "ernand" solo aparece en medio de palabras
+// (Fernández) y la cota de los trigramas lo detecta, así que también corta al juntar los primeros resultados.
+// No corre con el build normal:  mvn test -Dtest=CustomerSearchBenchmark -Dteatro.loadtest=true
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(0)
+public class CustomerSearchBenchmark {
+
+    private static final int CUSTOMERS = 1_000_000;
+    private static final String[] FIRST_NAMES = {"María", "José", "Juan", "Ana", "Luis", "Carlos", "Laura", "Marta",
+            "Jorge", "Lucía", "Pablo", "Sofía", "Diego", "Valentina", "Martín", "Camila", "Mariano", "Julieta",
+            "Federico", "Florencia", "Santiago", "Agustina", "Nicolás", "Micaela", "Tomás", "Paula", "Matías", "Rocío"};
+    private static final String[] LAST_NAMES = {"González", "Rodríguez", "Gómez", "Fernández", "López", "Díaz",
+            "Martínez", "Pérez", "García", "Sánchez", "Romero", "Sosa", "Álvarez", "Torres", "Ruiz", "Ramírez",
+            "Flores", "Acosta", "Benítez", "Medina", "Suárez", "Herrera", "Aguirre", "Pereyra", "Gutiérrez", "Giménez",
+            "Molina", "Silva", "Castro", "Rojas", "Ortiz", "Núñez", "Luna", "Juárez", "Cabrera", "Ríos", "Morales"};
+
+    @Param({"m", "mar", "mart gon", "gutierrez", "lucia.rojas12345", "ernand"})
+    public String query;
+
+    private CustomerSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        if (index != null) {
+            return;
+        }
+        CustomerRepository repository = mock(CustomerRepository.class);
+        when(repository.findSearchRowsAfter(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            int window = invocation.<Limit>getArgument(1).max();
+            List<SearchRow> rows = new ArrayList<>(window);
+            for (long id = afterId + 1; id <= Math.min(CUSTOMERS, afterId + window); id++) {
+                rows.add(row(id));
+            }
+            return rows;
+        });
+        index = new CustomerSearchIndex(repository);
+        index.rebuild();
+    }
+
+    @Benchmark
+    public List<Long> search() {
+        return index.search(query, 20);
+    }
+
+    private static SearchRow row(long id) {
+        Random random = new Random(id);
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        String email = firstName.toLowerCase() + "." + lastName.toLowerCase() + id + "@example.com";
+        return new SearchRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getFirstName() {
+                return firstName;
+            }
+
+            @Override
+            public String getLastName() {
+                return lastName;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "teatro.loadtest", matches = "true")
+    void run() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(CustomerSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,119 @@
+package com.teatro.backend.perf;
+
+import com.teatro.backend.mappers.CustomerMapper;
+import com.teatro.backend.mappers.EventMapper;
+import com.teatro.backend.models.dtos.CustomerDTO;
+import com.teatro.backend.models.dtos.EventDTO;
+import com.teatro.backend.models.dtos.TicketOptionDTO;
+import com.teatro.backend.models.entities.Customer;
+import com.teatro.backend.models.entities.Event;
+import com.teatro.backend.models.entities.TicketOption;
+import com.teatro.backend.models.enums.EventStatus;
+import com.teatro.backend.models.enums.EventType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Costo por objeto de los mappers propios contra ModelMapper configurado como lo estaba el bean de la app
+// (new ModelMapper(), sin ajustes). El perfil de GC agrega gc.alloc.rate.norm: bytes asignados por operación.
+// No corre con el build normal:  mvn test -Dtest=DtoMappingBenchmark -Dteatro.loadtest=true
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(0)
+public class DtoMappingBenchmark {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final EventMapper eventMapper = new EventMapper();
+    private final CustomerMapper customerMapper = new CustomerMapper();
+
+    private Event event;
+    private Customer customer;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        event = new Event();
+        event.setId(1L);
+        event.setTitle("Obra de teatro");
+        event.setDescription("Comedia musical en dos actos");
+        event.setType(EventType.THEATER);
+        event.setStartDateTime(LocalDateTime.of(2025, 5, 1, 20, 0));
+        event.setEndDateTime(LocalDateTime.of(2025, 5, 1, 22, 0));
+        event.setStatus(EventStatus.SCHEDULED);
+        for (int i = 0; i < 4; i++) {
+            TicketOption option = new TicketOption();
+            option.setId(10L + i);
+            option.setEvent(event);
+            option.setName("Sector " + i);
+            option.setPrice(new BigDecimal("1500.00"));
+            option.setCapacity(200);
+            option.setSold(20 * i);
+            event.getTicketOptions().add(option);
+        }
+
+        customer = new Customer();
+        customer.setId(3L);
+        customer.setFirstName("Luca");
+        customer.setLastName("Casamayor");
+        customer.setEmail("luca@example.com");
+        customer.setRegistrationDate(LocalDateTime.of(2025, 1, 1, 0, 0));
+    }
+
+    // Como lo hacía EventServiceImpl: el evento y después cada ticket option por separado
+    @Benchmark
+    public EventDTO eventWithModelMapper() {
+        EventDTO dto = modelMapper.map(event, EventDTO.class);
+        List<TicketOptionDTO> ticketOptions = new ArrayList<>();
+        for (TicketOption option : event.getTicketOptions()) {
+            ticketOptions.add(modelMapper.map(option, TicketOptionDTO.class));
+        }
+        dto.setTicketOptions(ticketOptions);
+        return dto;
+    }
+
+    @Benchmark
+    public EventDTO eventWithMapper() {
+        return eventMapper.toDTO(event);
+    }
+
+    @Benchmark
+    public CustomerDTO customerWithModelMapper() {
+        return modelMapper.map(customer, CustomerDTO.class);
+    }
+
+    @Benchmark
+    public CustomerDTO customerWithMapper() {
+        return customerMapper.toDTO(customer);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "teatro.loadtest", matches = "true")
+    void run() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(DtoMappingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
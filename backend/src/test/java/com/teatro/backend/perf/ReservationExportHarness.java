@@ -0,0 +1,91 @@
+package com.teatro.backend.perf;
+
+import com.teatro.backend.export.ReservationExporter;
+import com.teatro.backend.export.ReservationExporter.Format;
+import com.teatro.backend.models.dtos.ReservationFilter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Exporta 1k, 100k y 1M reservas y mide cuánto heap retiene la exportación mientras escribe:
+// cada 8 MB de salida fuerza un GC y anota lo usado por encima de lo que había antes de empezar.
+// No corre con el build normal:  mvn test -Dtest=ReservationExportHarness -Dteatro.loadtest=true
+@EnabledIfSystemProperty(named = "teatro.loadtest", matches = "true")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:exportharness",
+        "spring.jpa.show-sql=false",
+        "teatro.inventory.reconciler.enabled=false"
+})
+class ReservationExportHarness {
+
+    private static final long SAMPLE_EVERY = 8L * 1024 * 1024;
+
+    @Autowired private ReservationExporter exporter;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void heapShouldNotGrowWithRowCount() throws Exception {
+        long previous = 0;
+        long peak = 0;
+        System.out.println(String.format("%-10s %-7s %12s %14s %10s", "rows", "format", "bytes", "retained KB", "ms"));
+        for (long rows : new long[]{1_000, 100_000, 1_000_000}) {
+            jdbcTemplate.update("INSERT INTO reservation (customer_id, event_id, status, attendee_name, attended_by, " +
+                    "created_by_admin, loyalty_free, total, created_at, active) " +
+                    "SELECT 1, 1, 'PAID', CONCAT('Asistente ', X), 'Boletería', TRUE, FALSE, 1500.00, CURRENT_TIMESTAMP, TRUE " +
+                    "FROM SYSTEM_RANGE(1, ?)", rows - previous);
+            previous = rows;
+            // la primera lectura después del INSERT hace que H2 cargue las filas nuevas en el heap: no se cuenta
+            exporter.export(new ReservationFilter(), Format.CSV, OutputStream.nullOutputStream());
+            for (Format format : Format.values()) {
+                SamplingStream out = new SamplingStream();
+                long start = System.nanoTime();
+                exporter.export(new ReservationFilter(), format, out);
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                System.out.println(String.format("%-10d %-7s %12d %14d %10d", rows, format, out.bytes, out.peak / 1024, millis));
+                peak = Math.max(peak, out.peak);
+            }
+        }
+        // con 1M filas la salida pasa los 250 MB; lo retenido tiene que quedar en el orden del buffer y el fetch size
+        assertTrue(peak < 16L * 1024 * 1024, "Export retained " + peak + " bytes");
+    }
+
+    private static final class SamplingStream extends OutputStream {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final long baseline;
+        private long bytes;
+        private long nextSample = SAMPLE_EVERY;
+        private long peak;
+
+        private SamplingStream() {
+            System.gc();
+            baseline = memory.getHeapMemoryUsage().getUsed();
+        }
+
+        @Override
+        public void write(int b) {
+            count(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count(len);
+        }
+
+        private void count(int len) {
+            bytes += len;
+            if (bytes >= nextSample) {
+                nextSample += SAMPLE_EVERY;
+                System.gc();
+                peak = Math.max(peak, memory.getHeapMemoryUsage().getUsed() - baseline);
+            }
+        }
+    }
+}
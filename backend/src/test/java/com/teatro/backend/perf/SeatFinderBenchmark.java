@@ -0,0 +1,88 @@
+package com.teatro.backend.perf;
+
+import com.teatro.backend.inventory.BestAvailableSeatFinder;
+import com.teatro.backend.inventory.SeatBitmap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Mejor ubicación en una sala de 5000 butacas (100 filas de 50) con el 90% ocupado.
+// La ocupación se arma con grupos de 1 a 6 ubicados al azar, como queda una sala real después de la venta.
+// No corre con el build normal:  mvn test -Dtest=SeatFinderBenchmark -Dteatro.loadtest=true
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(0)
+public class SeatFinderBenchmark {
+
+    private static final int ROWS = 100;
+    private static final int SEATS_PER_ROW = 50;
+
+    @Param({"1", "2", "4", "8"})
+    public int quantity;
+
+    private final BestAvailableSeatFinder finder = new BestAvailableSeatFinder(0.35, 1.0, 1.0);
+    private SeatBitmap bitmap;
+
+    @Setup(Level.Trial)
+    public void fillVenue() {
+        bitmap = new SeatBitmap(ROWS, SEATS_PER_ROW);
+        Random random = new Random(42);
+        int target = bitmap.size() * 9 / 10;
+        while (bitmap.size() - bitmap.available() < target) {
+            int group = Math.min(1 + random.nextInt(6), target - (bitmap.size() - bitmap.available()));
+            int row = random.nextInt(ROWS);
+            int first = random.nextInt(SEATS_PER_ROW - group + 1);
+            int[] seats = new int[group];
+            for (int i = 0; i < group; i++) {
+                seats[i] = row * SEATS_PER_ROW + first + i;
+            }
+            bitmap.tryClaim(seats);
+        }
+    }
+
+    @Benchmark
+    public Optional<BestAvailableSeatFinder.SeatBlock> find() {
+        return finder.find(bitmap, quantity);
+    }
+
+    // Ciclo completo de un hold: buscar, tomar el bloque y devolverlo
+    @Benchmark
+    public boolean findAndHold() {
+        Optional<BestAvailableSeatFinder.SeatBlock> block = finder.find(bitmap, quantity);
+        if (block.isEmpty()) {
+            return false;
+        }
+        int[] seats = block.get().seats(bitmap);
+        boolean held = bitmap.tryClaim(seats);
+        bitmap.release(seats);
+        return held;
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "teatro.loadtest", matches = "true")
+    void run() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(SeatFinderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
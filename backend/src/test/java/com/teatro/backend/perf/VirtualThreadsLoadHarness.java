@@ -0,0 +1,144 @@
+package com.teatro.backend.perf;
+
+import com.teatro.backend.BackendApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Levanta el backend dos veces (pool de Tomcat y virtual threads) y mide throughput y p99
+// de GET /api/events y POST /api/reservations con mucha concurrencia.
+// No corre con el build normal:  mvn test -Dtest=VirtualThreadsLoadHarness -Dteatro.loadtest=true
+@EnabledIfSystemProperty(named = "teatro.loadtest", matches = "true")
+class VirtualThreadsLoadHarness {
+
+    private static final int CONCURRENCY = Integer.getInteger("teatro.loadtest.concurrency", 400);
+    private static final int REQUESTS = Integer.getInteger("teatro.loadtest.requests", 8000);
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        List<String> report = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context = start(virtual)) {
+                int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+                String base = "http://localhost:" + port;
+                HttpClient client = HttpClient.newBuilder()
+                        .executor(Executors.newVirtualThreadPerTaskExecutor())
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .build();
+
+                String reservationBody = prepareReservationBody(client, base);
+                String mode = virtual ? "virtual" : "platform";
+                report.add(run(mode, "GET  /api/events", () ->
+                        client.send(HttpRequest.newBuilder(URI.create(base + "/api/events")).GET().build(),
+                                HttpResponse.BodyHandlers.discarding()).statusCode()));
+                report.add(run(mode, "POST /api/reservations", () ->
+                        client.send(HttpRequest.newBuilder(URI.create(base + "/api/reservations"))
+                                        .header("Content-Type", "application/json")
+                                        .POST(HttpRequest.BodyPublishers.ofString(reservationBody)).build(),
+                                HttpResponse.BodyHandlers.discarding()).statusCode()));
+            }
+        }
+        System.out.println(String.format("%-9s %-24s %10s %10s %10s %8s", "mode", "endpoint", "req/s", "p50 ms", "p99 ms", "errors"));
+        report.forEach(System.out::println);
+    }
+
+    private ConfigurableApplicationContext start(boolean virtual) {
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "spring.datasource.url=jdbc:h2:mem:loadtest-" + virtual,
+                        // se mide el servidor, no la sala de espera
+                        "teatro.admission.max-concurrent-per-event=" + Integer.MAX_VALUE,
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    // Un evento con capacidad de sobra para que ninguna reserva falle por falta de lugar
+    private String prepareReservationBody(HttpClient client, String base) throws Exception {
+        String event = """
+                {"title":"Load test","type":"CONCERT","startDateTime":"2099-01-01T20:00:00",
+                 "endDateTime":"2099-01-01T23:00:00",
+                 "ticketOptions":[{"name":"Campo","price":1000.00,"capacity":1000000}]}""";
+        String response = client.send(HttpRequest.newBuilder(URI.create(base + "/api/events"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(event)).build(), HttpResponse.BodyHandlers.ofString()).body();
+        Matcher matcher = ID.matcher(response);
+        assertTrue(matcher.find());
+        long eventId = Long.parseLong(matcher.group(1));
+        assertTrue(matcher.find());
+        long ticketOptionId = Long.parseLong(matcher.group(1));
+        return """
+                {"customerId":3,"eventId":%d,"attendeeName":"Load test","attendedBy":"harness",
+                 "items":[{"ticketOptionId":%d,"quantity":1}]}""".formatted(eventId, ticketOptionId);
+    }
+
+    private String run(String mode, String endpoint, Call call) throws Exception {
+        // calentamiento
+        measure(call, Math.min(500, REQUESTS));
+        Measurement m = measure(call, REQUESTS);
+        return String.format("%-9s %-24s %10.0f %10.1f %10.1f %8d", mode, endpoint,
+                REQUESTS / (m.totalNanos / 1e9), m.percentile(50), m.percentile(99), m.errors);
+    }
+
+    private Measurement measure(Call call, int requests) throws Exception {
+        long[] latencies = new long[requests];
+        int[] errors = new int[1];
+        long begin = System.nanoTime();
+        try (ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY)) {
+            List<Future<?>> futures = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                futures.add(clients.submit(() -> {
+                    long start = System.nanoTime();
+                    int status = call.send();
+                    latencies[index] = System.nanoTime() - start;
+                    if (status >= 400) {
+                        synchronized (errors) {
+                            errors[0]++;
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return new Measurement(latencies, System.nanoTime() - begin, errors[0]);
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        int send() throws Exception;
+    }
+
+    private record Measurement(long[] latencies, long totalNanos, int errors) {
+        double percentile(int p) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            int index = Math.min(sorted.length - 1, (int) Math.ceil(p / 100.0 * sorted.length) - 1);
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
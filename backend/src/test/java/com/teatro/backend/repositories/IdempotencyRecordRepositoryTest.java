@@ -0,0 +1,30 @@
+package com.teatro.backend.repositories;
+
+import com.teatro.backend.models.entities.IdempotencyRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotencyrecords",
+        "spring.jpa.show-sql=false",
+        "teatro.inventory.reconciler.enabled=false"
+})
+class IdempotencyRecordRepositoryTest {
+
+    @Autowired private IdempotencyRecordRepository repository;
+
+    @Test
+    void shouldRejectSecondRecordWithSameKeyInsteadOfOverwriting() {
+        repository.saveAndFlush(new IdempotencyRecord("k1", "a".repeat(64), "{\"id\":1}", LocalDateTime.now()));
+
+        assertThrows(DataIntegrityViolationException.class, () -> repository.saveAndFlush(
+                new IdempotencyRecord("k1", "b".repeat(64), "{\"id\":2}", LocalDateTime.now())));
+        assertEquals("{\"id\":1}", repository.findById("k1").orElseThrow().getResponseBody());
+    }
+}
@@ -0,0 +1,155 @@
+package com.teatro.backend.repositories;
+
+import com.teatro.backend.models.dtos.ReservationDTO;
+import com.teatro.backend.models.dtos.ReservationFilter;
+import com.teatro.backend.models.dtos.ReservationPageDTO;
+import com.teatro.backend.models.enums.EventType;
+import com.teatro.backend.models.enums.ReservationStatus;
+import com.teatro.backend.services.ReservationService;
+import com.teatro.backend.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservationsearch",
+        "spring.jpa.show-sql=false",
+        "teatro.inventory.reconciler.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.teatro.backend.support.SqlStatementCounter"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReservationSearchQueryTest {
+
+    private static final int PAGE_SIZE = 100;
+    // "columna operador ?" de cada filtro, o el ? del límite
+    private static final Pattern PARAMETER = Pattern.compile("\\w+\\.(\\w+)(>=|<=|=|<|>)\\?|fetch first \\? rows");
+    private static final String NEXT_WEEK = "e.start_date_time >= CURRENT_TIMESTAMP AND e.start_date_time < DATEADD('DAY', 7, CURRENT_TIMESTAMP)";
+
+    @Autowired private ReservationService reservationService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    // 20000 reservas repartidas entre clientes, eventos y estados; con ANALYZE el optimizador de H2 ve la
+    // selectividad real de cada columna en lugar de suponerla
+    @BeforeAll
+    void insertReservations() {
+        jdbcTemplate.update("INSERT INTO reservation (customer_id, event_id, status, attendee_name, created_at, active) " +
+                "SELECT MOD(X, 4) + 1, MOD(X, 5) + 1, CASEWHEN(MOD(X, 3) = 0, 'PENDING', 'PAID'), 'Test', " +
+                "DATEADD('MINUTE', -X, CURRENT_TIMESTAMP), MOD(X, 10) <> 0 FROM SYSTEM_RANGE(1, 20000)");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void shouldCombineOptionalFiltersInOneQuery() {
+        // PENDING del cliente 3 para conciertos de la semana que viene (en data.sql, solo el evento 2)
+        ReservationFilter filter = new ReservationFilter();
+        filter.setStatus(ReservationStatus.PENDING);
+        filter.setCustomerId(3L);
+        filter.setEventType(EventType.CONCERT);
+        filter.setEventFrom(LocalDateTime.now());
+        filter.setEventTo(LocalDateTime.now().plusDays(7));
+
+        List<Long> ids = reservationService.getReservations(filter, null, 500).getItems().stream()
+                .map(ReservationDTO::getId)
+                .toList();
+
+        List<Long> expected = jdbcTemplate.queryForList("SELECT r.id FROM reservation r JOIN event e ON e.id = r.event_id " +
+                "WHERE r.active = TRUE AND r.status = 'PENDING' AND r.customer_id = 3 AND e.type = 'CONCERT' AND " +
+                NEXT_WEEK + " ORDER BY r.created_at DESC, r.id DESC", Long.class);
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    void eachFilterShouldUseItsIndex() {
+        ReservationFilter byCustomer = new ReservationFilter();
+        byCustomer.setCustomerId(3L);
+        byCustomer.setStatus(ReservationStatus.PENDING);
+        ReservationFilter byEvent = new ReservationFilter();
+        byEvent.setEventId(2L);
+        ReservationFilter byStatus = new ReservationFilter();
+        byStatus.setStatus(ReservationStatus.PENDING);
+
+        assertUses("IDX_RESERVATION_ACTIVE_CREATED", new ReservationFilter());
+        assertUses("IDX_RESERVATION_CUSTOMER_STATUS", byCustomer);
+        assertUses("IDX_RESERVATION_EVENT_CREATED", byEvent);
+        assertUses("IDX_RESERVATION_STATUS_CREATED", byStatus);
+    }
+
+    @Test
+    void eventFiltersShouldStartFromEventIndex() {
+        ReservationFilter filter = new ReservationFilter();
+        filter.setEventType(EventType.CONCERT);
+        filter.setEventFrom(LocalDateTime.now());
+        filter.setEventTo(LocalDateTime.now().plusDays(7));
+
+        for (String plan : plans(filter)) {
+            assertTrue(plan.contains("IDX_EVENT_TYPE_START"), plan);
+            assertTrue(plan.contains("IDX_RESERVATION_EVENT_CREATED"), plan);
+        }
+    }
+
+    @Test
+    void combinedSearchShouldUseCustomerAndStatusIndex() {
+        ReservationFilter filter = new ReservationFilter();
+        filter.setStatus(ReservationStatus.PENDING);
+        filter.setCustomerId(3L);
+        filter.setEventType(EventType.CONCERT);
+        filter.setEventFrom(LocalDateTime.now());
+        filter.setEventTo(LocalDateTime.now().plusDays(7));
+
+        assertUses("IDX_RESERVATION_CUSTOMER_STATUS", filter);
+    }
+
+    private void assertUses(String index, ReservationFilter filter) {
+        for (String plan : plans(filter)) {
+            assertTrue(plan.contains(index), plan);
+        }
+    }
+
+    // Planes de la consulta que arma Hibernate para el filtro: la primera página y una siguiente con el keyset
+    private List<String> plans(ReservationFilter filter) {
+        ReservationPageDTO first = reservationService.getReservations(new ReservationFilter(), null, 5);
+        ReservationDTO after = first.getItems().get(first.getItems().size() - 1);
+        return List.of(plan(filter, null, null), plan(filter, first.getNextCursor(), after));
+    }
+
+    private String plan(ReservationFilter filter, String cursor, ReservationDTO after) {
+        SqlStatementCounter.reset();
+        reservationService.getReservations(filter, cursor, PAGE_SIZE);
+        String sql = SqlStatementCounter.selected().get(0);
+        assertTrue(sql.startsWith("select r1_0.id"), sql);
+
+        // los valores van en el orden de los ? que dejó Hibernate
+        List<Object> params = new ArrayList<>();
+        Matcher parameter = PARAMETER.matcher(sql);
+        while (parameter.find()) {
+            params.add(parameter.group(1) == null ? PAGE_SIZE + 1 : value(parameter.group(1), parameter.group(2), filter, after));
+        }
+        assertEquals(sql.chars().filter(c -> c == '?').count(), params.size(), sql);
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, params.toArray()).toUpperCase();
+    }
+
+    private Object value(String column, String operator, ReservationFilter filter, ReservationDTO after) {
+        return switch (column) {
+            case "status" -> filter.getStatus().name();
+            case "customer_id" -> filter.getCustomerId();
+            case "event_id" -> filter.getEventId();
+            case "type" -> filter.getEventType().name();
+            case "start_date_time" -> operator.equals(">=") ? filter.getEventFrom() : filter.getEventTo();
+            case "created_at" -> after.getCreatedAt();
+            case "id" -> after.getId();
+            default -> throw new IllegalArgumentException("Unexpected parameter for column " + column);
+        };
+    }
+}
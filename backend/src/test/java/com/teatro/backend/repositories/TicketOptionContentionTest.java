@@ -0,0 +1,121 @@
+package com.teatro.backend.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// El UPDATE condicional con muchos compradores sobre la misma ticket option, y lo que le pasaba al camino
+// anterior (leer, chequear y guardar con @Version) cuando dos compradores leían la misma versión.
+@SpringBootTest
+class TicketOptionContentionTest {
+
+    private static final int BUYERS = 32;
+    private static final int ATTEMPTS_PER_BUYER = 20;
+    private static final int CAPACITY = 300;
+
+    @Autowired private TicketOptionRepository ticketOptionRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void conditionalUpdateShouldSellEverySeatWithoutConflicts() throws InterruptedException {
+        Long id = insertTicketOption();
+
+        Result result = run(() -> ticketOptionRepository.reserveCapacity(id, 1) == 1);
+
+        assertEquals(CAPACITY, soldOf(id));
+        assertEquals(CAPACITY, result.sold());
+        assertEquals(BUYERS * ATTEMPTS_PER_BUYER - CAPACITY, result.rejected());
+    }
+
+    @Test
+    void versionedReadModifyWriteShouldRejectBuyerThatReadBeforeAnotherSale() {
+        Long id = insertTicketOption();
+        // los dos compradores leen la misma versión antes de que alguno escriba
+        Map<String, Object> first = readRow(id);
+        Map<String, Object> second = readRow(id);
+
+        assertEquals(1, versionedBuy(id, first));
+        assertEquals(0, versionedBuy(id, second));
+        assertEquals(1, soldOf(id));
+        // quedaban entradas: con el UPDATE condicional el segundo comprador entra sin volver a leer
+        assertEquals(1, ticketOptionRepository.reserveCapacity(id, 1));
+        assertEquals(2, soldOf(id));
+    }
+
+    private Result run(Attempt attempt) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(BUYERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        for (int i = 0; i < BUYERS; i++) {
+            pool.submit(() -> {
+                start.await();
+                for (int n = 0; n < ATTEMPTS_PER_BUYER; n++) {
+                    if (attempt.buy()) {
+                        sold.incrementAndGet();
+                    } else {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+        return new Result(sold.get(), rejected.get());
+    }
+
+    private Long insertTicketOption() {
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO ticket_option (event_id, name, price, capacity, sold, version) VALUES (1, 'Bench', 100.00, ?, 0, 0)",
+                    Statement.RETURN_GENERATED_KEYS);
+            ps.setInt(1, CAPACITY);
+            return ps;
+        }, keys);
+        return keys.getKey().longValue();
+    }
+
+    private Map<String, Object> readRow(Long id) {
+        return jdbcTemplate.queryForMap("SELECT sold, capacity, version FROM ticket_option WHERE id = ?", id);
+    }
+
+    // El camino anterior: chequear lo leído y escribir solo si la versión no cambió
+    private int versionedBuy(Long id, Map<String, Object> row) {
+        int sold = ((Number) row.get("SOLD")).intValue();
+        int capacity = ((Number) row.get("CAPACITY")).intValue();
+        int version = ((Number) row.get("VERSION")).intValue();
+        if (sold + 1 > capacity) {
+            return 0;
+        }
+        return jdbcTemplate.update("UPDATE ticket_option SET sold = ?, version = version + 1 WHERE id = ? AND version = ?",
+                sold + 1, id, version);
+    }
+
+    private int soldOf(Long id) {
+        return jdbcTemplate.queryForObject("SELECT sold FROM ticket_option WHERE id = ?", Integer.class, id);
+    }
+
+    @FunctionalInterface
+    private interface Attempt {
+        boolean buy();
+    }
+
+    private record Result(int sold, int rejected) {}
+}
@@ -0,0 +1,80 @@
+package com.teatro.backend.repositories;
+
+import com.teatro.backend.models.enums.EventStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:upcoming",
+        "teatro.inventory.reconciler.enabled=false"
+})
+class UpcomingEventsQueryTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2100, 1, 1, 20, 0);
+
+    @Autowired private EventRepository eventRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM event WHERE start_date_time >= ?", BASE.minusDays(10));
+        // pasados, cancelados y programados mezclados; dos programados con el mismo inicio
+        insert(BASE.minusDays(5), "FINISHED");
+        insert(BASE.plusDays(1), "CANCELLED");
+        for (int day = 0; day < 5; day++) {
+            insert(BASE.plusDays(day), "SCHEDULED");
+        }
+        insert(BASE.plusDays(2), "SCHEDULED");
+    }
+
+    @Test
+    void shouldWalkScheduledEventsByStartInWindows() {
+        List<EventRepository.EventKey> all = new ArrayList<>();
+        LocalDateTime from = BASE.minusSeconds(1);
+        Long afterId = Long.MAX_VALUE;
+        List<EventRepository.EventKey> window;
+        do {
+            window = eventRepository.findStartingAfter(EventStatus.SCHEDULED, from, afterId, Limit.of(2));
+            assertTrue(window.size() <= 2);
+            all.addAll(window);
+            if (!window.isEmpty()) {
+                from = window.get(window.size() - 1).getStartDateTime();
+                afterId = window.get(window.size() - 1).getId();
+            }
+        } while (window.size() == 2);
+
+        assertEquals(6, all.size());
+        for (int i = 1; i < all.size(); i++) {
+            EventRepository.EventKey previous = all.get(i - 1);
+            EventRepository.EventKey current = all.get(i);
+            assertTrue(previous.getStartDateTime().isBefore(current.getStartDateTime())
+                    || previous.getStartDateTime().equals(current.getStartDateTime()) && previous.getId() < current.getId());
+        }
+    }
+
+    @Test
+    void shouldUseStatusAndStartIndex() {
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT id, start_date_time FROM event WHERE status = 'SCHEDULED' " +
+                        "AND (start_date_time > ? OR (start_date_time = ? AND id > ?)) " +
+                        "ORDER BY start_date_time, id LIMIT 100",
+                String.class, BASE, BASE, Long.MAX_VALUE);
+
+        assertTrue(plan.toUpperCase().contains("IDX_EVENT_STATUS_START"), plan);
+    }
+
+    private void insert(LocalDateTime start, String status) {
+        jdbcTemplate.update("INSERT INTO event (title, type, start_date_time, end_date_time, status) VALUES (?, 'THEATER', ?, ?, ?)",
+                "Evento " + start, start, start.plusHours(2), status);
+    }
+}
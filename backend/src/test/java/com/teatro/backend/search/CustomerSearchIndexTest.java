@@ -0,0 +1,135 @@
+package com.teatro.backend.search;
+
+import com.teatro.backend.models.entities.Customer;
+import com.teatro.backend.repositories.CustomerRepository;
+import com.teatro.backend.repositories.CustomerRepository.SearchRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CustomerSearchIndexTest {
+
+    private CustomerSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        CustomerRepository customerRepository = mock(CustomerRepository.class);
+        when(customerRepository.findSearchRowsAfter(eq(0L), any(Limit.class))).thenReturn(List.of(
+                row(1L, "Luca", "Casamayor", "luca@example.com"),
+                row(2L, "María", "Gómez", "maria.gomez@example.com"),
+                row(3L, "Carlos", "Pérez", "carlos.perez@example.com"),
+                row(4L, "Mariano", "Gomeza", "mgomeza@teatro.com")));
+        index = new CustomerSearchIndex(customerRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void shouldMatchWordStartsIgnoringCaseAndAccents() {
+        // mismo puntaje: primero el que entró antes al índice
+        assertEquals(List.of(2L, 4L), index.search("MAR", 10));
+        assertEquals(List.of(3L), index.search("pérez", 10));
+        assertEquals(List.of(2L, 4L), index.search("go", 10));
+        assertEquals(List.of(), index.search("o", 10));
+    }
+
+    @Test
+    void shouldRequireEveryTermAndMatchInsideWords() {
+        assertEquals(List.of(4L), index.search("mariano go", 10));
+        assertEquals(List.of(1L), index.search("mayor", 10));
+        assertEquals(List.of(3L), index.search("carlos.perez@exa", 10));
+        assertEquals(List.of(), index.search("luca perez", 10));
+        assertEquals(List.of(), index.search("   ", 10));
+    }
+
+    @Test
+    void shouldRankWholeWordsFirstAndBoundResults() {
+        // "gomez" es palabra entera en María y solo comienzo de palabra en Mariano
+        assertEquals(List.of(2L, 4L), index.search("gomez", 10));
+        assertEquals(List.of(2L), index.search("gomez", 1));
+    }
+
+    @Test
+    void shouldApplyChangesIncrementally() {
+        index.refresh(customer(5L, "Lucía", "Mariani", "lucia@example.com", true));
+        assertEquals(List.of(1L, 5L), index.search("luc", 10));
+
+        index.refresh(customer(1L, "Luca", "Casamayor", "lcasamayor@example.com", true));
+        assertEquals(List.of(1L), index.search("lcasa", 10));
+
+        index.refresh(customer(5L, "Lucía", "Mariani", "lucia@example.com", false));
+        assertEquals(List.of(1L), index.search("luc", 10));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void shouldWaitForCommitInsideTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.refresh(customer(6L, "Zoe", "Quiroga", "zoe@example.com", true));
+            assertEquals(List.of(), index.search("zoe", 10));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(List.of(6L), index.search("zoe", 10));
+    }
+
+    @Test
+    void shouldKeepResultsAfterCompaction() {
+        for (long id = 100; id < 3100; id++) {
+            index.refresh(customer(id, "Temporal", "Cliente" + id, "t" + id + "@example.com", true));
+        }
+        for (long id = 100; id < 3000; id++) {
+            index.refresh(customer(id, "Temporal", "Cliente" + id, "t" + id + "@example.com", false));
+        }
+
+        assertEquals(104, index.size());
+        assertEquals(List.of(3050L), index.search("cliente3050", 10));
+        assertEquals(List.of(2L, 4L), index.search("mar", 10));
+        assertEquals(100, index.search("temporal", 1000).size());
+    }
+
+    private Customer customer(Long id, String firstName, String lastName, String email, boolean active) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setFirstName(firstName);
+        customer.setLastName(lastName);
+        customer.setEmail(email);
+        customer.setActive(active);
+        return customer;
+    }
+
+    private SearchRow row(Long id, String firstName, String lastName, String email) {
+        return new SearchRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getFirstName() {
+                return firstName;
+            }
+
+            @Override
+            public String getLastName() {
+                return lastName;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+}
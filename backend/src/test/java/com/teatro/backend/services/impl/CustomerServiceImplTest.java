@@ -1,12 +1,13 @@
 package com.teatro.backend.services.impl;
 
 import com.teatro.backend.exceptions.ResourceNotFoundException;
+import com.teatro.backend.mappers.CustomerMapper;
 import com.teatro.backend.models.dtos.CustomerDTO;
 import com.teatro.backend.models.entities.Customer;
 import com.teatro.backend.repositories.CustomerRepository;
+import com.teatro.backend.search.CustomerSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 import org.mockito.*;
 import java.util.*;
 
@@ -19,7 +20,10 @@ class CustomerServiceImplTest {
     private CustomerRepository customerRepository;
 
     @Mock
-    private ModelMapper modelMapper;
+    private CustomerSearchIndex customerSearchIndex;
+
+    @Spy
+    private CustomerMapper customerMapper = new CustomerMapper();
 
     @InjectMocks
     private CustomerServiceImpl customerService;
@@ -50,7 +54,6 @@ class CustomerServiceImplTest {
     @Test
     void shouldReturnActiveCustomers() {
         when(customerRepository.findByActiveTrue()).thenReturn(List.of(customer));
-        when(modelMapper.map(customer, CustomerDTO.class)).thenReturn(customerDTO);
 
         List<CustomerDTO> result = customerService.getAllCustomers();
 
@@ -63,7 +66,6 @@ class CustomerServiceImplTest {
     @Test
     void shouldReturnCustomerByIdWhenExists() {
         when(customerRepository.findByIdAndActiveTrue(1L)).thenReturn(Optional.of(customer));
-        when(modelMapper.map(customer, CustomerDTO.class)).thenReturn(customerDTO);
 
         CustomerDTO result = customerService.getCustomerById(1L);
 
@@ -84,15 +86,16 @@ class CustomerServiceImplTest {
 
     @Test
     void shouldCreateNewCustomerWithDefaults() {
-        when(modelMapper.map(customerDTO, Customer.class)).thenReturn(customer);
-        when(customerRepository.save(any(Customer.class))).thenReturn(customer);
-        when(modelMapper.map(customer, CustomerDTO.class)).thenReturn(customerDTO);
+        customerDTO.setLoyaltyFree(true);
+        when(customerRepository.save(any(Customer.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         CustomerDTO result = customerService.createCustomer(customerDTO);
 
-        assertFalse(customer.getLoyaltyFree());
-        assertTrue(customer.getActive());
+        assertFalse(result.getLoyaltyFree());
+        assertTrue(result.getActive());
         assertEquals("Luca", result.getFirstName());
+        // el id del pedido no se copia: el alta nunca pisa un cliente existente
+        assertNull(result.getId());
         verify(customerRepository, times(1)).save(any(Customer.class));
     }
 
@@ -100,12 +103,12 @@ class CustomerServiceImplTest {
     void shouldUpdateExistingCustomer() {
         when(customerRepository.findByIdAndActiveTrue(1L)).thenReturn(Optional.of(customer));
         when(customerRepository.save(any(Customer.class))).thenReturn(customer);
-        when(modelMapper.map(customer, CustomerDTO.class)).thenReturn(customerDTO);
 
         CustomerDTO result = customerService.updateCustomer(1L, customerDTO);
 
         assertEquals("Luca", result.getFirstName());
         verify(customerRepository, times(1)).save(any(Customer.class));
+        verify(customerSearchIndex).refresh(customer);
     }
 
     @Test
@@ -116,6 +119,7 @@ class CustomerServiceImplTest {
 
         assertFalse(customer.getActive());
         verify(customerRepository, times(1)).save(customer);
+        verify(customerSearchIndex).refresh(customer);
     }
 
 
@@ -123,7 +127,6 @@ class CustomerServiceImplTest {
     void shouldReturnOnlyActiveCustomersWithFreePass() {
         customer.setLoyaltyFree(true);
         when(customerRepository.findByLoyaltyFreeTrue()).thenReturn(List.of(customer));
-        when(modelMapper.map(customer, CustomerDTO.class)).thenReturn(customerDTO);
 
         List<CustomerDTO> result = customerService.getCustomersWithFreePass();
 
@@ -131,4 +134,30 @@ class CustomerServiceImplTest {
         assertTrue(customer.getLoyaltyFree());
         verify(customerRepository, times(1)).findByLoyaltyFreeTrue();
     }
+
+    @Test
+    void shouldReturnSearchResultsInIndexOrder() {
+        Customer other = new Customer();
+        other.setId(2L);
+        other.setFirstName("Lucía");
+        other.setActive(true);
+        Customer inactive = new Customer();
+        inactive.setId(3L);
+        inactive.setActive(false);
+        when(customerSearchIndex.search("luc", 20)).thenReturn(List.of(2L, 3L, 1L));
+        when(customerRepository.findAllById(List.of(2L, 3L, 1L))).thenReturn(List.of(customer, inactive, other));
+
+        List<CustomerDTO> result = customerService.searchCustomers("luc", 20);
+
+        assertEquals(List.of(2L, 1L), result.stream().map(CustomerDTO::getId).toList());
+    }
+
+    @Test
+    void shouldCapSearchLimitAndSkipDatabaseWithoutMatches() {
+        when(customerSearchIndex.search("zzz", 50)).thenReturn(List.of());
+
+        assertTrue(customerService.searchCustomers("zzz", 1000).isEmpty());
+        verify(customerRepository, never()).findAllById(any());
+        assertThrows(IllegalStateException.class, () -> customerService.searchCustomers("luc", 0));
+    }
 }
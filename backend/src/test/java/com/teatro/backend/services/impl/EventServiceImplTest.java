@@ -1,7 +1,14 @@
 package com.teatro.backend.services.impl;
 
+import com.teatro.backend.catalog.EventCatalog;
 import com.teatro.backend.exceptions.ResourceNotFoundException;
+import com.teatro.backend.mappers.EventMapper;
+import com.teatro.backend.mappers.FieldSet;
+import com.teatro.backend.inventory.InventoryLedger;
+import com.teatro.backend.inventory.SeatInventory;
+import com.teatro.backend.models.dtos.EventAvailabilityDTO;
 import com.teatro.backend.models.dtos.EventDTO;
+import com.teatro.backend.models.dtos.EventPageDTO;
 import com.teatro.backend.models.dtos.TicketOptionDTO;
 import com.teatro.backend.models.entities.Event;
 import com.teatro.backend.models.enums.EventStatus;
@@ -9,11 +16,11 @@ import com.teatro.backend.models.enums.EventType;
 import com.teatro.backend.repositories.EventRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 import org.mockito.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,7 +31,16 @@ class EventServiceImplTest {
     private EventRepository eventRepository;
 
     @Mock
-    private ModelMapper modelMapper;
+    private InventoryLedger inventoryLedger;
+
+    @Mock
+    private SeatInventory seatInventory;
+
+    @Spy
+    private EventMapper eventMapper = new EventMapper();
+
+    @Mock
+    private EventCatalog eventCatalog;
 
     @InjectMocks
     private EventServiceImpl eventService;
@@ -57,36 +73,61 @@ class EventServiceImplTest {
 
     @Test
     void shouldReturnAllEvents() {
-        when(eventRepository.findAll()).thenReturn(List.of(event));
-        when(modelMapper.map(event, EventDTO.class)).thenReturn(eventDTO);
+        when(eventCatalog.all()).thenReturn(List.of(eventDTO));
 
         List<EventDTO> result = eventService.getAllEvents();
 
         assertEquals(1, result.size());
         assertEquals(EventType.THEATER, result.get(0).getType());
-        verify(eventRepository, times(1)).findAll();
+        verify(eventCatalog, times(1)).all();
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    void shouldSkipLedgerWhenTicketOptionsAreNotRequested() {
+        eventDTO.setTicketOptions(List.of(new TicketOptionDTO(10L, "Platea", new BigDecimal("1500.00"), 100, 0, null)));
+        when(eventCatalog.all()).thenReturn(List.of(eventDTO));
+
+        eventService.getAllEvents(FieldSet.parse("id,title", EventMapper.FIELDS));
+        verifyNoInteractions(inventoryLedger);
+
+        eventService.getAllEvents(FieldSet.parse("id,ticketOptions", EventMapper.FIELDS));
+        verify(inventoryLedger).remaining(10L);
     }
 
     @Test
     void shouldReturnEventByIdWhenExists() {
-        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
-        when(modelMapper.map(event, EventDTO.class)).thenReturn(eventDTO);
+        when(eventCatalog.find(1L)).thenReturn(Optional.of(eventDTO));
 
         EventDTO result = eventService.getEventById(1L);
 
         assertNotNull(result);
         assertEquals(EventType.THEATER, result.getType());
-        verify(eventRepository, times(1)).findById(1L);
+        verify(eventCatalog, times(1)).find(1L);
     }
 
     @Test
     void shouldThrowExceptionWhenEventNotFound() {
-        when(eventRepository.findById(99L)).thenReturn(Optional.empty());
+        when(eventCatalog.find(99L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class,
                 () -> eventService.getEventById(99L));
 
-        verify(eventRepository, times(1)).findById(99L);
+        verify(eventCatalog, times(1)).find(99L);
+    }
+
+    @Test
+    void shouldOverlayLiveAvailabilityOnCatalogEvents() {
+        TicketOptionDTO ticketDTO = new TicketOptionDTO(7L, "Platea", new BigDecimal("1500.00"), 100, 0, null);
+        eventDTO.setTicketOptions(List.of(ticketDTO));
+        when(eventCatalog.find(1L)).thenReturn(Optional.of(eventDTO));
+        when(inventoryLedger.sold(7L)).thenReturn(30);
+        when(inventoryLedger.remaining(7L)).thenReturn(70);
+
+        EventDTO result = eventService.getEventById(1L);
+
+        assertEquals(30, result.getTicketOptions().get(0).getSold());
+        assertEquals(70, result.getTicketOptions().get(0).getAvailable());
     }
 
     @Test
@@ -99,13 +140,13 @@ class EventServiceImplTest {
         eventDTO.setTicketOptions(List.of(ticketDTO));
 
         when(eventRepository.save(any(Event.class))).thenReturn(event);
-        when(modelMapper.map(event, EventDTO.class)).thenReturn(eventDTO);
 
         EventDTO result = eventService.createEvent(eventDTO);
 
         assertEquals(EventType.THEATER, result.getType());
         assertEquals(EventStatus.SCHEDULED, result.getStatus());
         verify(eventRepository, times(1)).save(any(Event.class));
+        verify(eventCatalog).invalidate(1L);
     }
 
     @Test
@@ -114,43 +155,87 @@ class EventServiceImplTest {
 
         when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
         when(eventRepository.save(any(Event.class))).thenReturn(event);
-        when(modelMapper.map(event, EventDTO.class)).thenReturn(eventDTO);
 
         EventDTO result = eventService.updateEvent(1L, eventDTO);
 
         assertEquals("Obra actualizada", result.getTitle());
         verify(eventRepository, times(1)).save(any(Event.class));
+        verify(eventCatalog).invalidate(1L);
     }
 
     @Test
     void shouldUpdateEventStatus() {
         when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
         when(eventRepository.save(any(Event.class))).thenReturn(event);
-        when(modelMapper.map(event, EventDTO.class)).thenReturn(eventDTO);
 
         EventDTO result = eventService.updateEventStatus(1L, EventStatus.FINISHED);
 
         assertNotNull(result);
         verify(eventRepository, times(1)).save(any(Event.class));
+        verify(eventCatalog).invalidate(1L);
     }
 
     @Test
-    void shouldReturnOnlyUpcomingScheduledEvents() {
-        Event pastEvent = new Event();
-        pastEvent.setId(2L);
-        pastEvent.setTitle("Recital pasado");
-        pastEvent.setStatus(EventStatus.SCHEDULED);
-        pastEvent.setStartDateTime(LocalDateTime.now().minusDays(1));
-        pastEvent.setType(EventType.CONCERT);
+    void shouldReturnFirstPageOfUpcomingEventsWithCursor() {
+        EventDTO later = new EventDTO();
+        later.setId(2L);
+        later.setStartDateTime(event.getStartDateTime().plusDays(1));
+        when(eventCatalog.upcoming(any(LocalDateTime.class), eq(Long.MAX_VALUE), eq(2)))
+                .thenReturn(new ArrayList<>(List.of(eventDTO, later)));
 
-        when(eventRepository.findByStatus(EventStatus.SCHEDULED))
-                .thenReturn(List.of(event, pastEvent));
-        when(modelMapper.map(event, EventDTO.class)).thenReturn(eventDTO);
+        EventPageDTO page = eventService.getUpcomingEvents(null, 1);
 
-        List<EventDTO> result = eventService.getScheduledEvents();
+        assertEquals(List.of(1L), page.getItems().stream().map(EventDTO::getId).toList());
+        assertEquals(new EventCursor(eventDTO.getStartDateTime(), 1L), EventCursor.decode(page.getNextCursor()));
+    }
 
-        assertEquals(1, result.size());
-        assertEquals(EventType.THEATER, result.get(0).getType());
-        verify(eventRepository, times(1)).findByStatus(EventStatus.SCHEDULED);
+    @Test
+    void shouldContinueFromCursorAndEndWithoutNextCursor() {
+        EventCursor cursor = new EventCursor(eventDTO.getStartDateTime(), 1L);
+        when(eventCatalog.upcoming(eventDTO.getStartDateTime(), 1L, 11)).thenReturn(new ArrayList<>());
+
+        EventPageDTO page = eventService.getUpcomingEvents(cursor.encode(), 10);
+
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void shouldRestartFromNowWhenCursorPointsToPastEvents() {
+        LocalDateTime before = LocalDateTime.now();
+        EventCursor stale = new EventCursor(before.minusDays(2), 9L);
+        when(eventCatalog.upcoming(any(LocalDateTime.class), any(Long.class), anyInt())).thenReturn(new ArrayList<>());
+
+        eventService.getUpcomingEvents(stale.encode(), 10);
+
+        ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(eventCatalog).upcoming(from.capture(), eq(Long.MAX_VALUE), eq(11));
+        assertFalse(from.getValue().isBefore(before));
+    }
+
+    @Test
+    void shouldRejectInvalidCursorOrLimit() {
+        assertThrows(IllegalStateException.class, () -> eventService.getUpcomingEvents("%%%", 10));
+        assertThrows(IllegalStateException.class, () -> eventService.getUpcomingEvents(null, 0));
+    }
+
+    @Test
+    void shouldReadAvailabilityFromLedgerOnly() {
+        when(inventoryLedger.availability(1L)).thenReturn(new long[]{7L, 70L});
+        when(inventoryLedger.availability(2L)).thenReturn(new long[0]);
+
+        List<EventAvailabilityDTO> availability = eventService.getAvailability(List.of(1L, 2L));
+
+        assertEquals(List.of(1L, 2L), availability.stream().map(EventAvailabilityDTO::getEventId).toList());
+        assertArrayEquals(new long[]{7L, 70L}, availability.get(0).getTicketOptions());
+        assertEquals(0, availability.get(1).getTicketOptions().length);
+        verifyNoInteractions(eventCatalog, eventRepository);
+    }
+
+    @Test
+    void shouldRejectTooManyAvailabilityIds() {
+        List<Long> ids = LongStream.rangeClosed(1, 501).boxed().toList();
+
+        assertThrows(IllegalStateException.class, () -> eventService.getAvailability(ids));
     }
 }
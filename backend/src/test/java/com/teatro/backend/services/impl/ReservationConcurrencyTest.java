@@ -0,0 +1,160 @@
+package com.teatro.backend.services.impl;
+
+import com.teatro.backend.inventory.InventoryLedger;
+import com.teatro.backend.models.dtos.CreateReservationRequest;
+import com.teatro.backend.models.dtos.ReservationDTO;
+import com.teatro.backend.models.dtos.ReservationItemRequest;
+import com.teatro.backend.services.ReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Dos escrituras sobre la misma reserva al mismo tiempo: sea cual sea el orden, las entradas se devuelven
+// una sola vez y la base y el ledger terminan iguales
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservationrace",
+        "spring.jpa.show-sql=false",
+        "teatro.inventory.reconciler.enabled=false"
+})
+class ReservationConcurrencyTest {
+
+    private static final long EVENT_ID = 2L;
+    private static final int ROUNDS = 10;
+
+    @Autowired private ReservationService reservationService;
+    @Autowired private InventoryLedger inventoryLedger;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private long ticketOptionId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO ticket_option (event_id, name, price, capacity, sold, version) " +
+                "VALUES (?, 'Pullman', 1000.00, 100, 0, 0)", EVENT_ID);
+        ticketOptionId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM ticket_option", Long.class);
+    }
+
+    @Test
+    void concurrentCancellationsShouldReleaseTicketsOnce() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                Long id = reserve(2).getId();
+
+                race(pool, () -> cancel(id), () -> cancel(id));
+
+                assertEquals(0, sold());
+                assertEquals(100, inventoryLedger.remaining(ticketOptionId));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void expirySweepShouldCancelExpiredHoldAndReleaseItsTickets() {
+        Long id = reserve(3).getId();
+        expire(id);
+
+        assertEquals(1, reservationService.expireHolds(List.of(id)));
+
+        assertEquals("CANCELLED", status(id));
+        assertEquals(0, sold());
+        assertEquals(100, inventoryLedger.remaining(ticketOptionId));
+    }
+
+    @Test
+    void expirySweepShouldWaitForPaymentInProgressAndSkipIt() throws Exception {
+        Long id = reserve(2).getId();
+        expire(id);
+        CountDownLatch paying = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            // el pago tiene la fila tomada y todavía no confirmó cuando arranca el barrido
+            Future<?> payment = pool.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                reservationService.updateReservationStatus(id, Map.of("status", "PAID"));
+                paying.countDown();
+                sleep(300);
+            }));
+            assertTrue(paying.await(10, TimeUnit.SECONDS));
+
+            assertEquals(0, reservationService.expireHolds(List.of(id)));
+            payment.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals("PAID", status(id));
+        assertEquals(2, sold());
+        assertEquals(98, inventoryLedger.remaining(ticketOptionId));
+    }
+
+    private ReservationDTO reserve(int quantity) {
+        return reservationService.createReservation(new CreateReservationRequest(3L, EVENT_ID, "Carlos Pérez", "Boletería",
+                List.of(new ReservationItemRequest(ticketOptionId, quantity))));
+    }
+
+    private Object cancel(Long id) {
+        return reservationService.updateReservationStatus(id, Map.of("status", "CANCELLED"));
+    }
+
+    // Larga las dos operaciones juntas y espera a que terminen; los errores de negocio no cuentan como falla
+    private void race(ExecutorService pool, Callable<Object> first, Callable<Object> second) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        Future<?> a = pool.submit(() -> {
+            start.await();
+            return attempt(first);
+        });
+        Future<?> b = pool.submit(() -> {
+            start.await();
+            return attempt(second);
+        });
+        start.countDown();
+        a.get(10, TimeUnit.SECONDS);
+        b.get(10, TimeUnit.SECONDS);
+    }
+
+    private Object attempt(Callable<Object> operation) throws Exception {
+        try {
+            return operation.call();
+        } catch (IllegalStateException e) {
+            return e;
+        }
+    }
+
+    private void expire(Long id) {
+        jdbcTemplate.update("UPDATE reservation SET hold_expires_at = ? WHERE id = ?", LocalDateTime.now().minusMinutes(1), id);
+    }
+
+    private String status(Long id) {
+        return jdbcTemplate.queryForObject("SELECT status FROM reservation WHERE id = ?", String.class, id);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int sold() {
+        return jdbcTemplate.queryForObject("SELECT sold FROM ticket_option WHERE id = ?", Integer.class, ticketOptionId);
+    }
+}
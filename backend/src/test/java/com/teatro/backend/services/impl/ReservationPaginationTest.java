@@ -0,0 +1,96 @@
+package com.teatro.backend.services.impl;
+
+import com.teatro.backend.models.dtos.ReservationDTO;
+import com.teatro.backend.models.dtos.ReservationFilter;
+import com.teatro.backend.models.dtos.ReservationPageDTO;
+import com.teatro.backend.models.enums.ReservationStatus;
+import com.teatro.backend.services.ReservationService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pagination",
+        "spring.jpa.show-sql=false",
+        "teatro.inventory.reconciler.enabled=false"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReservationPaginationTest {
+
+    private static final long EVENT_ID = 4L;
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 3, 1, 10, 0);
+
+    @Autowired private ReservationService reservationService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> newestFirst = new ArrayList<>();
+
+    // 30 reservas del evento 4, de a tres por minuto para que haya empates en created_at; cada décima inactiva
+    @BeforeAll
+    void insertReservations() {
+        for (int i = 0; i < 30; i++) {
+            long id = 5000 + i;
+            boolean active = i % 10 != 9;
+            jdbcTemplate.update("INSERT INTO reservation (id, customer_id, event_id, status, attendee_name, created_at, active) " +
+                            "VALUES (?, ?, ?, ?, 'Test', ?, ?)",
+                    id, i % 2 == 0 ? 1L : 2L, EVENT_ID, i % 3 == 0 ? "PENDING" : "PAID", BASE.plusMinutes(i / 3), active);
+            if (active) {
+                newestFirst.add(0, id);
+            }
+        }
+    }
+
+    @Test
+    void shouldWalkAllPagesWithoutGapsOrRepeats() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ReservationPageDTO page = reservationService.getReservations(eventFilter(), cursor, 7);
+            page.getItems().forEach(reservation -> seen.add(reservation.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(newestFirst, seen);
+        assertEquals(4, pages);
+    }
+
+    @Test
+    void shouldPushFiltersIntoQuery() {
+        ReservationFilter filter = new ReservationFilter(ReservationStatus.PENDING, EVENT_ID, 1L,
+                BASE.plusMinutes(2), BASE.plusMinutes(8), null, null, null);
+
+        List<Long> ids = reservationService.getReservations(filter, null, 50).getItems().stream()
+                .map(ReservationDTO::getId)
+                .toList();
+
+        // PENDING (i % 3 == 0), cliente 1 (i par), creadas entre el minuto 2 y el 8 sin incluirlo
+        assertEquals(List.of(5018L, 5012L, 5006L), ids);
+    }
+
+    @Test
+    void shouldCapPageSizeAndRejectBadCursor() {
+        ReservationPageDTO last = reservationService.getReservations(eventFilter(), null, 1000);
+        assertEquals(newestFirst.size(), last.getItems().size());
+        assertNull(last.getNextCursor());
+
+        assertThrows(IllegalStateException.class, () -> reservationService.getReservations(eventFilter(), "not-a-cursor", 10));
+        assertThrows(IllegalStateException.class, () -> reservationService.getReservations(eventFilter(), null, 0));
+    }
+
+    private ReservationFilter eventFilter() {
+        ReservationFilter filter = new ReservationFilter();
+        filter.setEventId(EVENT_ID);
+        return filter;
+    }
+}
@@ -0,0 +1,198 @@
+package com.teatro.backend.services.impl;
+
+import com.teatro.backend.mappers.CustomerMapper;
+import com.teatro.backend.mappers.FieldSet;
+import com.teatro.backend.mappers.ReservationMapper;
+import com.teatro.backend.models.dtos.CreateReservationRequest;
+import com.teatro.backend.models.dtos.CustomerDTO;
+import com.teatro.backend.models.dtos.EventDTO;
+import com.teatro.backend.models.dtos.ReservationDTO;
+import com.teatro.backend.models.dtos.ReservationFilter;
+import com.teatro.backend.models.dtos.ReservationItemRequest;
+import com.teatro.backend.models.dtos.TicketOptionDTO;
+import com.teatro.backend.services.CustomerService;
+import com.teatro.backend.services.EventService;
+import com.teatro.backend.services.ReservationService;
+import com.teatro.backend.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:querycount",
+        "spring.jpa.show-sql=false",
+        "teatro.inventory.reconciler.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.teatro.backend.support.SqlStatementCounter"
+})
+class ReservationQueryCountTest {
+
+    private static final long EVENT_ID = 2L;
+
+    @Autowired private ReservationService reservationService;
+    @Autowired private EventService eventService;
+    @Autowired private CustomerService customerService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> ticketOptionIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ticketOptionIds.clear();
+        for (int i = 0; i < 6; i++) {
+            jdbcTemplate.update("INSERT INTO ticket_option (event_id, name, price, capacity, sold, version) " +
+                    "VALUES (?, ?, 1000.00, 500, 0, 0)", EVENT_ID, "Sector " + i);
+            ticketOptionIds.add(jdbcTemplate.queryForObject("SELECT MAX(id) FROM ticket_option", Long.class));
+        }
+    }
+
+    @Test
+    void selectCountShouldNotGrowWithItemCount() {
+        createReservation(1);
+
+        SqlStatementCounter.reset();
+        createReservation(1);
+        int selectsForOneItem = SqlStatementCounter.selects();
+        int updatesForOneItem = SqlStatementCounter.updates();
+
+        SqlStatementCounter.reset();
+        createReservation(6);
+        int selectsForSixItems = SqlStatementCounter.selects();
+        int updatesForSixItems = SqlStatementCounter.updates();
+
+        assertEquals(selectsForOneItem, selectsForSixItems);
+        // un UPDATE condicional por opción; el resto de las escrituras son los INSERT de la reserva
+        assertEquals(5, updatesForSixItems - updatesForOneItem);
+    }
+
+    @Test
+    void bulkInsertsShouldBeBatched() {
+        List<CreateReservationRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            requests.add(new CreateReservationRequest(3L, EVENT_ID, "Grupo " + i, "Boletería",
+                    List.of(new ReservationItemRequest(ticketOptionIds.get(i % ticketOptionIds.size()), 1))));
+        }
+
+        SqlStatementCounter.reset();
+        reservationService.createReservations(requests);
+
+        // 20 reservas y 20 ítems: un INSERT preparado por tabla, el resto va en el mismo batch
+        assertEquals(2, SqlStatementCounter.inserts());
+    }
+
+    @Test
+    void readsShouldUseFixedNumberOfSelects() {
+        for (long customerId = 1; customerId <= 4; customerId++) {
+            for (int i = 0; i < 3; i++) {
+                createReservation(customerId, 3);
+            }
+        }
+        ReservationFilter filter = new ReservationFilter();
+        filter.setEventId(EVENT_ID);
+
+        SqlStatementCounter.reset();
+        reservationService.getReservations(filter, null, 1);
+        int selectsForOne = SqlStatementCounter.selects();
+
+        SqlStatementCounter.reset();
+        List<ReservationDTO> page = reservationService.getReservations(filter, null, 500).getItems();
+
+        // la página con cliente y evento en un SELECT, los ítems con su ticket option en otro
+        assertEquals(2, selectsForOne);
+        assertEquals(2, SqlStatementCounter.selects());
+        assertTrue(page.size() >= 12);
+        assertTrue(page.stream().allMatch(reservation -> reservation.getCustomerName() != null && !reservation.getItems().isEmpty()));
+
+        SqlStatementCounter.reset();
+        reservationService.getReservationById(page.get(0).getId());
+        assertEquals(2, SqlStatementCounter.selects());
+
+        SqlStatementCounter.reset();
+        List<ReservationDTO> byCustomer = reservationService.getReservationsByCustomer(3L);
+        assertTrue(byCustomer.size() >= 3);
+        // más el SELECT que valida que el cliente exista
+        assertEquals(3, SqlStatementCounter.selects());
+    }
+
+    @Test
+    void sparseReadsShouldOnlyLoadRequestedData() {
+        for (int i = 0; i < 3; i++) {
+            createReservation(3);
+        }
+        ReservationFilter filter = new ReservationFilter();
+        filter.setEventId(EVENT_ID);
+        filter.setCustomerId(3L);
+
+        // sin nombres ni ítems: un SELECT sobre reservation sola
+        SqlStatementCounter.reset();
+        List<ReservationDTO> grid = reservationService.getReservations(filter, null, 500,
+                FieldSet.parse("id,customerId,status,total", ReservationMapper.FIELDS)).getItems();
+        assertEquals(1, SqlStatementCounter.selects());
+        assertFalse(SqlStatementCounter.lastSelect().contains(" join "), SqlStatementCounter.lastSelect());
+        assertTrue(grid.size() >= 3);
+        assertTrue(grid.stream().allMatch(reservation -> reservation.getCustomerId() == 3L && reservation.getItems().isEmpty()));
+
+        // con el nombre del cliente vuelve el join, pero no la consulta de ítems
+        SqlStatementCounter.reset();
+        List<ReservationDTO> named = reservationService.getReservations(filter, null, 500,
+                FieldSet.parse("id,customerName", ReservationMapper.FIELDS)).getItems();
+        assertEquals(1, SqlStatementCounter.selects());
+        assertTrue(named.stream().allMatch(reservation -> reservation.getCustomerName() != null));
+
+        SqlStatementCounter.reset();
+        List<CustomerDTO> customers = customerService.getAllCustomers(FieldSet.parse("id,firstName,lastName", CustomerMapper.FIELDS));
+        assertEquals(1, SqlStatementCounter.selects());
+        assertFalse(SqlStatementCounter.lastSelect().contains("email"), SqlStatementCounter.lastSelect());
+        assertFalse(customers.isEmpty());
+        assertTrue(customers.stream().allMatch(customer -> customer.getLastName() != null && customer.getEmail() == null));
+    }
+
+    @Test
+    void catalogReadsShouldNotQueryOnceLoaded() {
+        eventService.getAllEvents();
+        eventService.getUpcomingEvents(null, 100);
+        int soldBefore = sold(eventService.getEventById(EVENT_ID), ticketOptionIds.get(0));
+
+        SqlStatementCounter.reset();
+        eventService.getAllEvents();
+        eventService.getUpcomingEvents(null, 100);
+        eventService.getEventById(EVENT_ID);
+        assertEquals(0, SqlStatementCounter.selects());
+
+        createReservation(1);
+
+        // la venta no invalida el catálogo: la disponibilidad viene del ledger
+        SqlStatementCounter.reset();
+        EventDTO event = eventService.getEventById(EVENT_ID);
+        assertEquals(0, SqlStatementCounter.selects());
+        assertEquals(soldBefore + 1, sold(event, ticketOptionIds.get(0)));
+    }
+
+    private int sold(EventDTO event, Long ticketOptionId) {
+        return event.getTicketOptions().stream()
+                .filter(option -> option.getId().equals(ticketOptionId))
+                .findFirst()
+                .map(TicketOptionDTO::getSold)
+                .orElseThrow();
+    }
+
+    private void createReservation(int items) {
+        createReservation(3L, items);
+    }
+
+    private void createReservation(long customerId, int items) {
+        List<ReservationItemRequest> requests = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            requests.add(new ReservationItemRequest(ticketOptionIds.get(i), 1));
+        }
+        // el cliente 3 no tiene pase libre, así no cambia el cálculo entre corridas
+        reservationService.createReservation(
+                new CreateReservationRequest(customerId, EVENT_ID, "Carlos Pérez", "Boletería", requests));
+    }
+}
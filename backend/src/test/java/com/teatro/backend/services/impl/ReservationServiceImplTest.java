@@ -1,6 +1,12 @@
 package com.teatro.backend.services.impl;
 
 import com.teatro.backend.exceptions.ResourceNotFoundException;
+import com.teatro.backend.mappers.ReservationMapper;
+import com.teatro.backend.exceptions.SeatUnavailableException;
+import com.teatro.backend.inventory.InventoryLedger;
+import com.teatro.backend.inventory.InventoryReconciler;
+import com.teatro.backend.inventory.ReservationHoldScheduler;
+import com.teatro.backend.inventory.SeatInventory;
 import com.teatro.backend.models.dtos.CreateReservationRequest;
 import com.teatro.backend.models.dtos.ReservationDTO;
 import com.teatro.backend.models.dtos.ReservationItemRequest;
@@ -11,7 +17,7 @@ import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
-import org.modelmapper.ModelMapper;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -28,7 +34,11 @@ class ReservationServiceImplTest {
     @Mock private CustomerRepository customerRepository;
     @Mock private EventRepository eventRepository;
     @Mock private TicketOptionRepository ticketOptionRepository;
-    @Mock private ModelMapper modelMapper;
+    @Mock private InventoryLedger inventoryLedger;
+    @Mock private ReservationHoldScheduler holdScheduler;
+    @Mock private InventoryReconciler inventoryReconciler;
+    @Mock private SeatInventory seatInventory;
+    @Spy private ReservationMapper reservationMapper = new ReservationMapper();
 
     @InjectMocks
     private ReservationServiceImpl reservationService;
@@ -53,10 +63,13 @@ class ReservationServiceImplTest {
         event.setTitle("Obra de teatro");
 
         ticketOption = mock(TicketOption.class);
-        when(ticketOption.isReservable(anyInt())).thenReturn(true);
         when(ticketOption.getPrice()).thenReturn(new BigDecimal("100.00"));
         when(ticketOption.getName()).thenReturn("VIP");
         when(ticketOption.getId()).thenReturn(1L);
+        when(ticketOption.getEvent()).thenReturn(event);
+        when(inventoryLedger.tryReserve(any(TicketOption.class), anyInt())).thenReturn(true);
+        when(ticketOptionRepository.reserveCapacity(anyLong(), anyInt())).thenReturn(1);
+        when(ticketOptionRepository.releaseCapacity(anyLong(), anyInt())).thenReturn(1);
     }
 
     @Test
@@ -74,7 +87,7 @@ class ReservationServiceImplTest {
 
         when(customerRepository.findByIdAndActiveTrue(1L)).thenReturn(Optional.of(customer));
         when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
-        when(ticketOptionRepository.findById(1L)).thenReturn(Optional.of(ticketOption));
+        when(ticketOptionRepository.findAllById(any())).thenReturn(List.of(ticketOption));
         when(reservationRepository.save(any(Reservation.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -82,16 +95,108 @@ class ReservationServiceImplTest {
 
         assertNotNull(result);
         assertEquals("Obra de teatro", result.getEventTitle());
-        verify(ticketOptionRepository, times(1)).save(ticketOption);
+        verify(inventoryLedger, times(1)).tryReserve(ticketOption, 2);
+        verify(ticketOptionRepository, times(1)).reserveCapacity(1L, 2);
+        verify(ticketOptionRepository, never()).save(any());
         verify(reservationRepository, times(1)).save(any(Reservation.class));
     }
 
+    @Test
+    void shouldScheduleHoldExpirationOnCreate() {
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(30);
+        when(holdScheduler.holdExpiration(event)).thenReturn(expiresAt);
+        when(customerRepository.findByIdAndActiveTrue(1L)).thenReturn(Optional.of(customer));
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(ticketOptionRepository.findAllById(any())).thenReturn(List.of(ticketOption));
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            reservation.setId(50L);
+            return reservation;
+        });
+
+        CreateReservationRequest req = new CreateReservationRequest();
+        req.setCustomerId(1L);
+        req.setEventId(1L);
+        req.setItems(List.of(new ReservationItemRequest(1L, 1)));
+
+        reservationService.createReservation(req);
+
+        verify(holdScheduler).schedule(50L, expiresAt);
+    }
+
+    @Test
+    void shouldCancelExpiredHoldsAndReleaseTickets() {
+        TicketOption general = new TicketOption();
+        general.setId(7L);
+
+        Reservation first = new Reservation();
+        first.setId(1L);
+        first.setEvent(event);
+        first.setStatus(ReservationStatus.PENDING);
+        ReservationItem firstItem = new ReservationItem();
+        firstItem.setTicketOption(general);
+        firstItem.setQuantity(2);
+        first.setItems(List.of(firstItem));
+
+        Reservation second = new Reservation();
+        second.setId(2L);
+        second.setEvent(event);
+        second.setStatus(ReservationStatus.PENDING);
+        ReservationItem secondItem = new ReservationItem();
+        secondItem.setTicketOption(general);
+        secondItem.setQuantity(3);
+        second.setItems(List.of(secondItem));
+
+        when(reservationRepository.findExpiredHolds(eq(List.of(1L, 2L, 3L)), eq(ReservationStatus.PENDING), any()))
+                .thenReturn(List.of(first, second));
+
+        int cancelled = reservationService.expireHolds(List.of(1L, 2L, 3L));
+
+        assertEquals(2, cancelled);
+        assertEquals(ReservationStatus.CANCELLED, first.getStatus());
+        assertEquals(ReservationStatus.CANCELLED, second.getStatus());
+        verify(ticketOptionRepository).releaseCapacity(7L, 5);
+        verify(inventoryLedger).release(7L, 5);
+        verify(inventoryReconciler, atLeastOnce()).markDirty(1L);
+    }
+
+    @Test
+    void shouldReportEachBulkRequestSeparately() {
+        when(ticketOption.getEvent()).thenReturn(event);
+        when(inventoryLedger.remaining(any(TicketOption.class))).thenReturn(3);
+        when(customerRepository.findAllById(any())).thenReturn(List.of(customer));
+        when(eventRepository.findAllById(any())).thenReturn(List.of(event));
+        when(ticketOptionRepository.findAllById(any())).thenReturn(List.of(ticketOption));
+
+        List<CreateReservationRequest> requests = List.of(
+                new CreateReservationRequest(1L, 1L, "Juan", null, List.of(new ReservationItemRequest(1L, 2))),
+                new CreateReservationRequest(1L, 1L, "Pedro", null, List.of(new ReservationItemRequest(1L, 2))),
+                new CreateReservationRequest(9L, 1L, "Ana", null, List.of(new ReservationItemRequest(1L, 1))),
+                new CreateReservationRequest(1L, 1L, "Sofía", null, List.of(new ReservationItemRequest(1L, 1)))
+        );
+
+        List<com.teatro.backend.models.dtos.BulkReservationResultDTO> results = reservationService.createReservations(requests);
+
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertTrue(results.get(1).getError().contains("Not enough tickets"));
+        assertEquals(400, results.get(1).getStatus());
+        assertFalse(results.get(2).isSuccess());
+        assertTrue(results.get(2).getError().contains("Customer not found"));
+        assertEquals(404, results.get(2).getStatus());
+        assertTrue(results.get(3).isSuccess());
+        // una sola actualización condicional con lo aceptado de todo el lote
+        verify(ticketOptionRepository, times(1)).reserveCapacity(1L, 3);
+        verify(reservationRepository, times(1)).saveAll(any());
+    }
+
     @Test
     void shouldThrowWhenTicketNotReservable() {
         when(customerRepository.findByIdAndActiveTrue(1L)).thenReturn(Optional.of(customer));
         when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
-        when(ticketOptionRepository.findById(1L)).thenReturn(Optional.of(ticketOption));
-        when(ticketOption.isReservable(anyInt())).thenReturn(false);
+        when(ticketOptionRepository.findAllById(any())).thenReturn(List.of(ticketOption));
+        when(inventoryLedger.tryReserve(any(TicketOption.class), anyInt())).thenReturn(false);
 
         ReservationItemRequest itemReq = new ReservationItemRequest();
         itemReq.setTicketOptionId(1L);
@@ -103,10 +208,48 @@ class ReservationServiceImplTest {
         req.setItems(List.of(itemReq));
 
         assertThrows(IllegalStateException.class, () -> reservationService.createReservation(req));
-        verify(ticketOptionRepository, never()).save(any());
+        verify(ticketOptionRepository, never()).reserveCapacity(anyLong(), anyInt());
         verify(reservationRepository, never()).save(any());
     }
 
+    @Test
+    void shouldThrowWhenConditionalUpdateFindsNoCapacity() {
+        when(customerRepository.findByIdAndActiveTrue(1L)).thenReturn(Optional.of(customer));
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(ticketOptionRepository.findAllById(any())).thenReturn(List.of(ticketOption));
+        when(ticketOptionRepository.reserveCapacity(1L, 2)).thenReturn(0);
+
+        ReservationItemRequest itemReq = new ReservationItemRequest();
+        itemReq.setTicketOptionId(1L);
+        itemReq.setQuantity(2);
+
+        CreateReservationRequest req = new CreateReservationRequest();
+        req.setCustomerId(1L);
+        req.setEventId(1L);
+        req.setItems(List.of(itemReq));
+
+        assertThrows(IllegalStateException.class, () -> reservationService.createReservation(req));
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldThrowWhenTicketOptionBelongsToAnotherEvent() {
+        Event otherEvent = new Event();
+        otherEvent.setId(2L);
+        when(ticketOption.getEvent()).thenReturn(otherEvent);
+        when(customerRepository.findByIdAndActiveTrue(1L)).thenReturn(Optional.of(customer));
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(ticketOptionRepository.findAllById(any())).thenReturn(List.of(ticketOption));
+
+        CreateReservationRequest req = new CreateReservationRequest();
+        req.setCustomerId(1L);
+        req.setEventId(1L);
+        req.setItems(List.of(new ReservationItemRequest(1L, 1)));
+
+        assertThrows(IllegalStateException.class, () -> reservationService.createReservation(req));
+        verify(ticketOptionRepository, never()).reserveCapacity(anyLong(), anyInt());
+    }
+
     @Test
     void shouldThrowWhenCustomerNotFound() {
         when(customerRepository.findByIdAndActiveTrue(1L)).thenReturn(Optional.empty());
@@ -125,7 +268,7 @@ class ReservationServiceImplTest {
         reservation.setId(1L);
         reservation.setActive(true);
 
-        when(reservationRepository.findByIdAndActiveTrue(1L)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.findForUpdate(1L)).thenReturn(Optional.of(reservation));
 
         reservationService.deleteReservation(1L);
 
@@ -133,6 +276,27 @@ class ReservationServiceImplTest {
         verify(reservationRepository, times(1)).save(reservation);
     }
 
+    @Test
+    void shouldFailInsteadOfReleasingTicketsTwice() {
+        Reservation reservation = new Reservation();
+        reservation.setId(1L);
+        reservation.setActive(true);
+        reservation.setEvent(event);
+        reservation.setStatus(ReservationStatus.PENDING);
+        ReservationItem item = new ReservationItem();
+        item.setTicketOption(ticketOption);
+        item.setQuantity(2);
+        reservation.setItems(List.of(item));
+
+        when(reservationRepository.findForUpdate(1L)).thenReturn(Optional.of(reservation));
+        // la base ya no tiene esas entradas vendidas: otra transacción las devolvió
+        when(ticketOptionRepository.releaseCapacity(1L, 2)).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> reservationService.deleteReservation(1L));
+        verify(inventoryLedger, never()).release(anyLong(), anyInt());
+        verify(reservationRepository, never()).save(any());
+    }
+
     @Test
     void shouldUpdateReservationStatusToPaid() {
 
@@ -153,7 +317,7 @@ class ReservationServiceImplTest {
         reservation.setEvent(event);
         reservation.setItems(List.of());
 
-        when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.findForUpdate(1L)).thenReturn(Optional.of(reservation));
         when(reservationRepository.save(any(Reservation.class)))
                 .thenAnswer(inv -> inv.getArgument(0));
 
@@ -171,53 +335,39 @@ class ReservationServiceImplTest {
     }
 
 
+    @Test
+    void shouldStartNewHoldWhenCancelledReservationIsReopened() {
+        Reservation reservation = new Reservation();
+        reservation.setId(1L);
+        reservation.setCustomer(customer);
+        reservation.setEvent(event);
+        reservation.setStatus(ReservationStatus.CANCELLED);
+        reservation.setHoldExpiresAt(LocalDateTime.now().minusHours(2));
+        ReservationItem item = new ReservationItem();
+        item.setTicketOption(ticketOption);
+        item.setQuantity(2);
+        reservation.setItems(List.of(item));
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(30);
+
+        when(reservationRepository.findForUpdate(1L)).thenReturn(Optional.of(reservation));
+        when(holdScheduler.holdExpiration(event)).thenReturn(expiresAt);
+
+        reservationService.updateReservationStatus(1L, Map.of("status", "PENDING"));
+
+        assertEquals(ReservationStatus.PENDING, reservation.getStatus());
+        assertEquals(expiresAt, reservation.getHoldExpiresAt());
+        verify(ticketOptionRepository).reserveCapacity(1L, 2);
+        verify(holdScheduler).schedule(1L, expiresAt);
+    }
+
     @Test
     void shouldThrowWhenReservationNotFoundOnUpdateStatus() {
-        when(reservationRepository.findById(99L)).thenReturn(Optional.empty());
+        when(reservationRepository.findForUpdate(99L)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () ->
                 reservationService.updateReservationStatus(99L, Map.of("status", "PAID"))
         );
     }
-    @Test
-    void shouldReturnAllActiveReservations() {
-        // --- Arrange ---
-        Customer customer = new Customer();
-        customer.setId(1L);
-        customer.setFirstName("Luca");
-        customer.setLastName("Casamayor");
-
-        Event event = new Event();
-        event.setId(1L);
-        event.setTitle("Concierto");
-
-        Reservation activeReservation = new Reservation();
-        activeReservation.setId(1L);
-        activeReservation.setCustomer(customer);
-        activeReservation.setEvent(event);
-        activeReservation.setStatus(ReservationStatus.PAID);
-        activeReservation.setActive(true);
-        activeReservation.setItems(List.of());
-
-        Reservation inactiveReservation = new Reservation();
-        inactiveReservation.setId(2L);
-        inactiveReservation.setCustomer(customer);
-        inactiveReservation.setEvent(event);
-        inactiveReservation.setActive(false);
-        inactiveReservation.setItems(List.of());
-
-        when(reservationRepository.findAll()).thenReturn(List.of(activeReservation, inactiveReservation));
-
-        // --- Act ---
-        List<ReservationDTO> result = reservationService.getAllReservations();
-
-        // --- Assert ---
-        assertEquals(1, result.size());
-        assertEquals(1L, result.get(0).getId());
-        assertEquals("Concierto", result.get(0).getEventTitle());
-        verify(reservationRepository, times(1)).findAll();
-    }
-
     @Test
     void shouldReturnReservationByIdIfActive() {
         Customer customer = new Customer();
@@ -237,19 +387,27 @@ class ReservationServiceImplTest {
         reservation.setActive(true);
         reservation.setItems(List.of());
 
-        when(reservationRepository.findByIdAndActiveTrue(1L)).thenReturn(Optional.of(reservation));
+        ReservationRepository.ReservationItemRow row = mock(ReservationRepository.ReservationItemRow.class);
+        when(row.getReservationId()).thenReturn(1L);
+        when(row.getTicketOptionName()).thenReturn("Platea");
+        when(row.getQuantity()).thenReturn(2);
+        when(reservationRepository.findWithCustomerAndEventByIdAndActiveTrue(1L)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.findItemRows(List.of(1L))).thenReturn(List.of(row));
 
         ReservationDTO dto = reservationService.getReservationById(1L);
 
         assertNotNull(dto);
         assertEquals("Teatro", dto.getEventTitle());
         assertEquals("Luca Casamayor", dto.getCustomerName());
-        verify(reservationRepository, times(1)).findByIdAndActiveTrue(1L);
+        // los ítems salen de la consulta de lectura, no de la colección de la entidad
+        assertEquals("Platea", dto.getItems().get(0).getTicketOptionName());
+        assertEquals(2, dto.getItems().get(0).getQuantity());
+        verify(reservationRepository, times(1)).findWithCustomerAndEventByIdAndActiveTrue(1L);
     }
 
     @Test
     void shouldThrowWhenReservationNotFoundById() {
-        when(reservationRepository.findByIdAndActiveTrue(1L)).thenReturn(Optional.empty());
+        when(reservationRepository.findWithCustomerAndEventByIdAndActiveTrue(1L)).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> reservationService.getReservationById(1L));
     }
 
@@ -273,7 +431,7 @@ class ReservationServiceImplTest {
         reservation.setItems(List.of());
 
         when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
-        when(reservationRepository.findByCustomerId(1L)).thenReturn(List.of(reservation));
+        when(reservationRepository.findWithCustomerAndEventByCustomerIdAndActiveTrue(1L)).thenReturn(List.of(reservation));
 
         List<ReservationDTO> result = reservationService.getReservationsByCustomer(1L);
 
@@ -281,21 +439,21 @@ class ReservationServiceImplTest {
         assertEquals("Concierto", result.get(0).getEventTitle());
         assertEquals("Luca Casamayor", result.get(0).getCustomerName());
         verify(customerRepository, times(1)).findById(1L);
-        verify(reservationRepository, times(1)).findByCustomerId(1L);
+        verify(reservationRepository, times(1)).findWithCustomerAndEventByCustomerIdAndActiveTrue(1L);
     }
 
     @Test
     void shouldThrowWhenCustomerNotFoundOnGetReservationsByCustomer() {
         when(customerRepository.findById(1L)).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> reservationService.getReservationsByCustomer(1L));
-        verify(reservationRepository, never()).findByCustomerId(anyLong());
+        verify(reservationRepository, never()).findWithCustomerAndEventByCustomerIdAndActiveTrue(anyLong());
     }
     @Test
     void shouldThrowWhenMissingStatusInUpdate() {
         Reservation reservation = new Reservation();
         reservation.setId(1L);
         reservation.setStatus(ReservationStatus.PENDING);
-        when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.findForUpdate(1L)).thenReturn(Optional.of(reservation));
 
         assertThrows(IllegalArgumentException.class, () ->
                 reservationService.updateReservationStatus(1L, Map.of())); // sin 'status'
@@ -306,7 +464,7 @@ class ReservationServiceImplTest {
         Reservation reservation = new Reservation();
         reservation.setId(1L);
         reservation.setStatus(ReservationStatus.PENDING);
-        when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.findForUpdate(1L)).thenReturn(Optional.of(reservation));
 
         assertThrows(IllegalArgumentException.class, () ->
                 reservationService.updateReservationStatus(1L, Map.of("status", "INVALID_STATUS")));
@@ -317,7 +475,7 @@ class ReservationServiceImplTest {
         Reservation reservation = new Reservation();
         reservation.setId(1L);
         reservation.setStatus(ReservationStatus.PAID);
-        when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.findForUpdate(1L)).thenReturn(Optional.of(reservation));
 
         assertThrows(IllegalStateException.class, () ->
                 reservationService.updateReservationStatus(1L, Map.of("status", "CANCELLED")));
@@ -342,7 +500,7 @@ class ReservationServiceImplTest {
         reservation.setPaidAt(LocalDateTime.now());
         reservation.setItems(List.of());
 
-        when(reservationRepository.findById(1L)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.findForUpdate(1L)).thenReturn(Optional.of(reservation));
         when(reservationRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
         ReservationDTO dto = reservationService.updateReservationStatus(1L, Map.of("status", "CANCELLED"));
@@ -365,6 +523,7 @@ class ReservationServiceImplTest {
         TicketOption option = new TicketOption();
         option.setId(3L);
         option.setPrice(new BigDecimal("200"));
+        option.setEvent(event);
 
         Reservation reservation = new Reservation();
         reservation.setId(10L);
@@ -381,26 +540,164 @@ class ReservationServiceImplTest {
                 new com.teatro.backend.models.dtos.ReservationItemDTO(null, 3L, "VIP", 2, BigDecimal.ZERO)
         ));
 
-        when(reservationRepository.findById(10L)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.findForUpdate(10L)).thenReturn(Optional.of(reservation));
         when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
         when(eventRepository.findById(2L)).thenReturn(Optional.of(event));
-        when(ticketOptionRepository.findById(3L)).thenReturn(Optional.of(option));
+        when(ticketOptionRepository.findAllById(any())).thenReturn(List.of(option));
         when(reservationRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
         ReservationDTO result = reservationService.updateReservation(10L, dto);
 
         assertEquals("Juan", result.getAttendeeName());
         assertEquals(1, reservation.getItems().size());
+        verify(ticketOptionRepository).reserveCapacity(3L, 2);
         verify(reservationRepository).save(any());
     }
 
+    @Test
+    void shouldOnlyApplyItemDifferenceWhenUpdatingReservation() {
+        TicketOption general = option(3L, "General");
+        TicketOption vip = option(4L, "VIP");
+        Reservation reservation = reservationWithItems(ReservationStatus.PENDING, item(general, 3), item(vip, 1));
+
+        ReservationDTO dto = new ReservationDTO();
+        dto.setCustomerId(1L);
+        dto.setEventId(1L);
+        dto.setAttendeeName("Juan");
+        dto.setItems(List.of(
+                new com.teatro.backend.models.dtos.ReservationItemDTO(null, 3L, "General", 1, BigDecimal.ZERO),
+                new com.teatro.backend.models.dtos.ReservationItemDTO(null, 4L, "VIP", 2, BigDecimal.ZERO)
+        ));
+
+        when(reservationRepository.findForUpdate(10L)).thenReturn(Optional.of(reservation));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(ticketOptionRepository.findAllById(any())).thenReturn(List.of(general, vip));
+        when(reservationRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        reservationService.updateReservation(10L, dto);
+
+        InOrder inOrder = inOrder(ticketOptionRepository);
+        inOrder.verify(ticketOptionRepository).releaseCapacity(3L, 2);
+        inOrder.verify(ticketOptionRepository).reserveCapacity(4L, 1);
+        verify(inventoryLedger).release(3L, 2);
+        verify(inventoryLedger).tryReserve(vip, 1);
+    }
+
+    @Test
+    void shouldRejectUpdateThatNoLongerFits() {
+        TicketOption vip = option(4L, "VIP");
+        Reservation reservation = reservationWithItems(ReservationStatus.PENDING, item(vip, 1));
+
+        ReservationDTO dto = new ReservationDTO();
+        dto.setCustomerId(1L);
+        dto.setEventId(1L);
+        dto.setItems(List.of(new com.teatro.backend.models.dtos.ReservationItemDTO(null, 4L, "VIP", 5, BigDecimal.ZERO)));
+
+        when(reservationRepository.findForUpdate(10L)).thenReturn(Optional.of(reservation));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(ticketOptionRepository.findAllById(any())).thenReturn(List.of(vip));
+        when(ticketOptionRepository.reserveCapacity(4L, 4)).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> reservationService.updateReservation(10L, dto));
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldReleaseTicketsWhenCancelling() {
+        TicketOption general = option(3L, "General");
+        Reservation reservation = reservationWithItems(ReservationStatus.PENDING, item(general, 2));
+        when(reservationRepository.findForUpdate(10L)).thenReturn(Optional.of(reservation));
+
+        reservationService.updateReservationStatus(10L, Map.of("status", "CANCELLED"));
+
+        verify(ticketOptionRepository).releaseCapacity(3L, 2);
+        verify(inventoryLedger).release(3L, 2);
+        verify(inventoryReconciler).markDirty(1L);
+    }
+
+    @Test
+    void shouldReserveAgainWhenReopeningCancelledReservation() {
+        TicketOption general = option(3L, "General");
+        Reservation reservation = reservationWithItems(ReservationStatus.CANCELLED, item(general, 2));
+        when(reservationRepository.findForUpdate(10L)).thenReturn(Optional.of(reservation));
+
+        reservationService.updateReservationStatus(10L, Map.of("status", "PENDING"));
+
+        verify(ticketOptionRepository).reserveCapacity(3L, 2);
+        verify(ticketOptionRepository, never()).releaseCapacity(anyLong(), anyInt());
+    }
+
+    @Test
+    void shouldNotTouchInventoryWhenPaying() {
+        TicketOption general = option(3L, "General");
+        Reservation reservation = reservationWithItems(ReservationStatus.PENDING, item(general, 2));
+        when(reservationRepository.findForUpdate(10L)).thenReturn(Optional.of(reservation));
+
+        reservationService.updateReservationStatus(10L, Map.of("status", "PAID"));
+
+        verify(ticketOptionRepository, never()).reserveCapacity(anyLong(), anyInt());
+        verify(ticketOptionRepository, never()).releaseCapacity(anyLong(), anyInt());
+    }
+
+    @Test
+    void shouldReleaseTicketsWhenDeactivating() {
+        TicketOption general = option(3L, "General");
+        Reservation reservation = reservationWithItems(ReservationStatus.PAID, item(general, 4));
+        when(reservationRepository.findForUpdate(10L)).thenReturn(Optional.of(reservation));
+
+        reservationService.deleteReservation(10L);
+
+        verify(ticketOptionRepository).releaseCapacity(3L, 4);
+        verify(inventoryLedger).release(3L, 4);
+    }
+
+    @Test
+    void shouldNotReleaseCancelledReservationTwiceWhenDeactivating() {
+        TicketOption general = option(3L, "General");
+        Reservation reservation = reservationWithItems(ReservationStatus.CANCELLED, item(general, 4));
+        when(reservationRepository.findForUpdate(10L)).thenReturn(Optional.of(reservation));
+
+        reservationService.deleteReservation(10L);
+
+        verify(ticketOptionRepository, never()).releaseCapacity(anyLong(), anyInt());
+    }
+
+    private TicketOption option(Long id, String name) {
+        TicketOption option = new TicketOption();
+        option.setId(id);
+        option.setName(name);
+        option.setPrice(new BigDecimal("100.00"));
+        option.setEvent(event);
+        return option;
+    }
+
+    private ReservationItem item(TicketOption option, int quantity) {
+        ReservationItem item = new ReservationItem();
+        item.setTicketOption(option);
+        item.setQuantity(quantity);
+        item.setUnitPrice(option.getPrice());
+        return item;
+    }
+
+    private Reservation reservationWithItems(ReservationStatus status, ReservationItem... items) {
+        Reservation reservation = new Reservation();
+        reservation.setId(10L);
+        reservation.setCustomer(customer);
+        reservation.setEvent(event);
+        reservation.setStatus(status);
+        reservation.setItems(new java.util.ArrayList<>(List.of(items)));
+        return reservation;
+    }
+
 
     @Test
     void shouldThrowWhenUpdatingPaidReservation() {
         Reservation reservation = new Reservation();
         reservation.setId(10L);
         reservation.setStatus(ReservationStatus.PAID);
-        when(reservationRepository.findById(10L)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.findForUpdate(10L)).thenReturn(Optional.of(reservation));
 
         ReservationDTO dto = new ReservationDTO();
         dto.setCustomerId(1L);
@@ -409,5 +706,58 @@ class ReservationServiceImplTest {
         assertThrows(IllegalStateException.class, () -> reservationService.updateReservation(10L, dto));
     }
 
+    @Test
+    void shouldAssignBestAvailableSeatsWhenNoneAreGiven() {
+        when(seatInventory.hasSeatMap(1L)).thenReturn(true);
+        when(seatInventory.bestAvailable(1L, 2)).thenReturn(Optional.of(List.of("4-9", "4-10")));
+        when(customerRepository.findByIdAndActiveTrue(1L)).thenReturn(Optional.of(customer));
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(ticketOptionRepository.findAllById(any())).thenReturn(List.of(ticketOption));
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ReservationItemRequest itemReq = new ReservationItemRequest(1L, 2);
+        ReservationDTO result = reservationService.createReservation(
+                new CreateReservationRequest(1L, 1L, "Juan Perez", "Empleado", List.of(itemReq)));
+
+        assertEquals(List.of("4-9", "4-10"), result.getItems().get(0).getSeats());
+        verify(seatInventory).apply(eq(1L), argThat(seats -> seats.size() == 2 && seats.containsAll(List.of("4-9", "4-10"))), eq(List.of()));
+        // el pedido no se toca: un reintento vuelve a buscar
+        assertNull(itemReq.getSeats());
+    }
+
+    @Test
+    void shouldRetryWhenAssignedSeatsAreTakenMeanwhile() {
+        when(seatInventory.hasSeatMap(1L)).thenReturn(true);
+        when(seatInventory.bestAvailable(1L, 1)).thenReturn(Optional.of(List.of("4-9")));
+        doThrow(new SeatUnavailableException("Seat 4-9 is already taken"))
+                .when(seatInventory).apply(eq(1L), any(), any());
+        when(customerRepository.findByIdAndActiveTrue(1L)).thenReturn(Optional.of(customer));
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(ticketOptionRepository.findAllById(any())).thenReturn(List.of(ticketOption));
+
+        CreateReservationRequest req = new CreateReservationRequest(1L, 1L, "Juan Perez", "Empleado",
+                List.of(new ReservationItemRequest(1L, 1)));
+        assertThrows(OptimisticLockingFailureException.class, () -> reservationService.createReservation(req));
+
+        // butacas elegidas a mano: el conflicto se informa tal cual
+        CreateReservationRequest chosen = new CreateReservationRequest(1L, 1L, "Juan Perez", "Empleado",
+                List.of(new ReservationItemRequest(1L, 1, List.of("4-9"))));
+        assertThrows(SeatUnavailableException.class, () -> reservationService.createReservation(chosen));
+    }
+
+    @Test
+    void shouldRejectWhenNoSeatsTogetherAreLeft() {
+        when(seatInventory.hasSeatMap(1L)).thenReturn(true);
+        when(seatInventory.bestAvailable(1L, 6)).thenReturn(Optional.empty());
+        when(customerRepository.findByIdAndActiveTrue(1L)).thenReturn(Optional.of(customer));
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(ticketOptionRepository.findAllById(any())).thenReturn(List.of(ticketOption));
 
+        CreateReservationRequest req = new CreateReservationRequest(1L, 1L, "Juan Perez", "Empleado",
+                List.of(new ReservationItemRequest(1L, 6)));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> reservationService.createReservation(req));
+        assertEquals("There are no 6 seats together available for VIP", ex.getMessage());
+        verify(ticketOptionRepository, never()).reserveCapacity(anyLong(), anyInt());
+    }
 }
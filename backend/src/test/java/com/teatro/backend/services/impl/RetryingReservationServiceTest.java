@@ -0,0 +1,79 @@
+package com.teatro.backend.services.impl;
+
+import com.teatro.backend.models.dtos.CreateReservationRequest;
+import com.teatro.backend.models.dtos.ReservationDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RetryingReservationServiceTest {
+
+    @Mock
+    private ReservationServiceImpl delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RetryingReservationService retryingService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        retryingService = new RetryingReservationService(delegate, meterRegistry, 3, 1, 4);
+    }
+
+    @Test
+    void shouldRetryCreateReservationOnOptimisticLockFailure() {
+        ReservationDTO dto = new ReservationDTO();
+        dto.setId(1L);
+        when(delegate.createReservation(any(CreateReservationRequest.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException("TicketOption", 1L))
+                .thenReturn(dto);
+
+        ReservationDTO result = retryingService.createReservation(new CreateReservationRequest());
+
+        assertEquals(1L, result.getId());
+        verify(delegate, times(2)).createReservation(any(CreateReservationRequest.class));
+        assertEquals(1.0, meterRegistry.counter("reservations.retry.attempts", "method", "createReservation").count());
+        assertEquals(1.0, meterRegistry.counter("reservations.retry.recovered", "method", "createReservation").count());
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxAttempts() {
+        when(delegate.updateReservationStatus(eq(1L), anyMap()))
+                .thenThrow(new ObjectOptimisticLockingFailureException("Reservation", 1L));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> retryingService.updateReservationStatus(1L, Map.of("status", "PAID")));
+
+        verify(delegate, times(3)).updateReservationStatus(eq(1L), anyMap());
+        assertEquals(1.0, meterRegistry.counter("reservations.retry.exhausted", "method", "updateReservationStatus").count());
+    }
+
+    @Test
+    void shouldNotRetryBusinessErrors() {
+        when(delegate.createReservation(any(CreateReservationRequest.class)))
+                .thenThrow(new IllegalStateException("Not enough tickets available for VIP"));
+
+        assertThrows(IllegalStateException.class, () -> retryingService.createReservation(new CreateReservationRequest()));
+        verify(delegate, times(1)).createReservation(any(CreateReservationRequest.class));
+    }
+
+    @Test
+    void shouldKeepBackoffWithinBounds() {
+        for (int attempt = 1; attempt <= 10; attempt++) {
+            long delay = retryingService.backoff(attempt);
+            assertTrue(delay >= 0 && delay <= 4, "backoff fuera de rango: " + delay);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.teatro.backend.services.impl;
+
+import com.teatro.backend.exceptions.ResourceNotFoundException;
+import com.teatro.backend.inventory.InventoryLedger;
+import com.teatro.backend.inventory.SeatInventory;
+import com.teatro.backend.models.dtos.CreateReservationRequest;
+import com.teatro.backend.models.dtos.ReservationDTO;
+import com.teatro.backend.models.dtos.ReservationItemRequest;
+import com.teatro.backend.models.dtos.SeatMapDTO;
+import com.teatro.backend.services.ReservationService;
+import com.teatro.backend.services.SeatMapService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:seats",
+        "spring.jpa.show-sql=false",
+        "teatro.inventory.reconciler.enabled=false"
+})
+class SeatReservationFlowTest {
+
+    private static final long EVENT_ID = 3L;
+
+    @Autowired private ReservationService reservationService;
+    @Autowired private SeatMapService seatMapService;
+    @Autowired private SeatInventory seatInventory;
+    @Autowired private InventoryLedger inventoryLedger;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private long ticketOptionId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO ticket_option (event_id, name, price, capacity, sold, version) " +
+                "VALUES (?, 'Platea numerada', 1000.00, 1, 0, 0)", EVENT_ID);
+        ticketOptionId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM ticket_option", Long.class);
+        seatMapService.createSeatMap(ticketOptionId, new SeatMapDTO(null, 40, 50, null, null));
+    }
+
+    @Test
+    void shouldClaimSeatsAndPersistThemPacked() {
+        ReservationDTO reservation = reserve("5-10", "5-11");
+
+        assertEquals(List.of("5-10", "5-11"), reservation.getItems().get(0).getSeats());
+        SeatMapDTO seatMap = seatMapService.getSeatMap(ticketOptionId);
+        assertEquals(1998, seatMap.getAvailable());
+        assertEquals(2000, jdbcTemplate.queryForObject("SELECT capacity FROM ticket_option WHERE id = ?", Integer.class, ticketOptionId));
+
+        // la fila seat_map es la que se carga al arrancar
+        seatInventory.rebuild();
+        assertEquals(1998, seatMapService.getSeatMap(ticketOptionId).getAvailable());
+    }
+
+    @Test
+    void shouldRejectTakenSeatWithoutSideEffects() {
+        reserve("1-1");
+
+        assertThrows(IllegalStateException.class, () -> reserve("1-2", "1-1"));
+
+        assertEquals(1999, seatMapService.getSeatMap(ticketOptionId).getAvailable());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT sold FROM ticket_option WHERE id = ?", Integer.class, ticketOptionId));
+        // 1-2 quedó libre porque la transacción se deshizo
+        assertNotNull(reserve("1-2"));
+    }
+
+    @Test
+    void shouldRequireOneSeatPerTicket() {
+        assertThrows(IllegalStateException.class, () -> reservationService.createReservation(
+                new CreateReservationRequest(3L, EVENT_ID, "Carlos Pérez", "Boletería",
+                        List.of(new ReservationItemRequest(ticketOptionId, 2, List.of("2-2"))))));
+    }
+
+    @Test
+    void shouldFreeSeatsWhenCancelled() {
+        ReservationDTO reservation = reserve("7-7", "7-8");
+
+        reservationService.updateReservationStatus(reservation.getId(), Map.of("status", "CANCELLED"));
+
+        assertEquals(2000, seatMapService.getSeatMap(ticketOptionId).getAvailable());
+        assertNotNull(reserve("7-7"));
+    }
+
+    @Test
+    void shouldHoldBestAvailableBlockAndConfirmIt() {
+        List<String> suggested = seatMapService.findBestAvailable(ticketOptionId, 3).getSeats();
+
+        ReservationDTO held = reservationService.createReservation(new CreateReservationRequest(3L, EVENT_ID,
+                "Carlos Pérez", "Boletería", List.of(new ReservationItemRequest(ticketOptionId, 3))));
+        assertEquals(suggested, held.getItems().get(0).getSeats());
+        assertEquals(List.of("15-25", "15-26", "15-27"), suggested);
+
+        // el siguiente grupo va a otro bloque
+        ReservationDTO next = reservationService.createReservation(new CreateReservationRequest(3L, EVENT_ID,
+                "Carlos Pérez", "Boletería", List.of(new ReservationItemRequest(ticketOptionId, 3))));
+        assertTrue(next.getItems().get(0).getSeats().stream().noneMatch(suggested::contains));
+
+        ReservationDTO paid = reservationService.updateReservationStatus(held.getId(), Map.of("status", "PAID"));
+        assertEquals(suggested, paid.getItems().get(0).getSeats());
+        assertEquals(1994, seatMapService.getSeatMap(ticketOptionId).getAvailable());
+    }
+
+    @Test
+    void shouldLeaveNoSeatMapInMemoryWhenCreationRollsBack() {
+        jdbcTemplate.update("INSERT INTO ticket_option (event_id, name, price, capacity, sold, version) " +
+                "VALUES (?, 'Palco', 1000.00, 4, 0, 0)", EVENT_ID);
+        Long boxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM ticket_option", Long.class);
+        int remaining = inventoryLedger.remaining(boxId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            seatMapService.createSeatMap(boxId, new SeatMapDTO(null, 2, 3, null, null));
+            status.setRollbackOnly();
+        });
+
+        assertFalse(seatInventory.hasSeatMap(boxId));
+        assertThrows(ResourceNotFoundException.class, () -> seatMapService.getSeatMap(boxId));
+        assertEquals(remaining, inventoryLedger.remaining(boxId));
+    }
+
+    @Test
+    void shouldRejectSeatMapForOptionWithTicketsSold() {
+        jdbcTemplate.update("INSERT INTO ticket_option (event_id, name, price, capacity, sold, version) " +
+                "VALUES (?, 'Palco', 1000.00, 4, 1, 0)", EVENT_ID);
+        Long boxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM ticket_option", Long.class);
+
+        assertThrows(IllegalStateException.class,
+                () -> seatMapService.createSeatMap(boxId, new SeatMapDTO(null, 2, 3, null, null)));
+        assertFalse(seatInventory.hasSeatMap(boxId));
+    }
+
+    private ReservationDTO reserve(String... seats) {
+        return reservationService.createReservation(new CreateReservationRequest(3L, EVENT_ID, "Carlos Pérez", "Boletería",
+                List.of(new ReservationItemRequest(ticketOptionId, seats.length, List.of(seats)))));
+    }
+}
@@ -0,0 +1,72 @@
+package com.teatro.backend.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Cuenta las sentencias que Hibernate manda a la base; se registra con
+// spring.jpa.properties.hibernate.session_factory.statement_inspector en los tests que lo usan.
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final AtomicInteger SELECTS = new AtomicInteger();
+    private static final AtomicInteger INSERTS = new AtomicInteger();
+    private static final AtomicInteger UPDATES = new AtomicInteger();
+    private static final AtomicReference<String> LAST_SELECT = new AtomicReference<>();
+    private static final List<String> SELECTED = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public String inspect(String sql) {
+        String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+        // los "select next value for" del pool de ids no son lecturas y caen según por dónde venga la secuencia
+        if (statement.startsWith("select next value")) {
+            return sql;
+        }
+        if (statement.startsWith("select")) {
+            SELECTS.incrementAndGet();
+            LAST_SELECT.set(statement);
+            SELECTED.add(sql);
+        } else if (statement.startsWith("insert")) {
+            INSERTS.incrementAndGet();
+        } else if (statement.startsWith("update")) {
+            UPDATES.incrementAndGet();
+        }
+        return sql;
+    }
+
+    public static void reset() {
+        SELECTS.set(0);
+        INSERTS.set(0);
+        UPDATES.set(0);
+        LAST_SELECT.set(null);
+        SELECTED.clear();
+    }
+
+    public static int selects() {
+        return SELECTS.get();
+    }
+
+    public static int inserts() {
+        return INSERTS.get();
+    }
+
+    public static int updates() {
+        return UPDATES.get();
+    }
+
+    // Tal como las mandó Hibernate, en orden
+    public static List<String> selected() {
+        synchronized (SELECTED) {
+            return List.copyOf(SELECTED);
+        }
+    }
+
+    // En minúsculas, como se compara al contar
+    public static String lastSelect() {
+        return LAST_SELECT.get();
+    }
+}
@@ -0,0 +1,62 @@
+package com.teatro.backend.versioning;
+
+import com.teatro.backend.models.dtos.CustomerDTO;
+import com.teatro.backend.models.entities.Customer;
+import com.teatro.backend.repositories.CustomerRepository;
+import com.teatro.backend.services.CustomerService;
+import com.teatro.backend.versioning.TableVersions.Table;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tableversions",
+        "teatro.inventory.reconciler.enabled=false"
+})
+class TableVersionsTest {
+
+    @Autowired private TableVersions tableVersions;
+    @Autowired private CustomerService customerService;
+    @Autowired private CustomerRepository customerRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @Test
+    void shouldBumpOnlyTheChangedTableAfterCommit() {
+        long customers = tableVersions.version(Table.CUSTOMER);
+        long reservations = tableVersions.version(Table.RESERVATION);
+        String etag = tableVersions.etag(Table.CUSTOMER);
+
+        CustomerDTO dto = customerService.getCustomerById(1L);
+        dto.setFirstName(dto.getFirstName() + "x");
+        customerService.updateCustomer(1L, dto);
+
+        assertEquals(customers + 1, tableVersions.version(Table.CUSTOMER));
+        assertEquals(reservations, tableVersions.version(Table.RESERVATION));
+        assertNotEquals(etag, tableVersions.etag(Table.CUSTOMER));
+    }
+
+    @Test
+    void shouldWaitForCommitAndIgnoreRollbacks() {
+        long before = tableVersions.version(Table.CUSTOMER);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Customer customer = customerRepository.findById(2L).orElseThrow();
+            customer.setLastName(customer.getLastName() + "x");
+            customerRepository.flush();
+            // ya está en la base pero sin confirmar: el ETag viejo sigue valiendo
+            assertEquals(before, tableVersions.version(Table.CUSTOMER));
+            status.setRollbackOnly();
+        });
+        assertEquals(before, tableVersions.version(Table.CUSTOMER));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // dos cambios en la misma transacción cuentan una vez
+            customerRepository.findById(2L).orElseThrow().setLastName("Uno");
+            customerRepository.findById(3L).orElseThrow().setLastName("Dos");
+        });
+        assertEquals(before + 1, tableVersions.version(Table.CUSTOMER));
+    }
+}
@@ -1,5 +1,5 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { Customer } from '../models/customer.model';
 
@@ -9,8 +9,10 @@ export class CustomerService {
 
   constructor(private http: HttpClient) {}
 
-  getAll(): Observable<Customer[]> {
-    return this.http.get<Customer[]>(this.apiUrl);
+  // fields: solo esas propiedades (ej. ['id', 'firstName', 'lastName']); sin fields viene el cliente completo
+  getAll(fields?: string[]): Observable<Customer[]> {
+    const params = fields?.length ? new HttpParams().set('fields', fields.join(',')) : undefined;
+    return this.http.get<Customer[]>(this.apiUrl, { params });
   }
 
   getById(id: number): Observable<Customer> {
@@ -30,6 +32,10 @@ export class CustomerService {
   }
 
 
+  search(q: string, limit = 20): Observable<Customer[]> {
+    return this.http.get<Customer[]>(`${this.apiUrl}/search`, { params: { q, limit } });
+  }
+
   getFreePass(): Observable<Customer[]> {
     return this.http.get<Customer[]>(`${this.apiUrl}/free-pass`);
   }
@@ -1,6 +1,6 @@
 import { Injectable } from '@angular/core';
 import { HttpClient, HttpParams } from '@angular/common/http';
-import { Observable } from 'rxjs';
+import { EMPTY, Observable, expand, reduce } from 'rxjs';
 import { Event } from '../models/event.model';
 
 @Injectable({ providedIn: 'root' })
@@ -10,8 +10,10 @@ export class EventService {
   constructor(private http: HttpClient) {}
 
 
-  getAll(): Observable<Event[]> {
-    return this.http.get<Event[]>(this.apiUrl);
+  // fields: solo esas propiedades (ej. ['id', 'title']); sin fields viene el evento completo
+  getAll(fields?: string[]): Observable<Event[]> {
+    const params = fields?.length ? new HttpParams().set('fields', fields.join(',')) : undefined;
+    return this.http.get<Event[]>(this.apiUrl, { params });
   }
 
 
@@ -34,7 +36,18 @@ export class EventService {
     return this.http.patch<Event>(`${this.apiUrl}/${id}/status`, null, { params });
   }
 
+  // /upcoming viene de a una página: se sigue X-Next-Cursor hasta la última y se emite la lista completa
   getUpcoming(): Observable<Event[]> {
-    return this.http.get<Event[]>(`${this.apiUrl}/upcoming`);
+    const page = (cursor?: string) => this.http.get<Event[]>(`${this.apiUrl}/upcoming`, {
+      params: cursor ? new HttpParams().set('cursor', cursor) : undefined,
+      observe: 'response'
+    });
+    return page().pipe(
+      expand(response => {
+        const next = response.headers.get('X-Next-Cursor');
+        return next ? page(next) : EMPTY;
+      }),
+      reduce((all, response) => all.concat(response.body ?? []), [] as Event[])
+    );
   }
 }
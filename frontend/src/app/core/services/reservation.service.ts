@@ -1,6 +1,6 @@
 import { Injectable } from '@angular/core';
-import { HttpClient, HttpHeaders } from '@angular/common/http';
-import {Observable, tap} from 'rxjs';
+import { HttpClient, HttpHeaders, HttpParams } from '@angular/common/http';
+import {EMPTY, Observable, expand, reduce, tap} from 'rxjs';
 import { Reservation } from '../models/reservation.model';
 
 @Injectable({
@@ -11,8 +11,21 @@ export class ReservationService {
 
   constructor(private http: HttpClient) {}
 
-  getAll(): Observable<Reservation[]> {
-    return this.http.get<Reservation[]>(this.apiUrl);
+  // fields: solo esas propiedades (ej. ['id', 'status', 'total']); sin fields viene la reserva con sus ítems.
+  // El backend devuelve de a una página: se sigue X-Next-Cursor hasta la última y se emite la lista completa
+  getAll(fields?: string[]): Observable<Reservation[]> {
+    const params = fields?.length ? new HttpParams().set('fields', fields.join(',')) : new HttpParams();
+    const page = (cursor?: string) => this.http.get<Reservation[]>(this.apiUrl, {
+      params: cursor ? params.set('cursor', cursor) : params,
+      observe: 'response'
+    });
+    return page().pipe(
+      expand(response => {
+        const next = response.headers.get('X-Next-Cursor');
+        return next ? page(next) : EMPTY;
+      }),
+      reduce((all, response) => all.concat(response.body ?? []), [] as Reservation[])
+    );
   }
 
   getById(id: number): Observable<Reservation> {
@@ -75,14 +75,15 @@ export class ReservationListComponent implements OnInit, AfterViewInit {
   }
 
   private loadCustomers(): void {
-    this.customerService.getAll().subscribe({
+    // solo lo que usa la grilla para mostrar nombre y correo
+    this.customerService.getAll(['id', 'firstName', 'lastName', 'email']).subscribe({
       next: (data) => (this.customers = data ?? []),
       error: (err) => console.error('Error cargando clientes:', err)
     });
   }
 
   private loadEvents(): void {
-    this.eventService.getAll().subscribe({
+    this.eventService.getAll(['id', 'title', 'startDateTime']).subscribe({
       next: (data) => (this.events = data ?? []),
       error: (err) => console.error('Error cargando eventos:', err)
     });